@@ -0,0 +1,250 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * CatalogSourceGenerator turns the catalog .csv files into Java sources for ToolLookupGenerated,
+ * ChargePolicyLookupGenerated and HolidayLookupGenerated, so a frozen catalog needs no parsing at startup.
+ *
+ * It is run by Maven in the generate-sources phase as a single-file source program, before anything in src/main is
+ * compiled, so it cannot use the project's own classes and parses the files itself. The rules are the same as
+ * MappedCSVReader and the *LookupCSV classes: blank lines are skipped, and later rows replace earlier rows with the
+ * same key.
+ *
+ * Each lookup keeps its canonical instances in a table indexed by a perfect hash of String.hashCode, which the Java
+ * specification fixes, so the table built here is valid in every JVM. A lookup is one multiply, one shift, one array
+ * read and one String.equals.
+ *
+ * Usage: java src/generator/java/CatalogSourceGenerator.java [csvDirectory] [outputDirectory]
+ */
+public class CatalogSourceGenerator {
+    private static final int MAX_MULTIPLIER_TRIES = 1 << 16;
+
+    public static void main(String[] args) throws IOException {
+        Path csvDirectory = Path.of(args.length > 0 ? args[0] : "csv");
+        Path outputDirectory = Path.of(args.length > 1 ? args[1] : "target/generated-sources/catalog");
+
+        Map<String, String[]> tools = new LinkedHashMap<>();
+        for (String[] row : readRows(csvDirectory.resolve("Tools.csv"), 3)) {
+            tools.put(row[2], row);
+        }
+        Map<String, String[]> policies = new LinkedHashMap<>();
+        for (String[] row : readRows(csvDirectory.resolve("ChargePolicies.csv"), 5)) {
+            policies.put(row[0], row);
+        }
+        List<String[]> holidays = readRows(csvDirectory.resolve("Holidays.csv"), 4);
+
+        write(outputDirectory, "demo/rental/tool/ToolLookupGenerated.java", generateToolLookup(tools));
+        write(outputDirectory, "demo/rental/charge/ChargePolicyLookupGenerated.java", generatePolicyLookup(policies));
+        write(outputDirectory, "demo/rental/dates/HolidayLookupGenerated.java", generateHolidayLookup(holidays));
+    }
+
+    private static List<String[]> readRows(Path file, int maxFields) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+            if (line.isEmpty()) continue;
+            String[] fields = line.split(",", maxFields);
+            if (fields.length < maxFields) {
+                throw new IllegalArgumentException(file + ": expected " + maxFields + " fields in \"" + line + "\"");
+            }
+            rows.add(fields);
+        }
+        return rows;
+    }
+
+    private static String generateToolLookup(Map<String, String[]> tools) {
+        List<String> codes = new ArrayList<>(tools.keySet());
+        PerfectHash hash = PerfectHash.find(codes);
+        StringBuilder source = header("demo.rental.tool", "csv/Tools.csv");
+        source.append("/**\n")
+                .append(" * A ToolLookup generated at build time from csv/Tools.csv, which needs no parsing at startup\n")
+                .append(" * Every lookup returns the same canonical Tool, found through a perfect hash of the tool code\n")
+                .append(" */\n")
+                .append("public final class ToolLookupGenerated implements ToolLookup {\n");
+        hash.appendConstants(source);
+        source.append("    private static final Tool[] TABLE = new Tool[").append(hash.capacity()).append("];\n\n")
+                .append("    static {\n");
+        for (int i = 0; i < codes.size(); i++) {
+            String[] row = tools.get(codes.get(i));
+            source.append("        TABLE[").append(hash.slotOf(codes.get(i))).append("] = new Tool(")
+                    .append(literal(row[0])).append(", ").append(literal(row[1])).append(", ")
+                    .append(literal(row[2])).append(");\n");
+        }
+        source.append("    }\n\n")
+                .append("    /**\n")
+                .append("     * @return the number of tools in the generated catalog\n")
+                .append("     */\n")
+                .append("    public int size() {\n")
+                .append("        return ").append(codes.size()).append(";\n")
+                .append("    }\n\n")
+                .append("    /**\n")
+                .append("     * @param toolCode the unique code for the tool\n")
+                .append("     * @return the Tool matching the given tool code, or null if tool code not found\n")
+                .append("     */\n")
+                .append("    @Override\n")
+                .append("    public Tool getToolFromCode(String toolCode) {\n")
+                .append("        if (toolCode == null) return null;\n")
+                .append("        Tool tool = TABLE[(toolCode.hashCode() * MULTIPLIER) >>> SHIFT];\n")
+                .append("        return tool != null && tool.code().equals(toolCode) ? tool : null;\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private static String generatePolicyLookup(Map<String, String[]> policies) {
+        List<String> types = new ArrayList<>(policies.keySet());
+        PerfectHash hash = PerfectHash.find(types);
+        StringBuilder source = header("demo.rental.charge", "csv/ChargePolicies.csv");
+        source.append("/**\n")
+                .append(" * A ChargePolicyLookup generated at build time from csv/ChargePolicies.csv, which needs no parsing at startup\n")
+                .append(" * Every lookup returns the same canonical ChargePolicy, found through a perfect hash of the tool type\n")
+                .append(" */\n")
+                .append("public final class ChargePolicyLookupGenerated implements ChargePolicyLookup {\n");
+        hash.appendConstants(source);
+        source.append("    private static final String[] TYPES = new String[").append(hash.capacity()).append("];\n")
+                .append("    private static final ChargePolicy[] POLICIES = new ChargePolicy[").append(hash.capacity())
+                .append("];\n\n")
+                .append("    static {\n");
+        for (String type : types) {
+            String[] row = policies.get(type);
+            int slot = hash.slotOf(type);
+            source.append("        TYPES[").append(slot).append("] = ").append(literal(type)).append(";\n")
+                    .append("        POLICIES[").append(slot).append("] = new ChargePolicy(")
+                    .append(Long.parseLong(row[1].trim())).append("L, ").append(isYes(row[2])).append(", ")
+                    .append(isYes(row[3])).append(", ").append(isYes(row[4])).append(");\n");
+        }
+        source.append("    }\n\n")
+                .append("    /**\n")
+                .append("     * @param type A string identifying the tool type\n")
+                .append("     * @return the ChargePolicy matching the given tool type, or null if no match is found\n")
+                .append("     */\n")
+                .append("    @Override\n")
+                .append("    public ChargePolicy getChargePolicyFromToolType(String type) {\n")
+                .append("        if (type == null) return null;\n")
+                .append("        int slot = (type.hashCode() * MULTIPLIER) >>> SHIFT;\n")
+                .append("        return type.equals(TYPES[slot]) ? POLICIES[slot] : null;\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private static String generateHolidayLookup(List<String[]> holidays) {
+        StringBuilder source = header("demo.rental.dates", "csv/Holidays.csv");
+        source.append("import java.util.List;\n\n")
+                .append("/**\n")
+                .append(" * A HolidayLookup generated at build time from csv/Holidays.csv, which needs no parsing at startup\n")
+                .append(" */\n")
+                .append("public final class HolidayLookupGenerated implements HolidayLookup {\n")
+                .append("    private static final List<Holiday> HOLIDAYS = List.of(");
+        for (int i = 0; i < holidays.size(); i++) {
+            source.append(i == 0 ? "\n" : ",\n").append("            ").append(holiday(holidays.get(i)));
+        }
+        source.append(");\n\n")
+                .append("    /**\n")
+                .append("     * @return an immutable List of the generated holidays, the same List on every call\n")
+                .append("     */\n")
+                .append("    @Override\n")
+                .append("    public List<Holiday> getAllHolidays() {\n")
+                .append("        return HOLIDAYS;\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private static String holiday(String[] row) {
+        switch (row[0]) {
+            case "Fixed":
+                return "new FixedHoliday(" + integer(row[1]) + ", " + integer(row[2]) + ")";
+            case "ClosestWeekday":
+                return "new ClosestWeekdayHoliday(" + integer(row[1]) + ", " + integer(row[2]) + ")";
+            case "Relative":
+                return "new RelativeHoliday(" + integer(row[1]) + ", " + integer(row[2]) + ", " + integer(row[3]) + ")";
+            default:
+                throw new IllegalArgumentException("Unknown Holiday type: " + row[0]);
+        }
+    }
+
+    private static StringBuilder header(String packageName, String csvFile) {
+        return new StringBuilder()
+                .append("// Generated by CatalogSourceGenerator from ").append(csvFile).append(", do not edit\n")
+                .append("package ").append(packageName).append(";\n\n");
+    }
+
+    private static int integer(String field) {
+        return Integer.parseInt(field.trim());
+    }
+
+    private static boolean isYes(String field) {
+        return field.equalsIgnoreCase("yes");
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static void write(Path outputDirectory, String relativePath, String source) throws IOException {
+        Path file = outputDirectory.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        // leave unchanged files alone, so an incremental build does not recompile them
+        if (Files.exists(file) && Files.readString(file).equals(source)) return;
+        Files.writeString(file, source);
+    }
+
+    /**
+     * A multiplicative hash (hashCode * multiplier) >>> shift with no collisions among a fixed set of keys
+     */
+    private record PerfectHash(int multiplier, int bits) {
+        static PerfectHash find(List<String> keys) {
+            // the seed is fixed so the same .csv files always generate the same sources
+            SplittableRandom random = new SplittableRandom(0x5DEECE66DL);
+            for (int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(keys.size() - 1)); bits <= 30; bits++) {
+                for (int attempt = 0; attempt < MAX_MULTIPLIER_TRIES; attempt++) {
+                    PerfectHash hash = new PerfectHash(random.nextInt() | 1, bits);
+                    if (hash.isCollisionFree(keys)) return hash;
+                }
+            }
+            throw new IllegalArgumentException("no perfect hash found, are there keys with equal hash codes?");
+        }
+
+        private boolean isCollisionFree(List<String> keys) {
+            boolean[] used = new boolean[capacity()];
+            for (String key : keys) {
+                int slot = slotOf(key);
+                if (used[slot]) return false;
+                used[slot] = true;
+            }
+            return true;
+        }
+
+        int capacity() {
+            return 1 << bits;
+        }
+
+        int slotOf(String key) {
+            return (key.hashCode() * multiplier) >>> (32 - bits);
+        }
+
+        void appendConstants(StringBuilder source) {
+            source.append("    private static final int MULTIPLIER = ").append(multiplier).append(";\n")
+                    .append("    private static final int SHIFT = ").append(32 - bits).append(";\n");
+        }
+    }
+}
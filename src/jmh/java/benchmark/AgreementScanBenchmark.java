@@ -0,0 +1,57 @@
+package benchmark;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.binary.AgreementEncoder;
+import demo.rental.binary.AgreementFlyweight;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures summing final charges over a million agreements, encoded and read with an AgreementFlyweight, against
+ * the same sum over RentalAgreement objects on the heap
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AgreementScanBenchmark {
+    private static final int COUNT = 1_000_000;
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    private RentalAgreement[] agreements;
+    private ByteBuffer encoded;
+    private final AgreementFlyweight flyweight = new AgreementFlyweight();
+
+    @Setup
+    public void setUp() throws Exception {
+        agreements = new RentalAgreement[COUNT];
+        encoded = ByteBuffer.allocateDirect(COUNT * AgreementEncoder.RECORD_SIZE);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < COUNT; i++) {
+            agreements[i] = Rental.checkout(TOOL_CODES[i & 3], 1 + i % 30, i % 101, start.plusDays(i % 1000));
+            AgreementEncoder.encode(agreements[i], encoded);
+        }
+    }
+
+    @Benchmark
+    public long sumFinalCharges_flyweight() {
+        long total = 0;
+        for (int offset = 0; offset < COUNT * AgreementEncoder.RECORD_SIZE; offset += AgreementEncoder.RECORD_SIZE) {
+            total += flyweight.wrap(encoded, offset).getFinalCharge();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumFinalCharges_objects() {
+        long total = 0;
+        for (RentalAgreement agreement : agreements) total += agreement.getFinalCharge();
+        return total;
+    }
+}
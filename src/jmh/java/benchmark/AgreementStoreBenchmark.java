@@ -0,0 +1,74 @@
+package benchmark;
+
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import demo.rental.analytics.AgreementStore;
+import demo.rental.analytics.Dimension;
+import demo.rental.analytics.Measure;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.tool.Tool;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures grouped revenue queries over a large AgreementStore
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AgreementStoreBenchmark {
+    private static final String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    @Param({"10000000"})
+    private int rows;
+
+    private AgreementStore store;
+
+    @Setup
+    public void setUp() {
+        RentalCatalog catalog = RentalCatalog.getDefault();
+        Tool[] tools = new Tool[codes.length];
+        ChargePolicy[] policies = new ChargePolicy[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            tools[i] = catalog.getToolLookup().getToolFromCode(codes[i]);
+            policies[i] = catalog.getPolicyLookup().getChargePolicyFromToolType(tools[i].type());
+        }
+        Random random = new Random(17);
+        LocalDate start = LocalDate.of(2010, 1, 1);
+        store = new AgreementStore(rows);
+        for (int i = 0; i < rows; i++) {
+            int tool = random.nextInt(codes.length);
+            int rentalDays = 1 + random.nextInt(30);
+            int chargeDays = rentalDays - random.nextInt(rentalDays);
+            long preDiscountCharge = policies[tool].dailyChargeCents() * chargeDays;
+            long discountAmount = preDiscountCharge * random.nextInt(20) / 100;
+            LocalDate checkoutDate = start.plusDays(random.nextInt(5000));
+            store.add(new RentalAgreement(tools[tool], policies[tool], rentalDays, chargeDays, preDiscountCharge, 0,
+                    discountAmount, preDiscountCharge - discountAmount, checkoutDate,
+                    checkoutDate.plusDays(rentalDays), 0));
+        }
+    }
+
+    @Benchmark
+    public long sum_finalCharge() {
+        return store.query().sum(Measure.FINAL_CHARGE);
+    }
+
+    @Benchmark
+    public Map<String, Long> sumBy_month() {
+        return store.query().sumBy(Dimension.CHECKOUT_MONTH, Measure.FINAL_CHARGE);
+    }
+
+    @Benchmark
+    public Map<String, Long> sumBy_toolType_filtered() {
+        return store.query().whereCheckoutBetween(LocalDate.of(2012, 1, 1), LocalDate.of(2013, 1, 1))
+                .sumBy(Dimension.TOOL_TYPE, Measure.HOLIDAY_DAYS_NOT_CHARGED);
+    }
+}
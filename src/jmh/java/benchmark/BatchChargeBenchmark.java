@@ -0,0 +1,64 @@
+package benchmark;
+
+import demo.rental.charge.BatchChargeCalculator;
+import demo.rental.charge.ChargeCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures pricing columns of rentals with BatchChargeCalculator against calling ChargeCalculator row by row
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchChargeBenchmark {
+    @Param({"100000"})
+    private int rows;
+
+    private long[] dailyChargeCents;
+    private int[] chargeDays;
+    private int[] discountPercent;
+    private long[] preDiscountCharges;
+    private long[] discountAmounts;
+    private long[] finalCharges;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(17);
+        dailyChargeCents = new long[rows];
+        chargeDays = new int[rows];
+        discountPercent = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            dailyChargeCents[i] = 99 + random.nextInt(400);
+            chargeDays[i] = 1 + random.nextInt(90);
+            discountPercent[i] = random.nextInt(101);
+        }
+        preDiscountCharges = new long[rows];
+        discountAmounts = new long[rows];
+        finalCharges = new long[rows];
+    }
+
+    @Benchmark
+    public long[] calcCharges_batch() {
+        BatchChargeCalculator.calcCharges(dailyChargeCents, chargeDays, discountPercent, preDiscountCharges,
+                discountAmounts, finalCharges);
+        return finalCharges;
+    }
+
+    @Benchmark
+    public long[] calcCharges_rowByRow() {
+        for (int i = 0; i < rows; i++) {
+            long preDiscountCharge = ChargeCalculator.calcPreDiscountCharge(dailyChargeCents[i], chargeDays[i]);
+            long discountAmount = ChargeCalculator.calcDiscountAmount(preDiscountCharge, discountPercent[i]);
+            preDiscountCharges[i] = preDiscountCharge;
+            discountAmounts[i] = discountAmount;
+            finalCharges[i] = ChargeCalculator.calcFinalCharge(preDiscountCharge, discountAmount);
+        }
+        return finalCharges;
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes synthetic catalog .csv files in the same formats as the files in csv/, for load benchmarks
+ */
+final class CatalogGenerator {
+    private static final String[] BRANDS = {"Werner", "Stihl", "Ridgid", "DeWalt", "Makita", "Bosch", "Milwaukee"};
+    private static final String[] HOLIDAY_TYPES = {"Fixed", "ClosestWeekday", "Relative"};
+
+    private CatalogGenerator() {}
+
+    static String toolCode(int row) {
+        // base 36 keeps codes short and unique, ex. row 361 is "TA1"
+        return "T" + Integer.toString(row, 36).toUpperCase();
+    }
+
+    static String toolType(int row) {
+        return "Type" + (row % 500);
+    }
+
+    static void writeTools(Path path, int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int row = 0; row < rows; row++) {
+                writer.write(toolType(row) + "," + BRANDS[row % BRANDS.length] + "," + toolCode(row) + "\n");
+            }
+        }
+    }
+
+    static void writePolicies(Path path, int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int row = 0; row < rows; row++) {
+                writer.write("Type" + row + "," + (100 + row % 900) + "," + yesNo(row, 1) + "," + yesNo(row, 2)
+                        + "," + yesNo(row, 4) + "\n");
+            }
+        }
+    }
+
+    private static String yesNo(int row, int bit) {
+        return (row & bit) != 0 ? "Yes" : "No";
+    }
+
+    static void writeHolidays(Path path, int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int row = 0; row < rows; row++) {
+                int month = 1 + row % 12;
+                String type = HOLIDAY_TYPES[row % HOLIDAY_TYPES.length];
+                if (type.equals("Relative")) {
+                    writer.write(type + "," + (1 + row % 4) + "," + (1 + row % 7) + "," + month + "\n");
+                } else {
+                    writer.write(type + "," + month + "," + (1 + row % 28) + "\n");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import demo.rental.charge.ChargeCalculator;
+import demo.rental.charge.ChargeDayTable;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.dates.DayCounter;
+import demo.rental.dates.Holiday;
+import demo.rental.dates.HolidayIndex;
+import demo.rental.dates.HolidayLookupCSV;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ChargeCalculator.calcChargeDays for every combination of ChargePolicy flags, resolving holidays from the
+ * holiday list, counting them from a HolidayIndex, and reading a ChargeDayTable
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChargeCalculatorBenchmark {
+    // bit 0 - weekdays charged, bit 1 - weekends charged, bit 2 - holidays charged
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7"})
+    private int policyFlags;
+
+    @Param({"7", "90"})
+    private int rentalDays;
+
+    private ChargePolicy policy;
+    private List<Holiday> holidays;
+    private HolidayIndex holidayIndex;
+    private ChargeDayTable chargeDayTable;
+    private LocalDate checkoutDate;
+    private LocalDate dueDate;
+    private int checkoutEpochDay;
+    private int dueEpochDay;
+
+    @Setup
+    public void setUp() {
+        policy = new ChargePolicy(199, (policyFlags & 1) != 0, (policyFlags & 2) != 0, (policyFlags & 4) != 0);
+        holidays = new HolidayLookupCSV("csv/Holidays.csv").getAllHolidays();
+        holidayIndex = new HolidayIndex(holidays, 1900, 2100);
+        checkoutDate = LocalDate.of(2021, 6, 28);
+        dueDate = ChargeCalculator.calcDueDate(checkoutDate, rentalDays);
+        chargeDayTable = new ChargeDayTable(holidayIndex, 1900, 2100);
+        checkoutEpochDay = DayCounter.toEpochDay(checkoutDate);
+        dueEpochDay = DayCounter.toEpochDay(dueDate);
+    }
+
+    @Benchmark
+    public int calcChargeDays_holidayList() {
+        return ChargeCalculator.calcChargeDays(checkoutDate, dueDate, policy, holidays);
+    }
+
+    @Benchmark
+    public int calcChargeDays_holidayIndex() {
+        return ChargeCalculator.calcChargeDays(checkoutDate, dueDate, policy, holidayIndex);
+    }
+
+    @Benchmark
+    public int calcChargeDays_chargeDayTable() {
+        return ChargeCalculator.calcChargeDays(checkoutEpochDay, dueEpochDay, policy, chargeDayTable);
+    }
+}
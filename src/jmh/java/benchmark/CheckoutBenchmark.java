@@ -0,0 +1,45 @@
+package benchmark;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end to end checkouts, through the default catalog entry point and with an explicitly injected catalog
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckoutBenchmark {
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    @Param({"5", "90"})
+    private int rentalDays;
+
+    private RentalCatalog catalog;
+    private LocalDate checkoutDate;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        catalog = RentalCatalog.getDefault();
+        checkoutDate = LocalDate.of(2020, 7, 2);
+    }
+
+    @Benchmark
+    public RentalAgreement checkout() throws Exception {
+        return Rental.checkout(TOOL_CODES[next++ & 3], rentalDays, 10, checkoutDate);
+    }
+
+    @Benchmark
+    public RentalAgreement checkout_injectedCatalog() throws Exception {
+        return Rental.checkout(catalog, TOOL_CODES[next++ & 3], rentalDays, 10, checkoutDate);
+    }
+}
@@ -0,0 +1,40 @@
+package benchmark;
+
+import demo.rental.dates.DayCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DayCounter.countWeekdaysBetween over short rentals and multi-year ranges
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DayCounterBenchmark {
+    @Param({"5", "30", "1095", "3650"})
+    private int rangeDays;
+
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup
+    public void setUp() {
+        start = LocalDate.of(2021, 7, 2);
+        end = start.plusDays(rangeDays);
+    }
+
+    @Benchmark
+    public int countWeekdaysBetween() {
+        return DayCounter.countWeekdaysBetween(start, end);
+    }
+
+    @Benchmark
+    public int countWeekendDaysBetween() {
+        return DayCounter.countWeekendDaysBetween(start, end);
+    }
+}
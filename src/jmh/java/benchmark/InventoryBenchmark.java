@@ -0,0 +1,33 @@
+package benchmark;
+
+import demo.rental.inventory.Inventory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reserving and releasing units of one popular tool code from many threads at once
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class InventoryBenchmark {
+    private Inventory inventory;
+
+    @Setup
+    public void setUp() {
+        inventory = new Inventory();
+        inventory.stock("LADW", 1_000_000);
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        boolean reserved = inventory.tryReserve("LADW");
+        if (reserved) inventory.release("LADW");
+        return reserved;
+    }
+}
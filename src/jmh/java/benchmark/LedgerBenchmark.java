@@ -0,0 +1,51 @@
+package benchmark;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.ledger.AgreementLedger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures durable appends to an AgreementLedger from many threads, each waiting for its agreement to be forced
+ * to disk, so the score shows how well group commit shares forces between checkouts
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class LedgerBenchmark {
+    private Path directory;
+    private AgreementLedger ledger;
+    private RentalAgreement agreement;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("ledger-benchmark");
+        ledger = new AgreementLedger(directory, (sequence, replayed) -> {});
+        agreement = Rental.checkout("LADW", 3, 10, LocalDate.of(2020, 7, 2));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ledger.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public long appendDurably() throws Exception {
+        return ledger.append(agreement).get();
+    }
+}
@@ -0,0 +1,79 @@
+package benchmark;
+
+import demo.rental.charge.ChargePolicy;
+import demo.rental.charge.ChargePolicyLookup;
+import demo.rental.charge.ChargePolicyLookupCSV;
+import demo.rental.charge.ChargePolicyLookupSwitch;
+import demo.rental.tool.Tool;
+import demo.rental.tool.ToolLookup;
+import demo.rental.tool.ToolLookupCSV;
+import demo.rental.tool.ToolLookupColumnar;
+import demo.rental.tool.ToolLookupSwitch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares single lookups on the hard coded *LookupSwitch implementations against the *LookupCSV implementations,
+ * and the columnar tool lookup
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LookupBenchmark {
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD"};
+    private static final String[] TOOL_TYPES = {"Ladder", "Chainsaw", "Jackhammer"};
+
+    private ToolLookup toolLookupSwitch;
+    private ToolLookup toolLookupCSV;
+    private ToolLookup toolLookupColumnar;
+    private ChargePolicyLookup policyLookupSwitch;
+    private ChargePolicyLookup policyLookupCSV;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        toolLookupSwitch = new ToolLookupSwitch();
+        toolLookupCSV = new ToolLookupCSV("csv/Tools.csv");
+        toolLookupColumnar = new ToolLookupColumnar("csv/Tools.csv");
+        policyLookupSwitch = new ChargePolicyLookupSwitch();
+        policyLookupCSV = new ChargePolicyLookupCSV("csv/ChargePolicies.csv");
+    }
+
+    private String nextToolCode() {
+        return TOOL_CODES[next++ & 3];
+    }
+
+    private String nextToolType() {
+        next = (next + 1) % TOOL_TYPES.length;
+        return TOOL_TYPES[next];
+    }
+
+    @Benchmark
+    public Tool toolLookupSwitch() {
+        return toolLookupSwitch.getToolFromCode(nextToolCode());
+    }
+
+    @Benchmark
+    public Tool toolLookupCSV() {
+        return toolLookupCSV.getToolFromCode(nextToolCode());
+    }
+
+    @Benchmark
+    public Tool toolLookupColumnar() {
+        return toolLookupColumnar.getToolFromCode(nextToolCode());
+    }
+
+    @Benchmark
+    public ChargePolicy policyLookupSwitch() {
+        return policyLookupSwitch.getChargePolicyFromToolType(nextToolType());
+    }
+
+    @Benchmark
+    public ChargePolicy policyLookupCSV() {
+        return policyLookupCSV.getChargePolicyFromToolType(nextToolType());
+    }
+}
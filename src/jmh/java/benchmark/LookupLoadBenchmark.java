@@ -0,0 +1,74 @@
+package benchmark;
+
+import demo.rental.charge.ChargePolicyLookup;
+import demo.rental.charge.ChargePolicyLookupCSV;
+import demo.rental.dates.HolidayLookup;
+import demo.rental.dates.HolidayLookupCSV;
+import demo.rental.tool.ToolLookup;
+import demo.rental.tool.ToolLookupCSV;
+import demo.rental.tool.ToolLookupColumnar;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to load each *LookupCSV from generated catalogs of increasing size
+ * Each invocation is a full load, so this reports single shot times rather than throughput
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class LookupLoadBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    private Path directory;
+    private String toolsPath;
+    private String policiesPath;
+    private String holidaysPath;
+
+    @Setup(Level.Trial)
+    public void writeCatalogs() throws IOException {
+        directory = Files.createTempDirectory("catalog-" + rows);
+        toolsPath = directory.resolve("Tools.csv").toString();
+        policiesPath = directory.resolve("ChargePolicies.csv").toString();
+        holidaysPath = directory.resolve("Holidays.csv").toString();
+        CatalogGenerator.writeTools(Path.of(toolsPath), rows);
+        CatalogGenerator.writePolicies(Path.of(policiesPath), rows);
+        CatalogGenerator.writeHolidays(Path.of(holidaysPath), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCatalogs() throws IOException {
+        Files.deleteIfExists(Path.of(toolsPath));
+        Files.deleteIfExists(Path.of(policiesPath));
+        Files.deleteIfExists(Path.of(holidaysPath));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public ToolLookup loadTools() {
+        return new ToolLookupCSV(toolsPath);
+    }
+
+    @Benchmark
+    public ToolLookup loadToolsColumnar() {
+        return new ToolLookupColumnar(toolsPath);
+    }
+
+    @Benchmark
+    public ChargePolicyLookup loadPolicies() {
+        return new ChargePolicyLookupCSV(policiesPath);
+    }
+
+    @Benchmark
+    public HolidayLookup loadHolidays() {
+        return new HolidayLookupCSV(holidaysPath);
+    }
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import demo.rental.charge.ChargeCalculator;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.dates.HolidayIndex;
+import demo.rental.dates.HolidayLookupCSV;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures quoting every rental length from 1 to maxRentalDays, as one price curve and as separate calculations
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PriceCurveBenchmark {
+    @Param({"30", "90", "365"})
+    private int maxRentalDays;
+
+    private ChargePolicy policy;
+    private HolidayIndex holidayIndex;
+    private LocalDate checkoutDate;
+
+    @Setup
+    public void setUp() {
+        policy = new ChargePolicy(199, true, false, false);
+        holidayIndex = new HolidayIndex(new HolidayLookupCSV("csv/Holidays.csv"), 1900, 2100);
+        checkoutDate = LocalDate.of(2021, 6, 28);
+    }
+
+    @Benchmark
+    public long[] calcPriceCurve() {
+        return ChargeCalculator.calcPriceCurve(policy, checkoutDate, 10, maxRentalDays, holidayIndex);
+    }
+
+    @Benchmark
+    public long[] separateCalculations() {
+        long[] finalCharges = new long[maxRentalDays];
+        for (int days = 1; days <= maxRentalDays; days++) {
+            int chargeDays = ChargeCalculator.calcChargeDays(checkoutDate, checkoutDate.plusDays(days), policy,
+                    holidayIndex);
+            long preDiscountCharge = ChargeCalculator.calcPreDiscountCharge(policy.dailyChargeCents(), chargeDays);
+            finalCharges[days - 1] = ChargeCalculator.calcFinalCharge(preDiscountCharge,
+                    ChargeCalculator.calcDiscountAmount(preDiscountCharge, 10));
+        }
+        return finalCharges;
+    }
+}
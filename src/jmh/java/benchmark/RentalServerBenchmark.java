@@ -0,0 +1,75 @@
+package benchmark;
+
+import demo.rental.CheckoutExecutors;
+import demo.rental.RentalCatalog;
+import demo.rental.server.RentalServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local load generator for RentalServer: every benchmark thread is a client sending quotes over its own
+ * keep-alive connection to a server in the same JVM
+ *
+ * The score is requests per second for the whole server, divide by the machine's cores for requests per second per
+ * core. Clients and server share the machine, so this is a lower bound.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class RentalServerBenchmark {
+    private static final String QUOTE =
+            "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"discountPercent\":10,\"checkoutDate\":\"2020-07-02\"}";
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        RentalServer server;
+        ExecutorService executor;
+        URI quoteUri;
+
+        @Setup
+        public void setUp() throws IOException {
+            // as RentalServer.main does, so responses are not held back by Nagle's algorithm
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            RentalCatalog catalog = RentalCatalog.getDefault();
+            executor = CheckoutExecutors.createDefault();
+            server = new RentalServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), () -> catalog,
+                    null, executor);
+            quoteUri = URI.create("http://localhost:" + server.getPort() + "/quote");
+        }
+
+        @TearDown
+        public void tearDown() {
+            server.close();
+            executor.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        HttpClient client;
+        HttpRequest quote;
+
+        @Setup
+        public void setUp(Server server) {
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            quote = HttpRequest.newBuilder(server.quoteUri).POST(HttpRequest.BodyPublishers.ofString(QUOTE)).build();
+        }
+    }
+
+    @Benchmark
+    public String quote(Client client) throws IOException, InterruptedException {
+        return client.client.send(client.quote, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
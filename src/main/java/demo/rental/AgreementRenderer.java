@@ -0,0 +1,269 @@
+package demo.rental;
+
+import demo.rental.tool.Tool;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * AgreementRenderer writes the printable form of RentalAgreements to any Appendable or ByteBuffer
+ *
+ * Example:
+ * Tool code: LADW
+ * Tool type: Ladder
+ * Tool brand: Werner
+ * Rental days: 3
+ * Check out date: 07/02/20
+ * Due date: 07/05/20
+ * Daily rental charge: $1.99
+ * Charge days: 2
+ * Pre-discount charge: $3.98
+ * Discount percent: 10%
+ * Discount amount: $0.40
+ * Final charge: $3.58
+ *
+ * Dates and currency amounts are formatted by hand, digit by digit, instead of through DateTimeFormatter and
+ * NumberFormat, so rendering creates no formatter objects or intermediate Strings and is safe from any thread.
+ * The output matches the "MM/dd/yy" date pattern and the US currency format with grouping.
+ */
+public final class AgreementRenderer {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int BULK_BUFFER_SIZE = 1 << 16;
+
+    private AgreementRenderer() {}
+
+    /**
+     * Renders a RentalAgreement to a String
+     *
+     * @param agreement  the agreement to render
+     * @return the printable form of the agreement, with a line separator after every line
+     */
+    public static String render(RentalAgreement agreement) {
+        StringBuilder out = new StringBuilder(320);
+        render(agreement, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the printable form of a RentalAgreement to a StringBuilder
+     *
+     * @param agreement  the agreement to render
+     * @param out  the StringBuilder to append to
+     */
+    public static void render(RentalAgreement agreement, StringBuilder out) {
+        try {
+            render(agreement, (Appendable) out);
+        } catch (IOException ioException) {
+            // a StringBuilder never throws IOException
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Writes the printable form of a RentalAgreement to a ByteBuffer, encoded as UTF-8
+     *
+     * @param agreement  the agreement to render
+     * @param out  the ByteBuffer to write to, starting at its current position
+     * @throws java.nio.BufferOverflowException if the agreement does not fit in the buffer's remaining space
+     */
+    public static void render(RentalAgreement agreement, ByteBuffer out) {
+        try {
+            render(agreement, new ByteBufferAppendable(out));
+        } catch (IOException ioException) {
+            // writing to a ByteBuffer never throws IOException
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Appends the printable form of a RentalAgreement to an Appendable
+     *
+     * @param agreement  the agreement to render
+     * @param out  the Appendable to append to
+     * @throws IOException if the Appendable throws one
+     */
+    public static void render(RentalAgreement agreement, Appendable out) throws IOException {
+        Tool tool = agreement.getTool();
+        out.append("Tool code: ").append(tool.code()).append(LINE_SEPARATOR);
+        out.append("Tool type: ").append(tool.type()).append(LINE_SEPARATOR);
+        out.append("Tool brand: ").append(tool.brand()).append(LINE_SEPARATOR);
+        out.append("Rental days: ");
+        appendNumber(agreement.getNumRentalDays(), out);
+        out.append(LINE_SEPARATOR).append("Check out date: ");
+        appendDate(agreement.getCheckoutDate(), out);
+        out.append(LINE_SEPARATOR).append("Due date: ");
+        appendDate(agreement.getDueDate(), out);
+        out.append(LINE_SEPARATOR).append("Daily rental charge: ");
+        appendCurrency(agreement.getChargePolicy().dailyChargeCents(), out);
+        out.append(LINE_SEPARATOR).append("Charge days: ");
+        appendNumber(agreement.getNumChargeDays(), out);
+        out.append(LINE_SEPARATOR).append("Pre-discount charge: ");
+        appendCurrency(agreement.getPreDiscountCharge(), out);
+        out.append(LINE_SEPARATOR).append("Discount percent: ");
+        appendNumber(agreement.getDiscountPercent(), out);
+        out.append('%').append(LINE_SEPARATOR).append("Discount amount: ");
+        appendCurrency(agreement.getDiscountAmount(), out);
+        out.append(LINE_SEPARATOR).append("Final charge: ");
+        appendCurrency(agreement.getFinalCharge(), out);
+        out.append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Renders many RentalAgreements to one Appendable, separated by blank lines
+     *
+     * @param agreements  the agreements to render, in order
+     * @param out  the Appendable to append to
+     * @throws IOException if the Appendable throws one
+     */
+    public static void renderAll(Iterable<RentalAgreement> agreements, Appendable out) throws IOException {
+        boolean isFirst = true;
+        for (RentalAgreement agreement : agreements) {
+            if (!isFirst) out.append(LINE_SEPARATOR);
+            render(agreement, out);
+            isFirst = false;
+        }
+    }
+
+    /**
+     * Renders many RentalAgreements to an OutputStream as UTF-8, separated by blank lines
+     * Output is buffered and the stream is flushed once, after the last agreement. The stream is not closed
+     *
+     * @param agreements  the agreements to render, in order
+     * @param out  the OutputStream to write to
+     * @throws IOException if the OutputStream throws one
+     */
+    public static void renderAll(Iterable<RentalAgreement> agreements, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BULK_BUFFER_SIZE);
+        renderAll(agreements, writer);
+        writer.flush();
+    }
+
+    /**
+     * Appends an amount of cents in the US currency format, ex 123456 -> "$1,234.56"
+     *
+     * @param cents  the amount in cents
+     * @param out  the Appendable to append to
+     * @throws IOException if the Appendable throws one
+     */
+    public static void appendCurrency(long cents, Appendable out) throws IOException {
+        if (cents < 0) out.append('-');
+        // dividing before taking the absolute value keeps Long.MIN_VALUE from overflowing
+        long dollars = Math.abs(cents / 100);
+        int remainingCents = Math.abs((int) (cents % 100));
+        out.append('$');
+        long divisor = 1;
+        int numDigits = 1;
+        while (divisor <= dollars / 10) {
+            divisor *= 10;
+            numDigits++;
+        }
+        for (; divisor > 0; divisor /= 10, numDigits--) {
+            out.append((char) ('0' + (dollars / divisor) % 10));
+            if (numDigits > 1 && numDigits % 3 == 1) out.append(',');
+        }
+        out.append('.');
+        appendTwoDigits(remainingCents, out);
+    }
+
+    /**
+     * Appends a date in the "MM/dd/yy" format, ex 2020-07-02 -> "07/02/20"
+     */
+    private static void appendDate(LocalDate date, Appendable out) throws IOException {
+        appendTwoDigits(date.getMonthValue(), out);
+        out.append('/');
+        appendTwoDigits(date.getDayOfMonth(), out);
+        out.append('/');
+        appendTwoDigits(Math.abs(date.getYear() % 100), out);
+    }
+
+    private static void appendTwoDigits(int value, Appendable out) throws IOException {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static void appendNumber(int value, Appendable out) throws IOException {
+        // widened to a long so that negating Integer.MIN_VALUE cannot overflow
+        long remaining = value;
+        if (remaining < 0) {
+            out.append('-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (divisor <= remaining / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (remaining / divisor) % 10));
+        }
+    }
+
+    /**
+     * An Appendable which encodes characters straight into a ByteBuffer as UTF-8
+     */
+    private static final class ByteBufferAppendable implements Appendable {
+        private final ByteBuffer buffer;
+        private char highSurrogate;
+
+        private ByteBufferAppendable(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    putCodePoint(Character.toCodePoint(high, c));
+                    return this;
+                }
+                buffer.put((byte) '?');
+            }
+            if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                putCodePoint(c);
+            }
+            return this;
+        }
+
+        private void putCodePoint(int codePoint) {
+            if (codePoint < 0x80) {
+                buffer.put((byte) codePoint);
+            } else if (codePoint < 0x800) {
+                buffer.put((byte) (0xC0 | codePoint >> 6));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (codePoint < 0x10000) {
+                buffer.put((byte) (0xE0 | codePoint >> 12));
+                buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                buffer.put((byte) (0xF0 | codePoint >> 18));
+                buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package demo.rental;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Prices a batch of rentals against one RentalCatalog, splitting the work across a ForkJoinPool
+ *
+ * The batch is split in halves until a slice is no larger than the parallelism threshold, and each slice is then
+ * priced sequentially. A batch no larger than the threshold is priced entirely on the calling thread.
+ */
+class BatchCheckout extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final RentalCatalog catalog;
+    private final List<RentalRequest> requests;
+    private final CheckoutResult[] results;
+    private final int threshold;
+    private final int from;
+    private final int to;
+
+    private BatchCheckout(RentalCatalog catalog, List<RentalRequest> requests, CheckoutResult[] results,
+                          int threshold, int from, int to) {
+        this.catalog = catalog;
+        this.requests = requests;
+        this.results = results;
+        this.threshold = threshold;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Prices every request in the batch
+     *
+     * @param catalog  the RentalCatalog shared by the whole batch
+     * @param requests  the rentals to price
+     * @param threshold  the largest slice of the batch which is priced sequentially, must be at least 1
+     * @param pool  the ForkJoinPool to run on when the batch is larger than the threshold
+     * @return a List of results, in the same order as the requests
+     */
+    static List<CheckoutResult> run(RentalCatalog catalog, List<RentalRequest> requests, int threshold,
+                                    ForkJoinPool pool) {
+        if (threshold < 1) throw new IllegalArgumentException("parallelism threshold less than one: " + threshold);
+        CheckoutResult[] results = new CheckoutResult[requests.size()];
+        BatchCheckout task = new BatchCheckout(catalog, requests, results, threshold, 0, results.length);
+        if (results.length <= threshold) {
+            task.priceSequentially();
+        } else {
+            pool.invoke(task);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= threshold) {
+            priceSequentially();
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new BatchCheckout(catalog, requests, results, threshold, from, middle),
+                new BatchCheckout(catalog, requests, results, threshold, middle, to));
+    }
+
+    private void priceSequentially() {
+        for (int i = from; i < to; i++) {
+            results[i] = price(requests.get(i));
+        }
+    }
+
+    private CheckoutResult price(RentalRequest request) {
+        try {
+            RentalAgreement agreement = new RentalAgreement(catalog, request.toolCode(), request.numRentalDays(),
+                    request.discountPercent(), request.checkoutDate());
+            return new CheckoutResult(request, agreement, null);
+        } catch (Exception exception) {
+            return new CheckoutResult(request, null, exception);
+        }
+    }
+}
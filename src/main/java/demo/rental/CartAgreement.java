@@ -0,0 +1,132 @@
+package demo.rental;
+
+import demo.rental.charge.ChargeCalculator;
+import demo.rental.charge.ChargeDayTable;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.dates.DayCounter;
+import demo.rental.tool.Tool;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A CartAgreement covers several tools rented together for the same dates
+ *
+ * Every line is a RentalAgreement of its own, with its own discount, and a second discount is applied to the cart's
+ * subtotal. The dates are shared, so charge days are worked out once for each combination of ChargePolicy flags in
+ * the cart and every line with that combination reuses them. Pricing therefore costs one charge day calculation per
+ * distinct combination, at most eight, however many tools are in the cart.
+ */
+public class CartAgreement {
+    private final List<RentalAgreement> lines;
+    private final int numRentalDays;
+    private final LocalDate checkoutDate;
+    private final LocalDate dueDate;
+    private final long subtotal;
+    private final int discountPercent;
+    private final long discountAmount;
+    private final long finalCharge;
+    private final long catalogVersion;
+
+    /**
+     * Constructs a CartAgreement for the given tools, using the given catalog for all lookups
+     *
+     * @param catalog  the RentalCatalog containing the tools, charge policies and holidays to price with
+     * @param items  the tools being rented, each with its own discount, must not be empty
+     * @param numRentalDays  number of days after checkout the tools will be rented, must be at least 1
+     * @param discountPercent  discount applied to the cart's subtotal, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @throws Exception if the cart is empty
+     * @throws Exception if numRentalDays is less than 1
+     * @throws Exception if any discountPercent is outside [0,100]
+     * @throws Exception if any tool code or its charge policy is not in the catalog
+     */
+    public CartAgreement(RentalCatalog catalog, List<CartItem> items, int numRentalDays, int discountPercent,
+                         LocalDate checkoutDate) throws Exception {
+        if (items.isEmpty()) throw new Exception("Cart must contain at least one item");
+        RentalAgreement.checkRentalDays(numRentalDays);
+        RentalAgreement.checkDiscountPercent(discountPercent);
+
+        this.numRentalDays = numRentalDays;
+        this.discountPercent = discountPercent;
+        this.checkoutDate = checkoutDate;
+        this.dueDate = ChargeCalculator.calcDueDate(checkoutDate, numRentalDays);
+        this.catalogVersion = catalog.getVersion();
+
+        ChargeDayTable chargeDayTable = catalog.getChargeDayTable();
+        int checkoutEpochDay = DayCounter.toEpochDay(checkoutDate);
+        int dueEpochDay = ChargeCalculator.calcDueDate(checkoutEpochDay, numRentalDays);
+        // charge days for each ChargePolicy flag combination, -1 until a line with that combination is priced
+        int[] chargeDaysByCombination = {-1, -1, -1, -1, -1, -1, -1, -1};
+
+        List<RentalAgreement> lines = new ArrayList<>(items.size());
+        long subtotal = 0;
+        for (CartItem item : items) {
+            RentalAgreement.checkDiscountPercent(item.discountPercent());
+            Tool tool = RentalAgreement.findTool(catalog, item.toolCode());
+            ChargePolicy chargePolicy = RentalAgreement.findChargePolicy(catalog, tool);
+
+            int combination = ChargeDayTable.combination(chargePolicy);
+            if (chargeDaysByCombination[combination] < 0) {
+                chargeDaysByCombination[combination] = ChargeCalculator.calcChargeDays(checkoutEpochDay, dueEpochDay,
+                        chargePolicy, chargeDayTable);
+            }
+            RentalAgreement line = new RentalAgreement(tool, chargePolicy, numRentalDays,
+                    chargeDaysByCombination[combination], item.discountPercent(), checkoutDate, dueDate,
+                    catalogVersion);
+            lines.add(line);
+            subtotal += line.getFinalCharge();
+        }
+        this.lines = Collections.unmodifiableList(lines);
+        this.subtotal = subtotal;
+        this.discountAmount = ChargeCalculator.calcDiscountAmount(subtotal, discountPercent);
+        this.finalCharge = ChargeCalculator.calcFinalCharge(subtotal, discountAmount);
+    }
+
+    /**
+     * @return an immutable List holding a RentalAgreement for every item, in cart order
+     */
+    public List<RentalAgreement> getLines() {
+        return lines;
+    }
+
+    public int getNumRentalDays() {
+        return numRentalDays;
+    }
+
+    public LocalDate getCheckoutDate() {
+        return checkoutDate;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * @return the sum of every line's final charge, before the cart discount
+     */
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    public int getDiscountPercent() {
+        return discountPercent;
+    }
+
+    public long getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public long getFinalCharge() {
+        return finalCharge;
+    }
+
+    /**
+     * @return the version of the RentalCatalog this cart was priced with
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+}
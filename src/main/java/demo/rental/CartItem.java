@@ -0,0 +1,9 @@
+package demo.rental;
+
+/**
+ * A record holding one line of a cart checkout
+ *
+ * toolCode - unique identifying code for tool being rented
+ * discountPercent - discount applied to this line's cost, must be within range [0,100]
+ */
+public record CartItem(String toolCode, int discountPercent) {}
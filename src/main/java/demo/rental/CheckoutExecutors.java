@@ -0,0 +1,57 @@
+package demo.rental;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the Executor that Rental.checkoutAsync and the RentalServer run on when the caller does not supply one
+ *
+ * On runtimes with virtual threads every checkout gets its own virtual thread. The factory method is looked up
+ * reflectively so the code still compiles and runs on older runtimes, which instead get a fixed pool of daemon
+ * threads sized to the machine. The pool's queue is bounded too, and once it is full a submitted checkout runs on the
+ * submitting thread, which slows callers down instead of queueing work without limit.
+ */
+public final class CheckoutExecutors {
+    private static final int QUEUED_TASKS_PER_THREAD = 256;
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private CheckoutExecutors() {}
+
+    /**
+     * @return the shared default Executor, created on first use
+     */
+    public static Executor getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @return a new ExecutorService running each task on a virtual thread if supported, otherwise on a bounded pool
+     */
+    public static ExecutorService createDefault() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException unsupported) {
+            return createBoundedPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    static ExecutorService createBoundedPool(int threads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUED_TASKS_PER_THREAD), runnable -> {
+                    Thread thread = new Thread(runnable, "rental-checkout-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static final class DefaultHolder {
+        private static final ExecutorService INSTANCE = createDefault();
+    }
+}
@@ -0,0 +1,14 @@
+package demo.rental;
+
+/**
+ * The result of one checkout in a batch, holding either the RentalAgreement or the reason the checkout failed
+ */
+public record CheckoutResult(RentalRequest request, RentalAgreement agreement, Exception error) {
+
+    /**
+     * @return true if the checkout produced a RentalAgreement
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,102 @@
+package demo.rental;
+
+import demo.rental.tool.Tool;
+
+import java.time.LocalDate;
+
+/**
+ * A Quote is a mutable, reusable holder for the price of a rental, filled in place by Rental.quote
+ *
+ * Pricing into a Quote the caller already owns creates no objects, so loops which price many candidates only to
+ * compare their charges produce no garbage. A Quote is overwritten by every call, and is not thread safe.
+ */
+public final class Quote {
+    private Tool tool;
+    private long dailyChargeCents;
+    private int numRentalDays;
+    private int numChargeDays;
+    private long preDiscountCharge;
+    private int discountPercent;
+    private long discountAmount;
+    private long finalCharge;
+    private int checkoutEpochDay;
+    private int dueEpochDay;
+    private long catalogVersion;
+
+    void set(Tool tool, long dailyChargeCents, int numRentalDays, int numChargeDays, long preDiscountCharge,
+             int discountPercent, long discountAmount, long finalCharge, int checkoutEpochDay, int dueEpochDay,
+             long catalogVersion) {
+        this.tool = tool;
+        this.dailyChargeCents = dailyChargeCents;
+        this.numRentalDays = numRentalDays;
+        this.numChargeDays = numChargeDays;
+        this.preDiscountCharge = preDiscountCharge;
+        this.discountPercent = discountPercent;
+        this.discountAmount = discountAmount;
+        this.finalCharge = finalCharge;
+        this.checkoutEpochDay = checkoutEpochDay;
+        this.dueEpochDay = dueEpochDay;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * @return the Tool quoted, shared with the catalog
+     */
+    public Tool getTool() {
+        return tool;
+    }
+
+    public long getDailyChargeCents() {
+        return dailyChargeCents;
+    }
+
+    public int getNumRentalDays() {
+        return numRentalDays;
+    }
+
+    public int getNumChargeDays() {
+        return numChargeDays;
+    }
+
+    public long getPreDiscountCharge() {
+        return preDiscountCharge;
+    }
+
+    public int getDiscountPercent() {
+        return discountPercent;
+    }
+
+    public long getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public long getFinalCharge() {
+        return finalCharge;
+    }
+
+    public int getCheckoutEpochDay() {
+        return checkoutEpochDay;
+    }
+
+    public int getDueEpochDay() {
+        return dueEpochDay;
+    }
+
+    /**
+     * @return the checkout date, as a new LocalDate
+     */
+    public LocalDate getCheckoutDate() {
+        return LocalDate.ofEpochDay(checkoutEpochDay);
+    }
+
+    /**
+     * @return the due date, as a new LocalDate
+     */
+    public LocalDate getDueDate() {
+        return LocalDate.ofEpochDay(dueEpochDay);
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+}
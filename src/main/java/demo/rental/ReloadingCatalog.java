@@ -0,0 +1,152 @@
+package demo.rental;
+
+import demo.rental.charge.ChargePolicyLookupCSV;
+import demo.rental.dates.HolidayLookupCSV;
+import demo.rental.tool.ToolLookupCSV;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A ReloadingCatalog keeps an up to date RentalCatalog for a directory of catalog .csv files.
+ *
+ * The directory is watched on a background thread. When Tools.csv, ChargePolicies.csv or Holidays.csv changes, all
+ * three files are parsed off the request path into a new RentalCatalog with the next version number, which then
+ * atomically replaces the current one. A checkout should call current() once and price entirely against that
+ * snapshot, so it sees one consistent version even if a reload happens part way through.
+ */
+public class ReloadingCatalog implements AutoCloseable {
+    private static final String TOOLS_FILE = "Tools.csv";
+    private static final String POLICIES_FILE = "ChargePolicies.csv";
+    private static final String HOLIDAYS_FILE = "Holidays.csv";
+    private static final Set<Path> CATALOG_FILES = Set.of(Path.of(TOOLS_FILE), Path.of(POLICIES_FILE),
+            Path.of(HOLIDAYS_FILE));
+    // files are often written in several steps, so wait for this long without changes before reloading
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final Path directory;
+    private final AtomicReference<RentalCatalog> current = new AtomicReference<>();
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    /**
+     * Loads the catalog in a directory and starts watching it for changes
+     *
+     * @param directory  a directory containing Tools.csv, ChargePolicies.csv and Holidays.csv
+     * @throws IOException if the directory cannot be watched, is missing any of the catalog files, or they cannot be
+     * parsed
+     */
+    public ReloadingCatalog(Path directory) throws IOException {
+        this.directory = directory;
+        if (!reload()) throw new IOException("Catalog files missing from " + directory);
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watcher = new Thread(this::watch, "catalog-reloader-" + directory.getFileName());
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * @return the most recently loaded RentalCatalog
+     */
+    public RentalCatalog current() {
+        return current.get();
+    }
+
+    /**
+     * Reloads all catalog files now, on the calling thread
+     * If any of the files is missing, malformed, or has no tools or charge policies, the current catalog is kept
+     *
+     * @return true if a new catalog was loaded, false if any of the files is missing
+     * @throws IOException if a file cannot be read or parsed, is truncated while being read, or there are no tools or
+     * no charge policies
+     */
+    public boolean reload() throws IOException {
+        Path toolsPath = directory.resolve(TOOLS_FILE);
+        Path policiesPath = directory.resolve(POLICIES_FILE);
+        Path holidaysPath = directory.resolve(HOLIDAYS_FILE);
+        if (!Files.isRegularFile(toolsPath) || !Files.isRegularFile(policiesPath) || !Files.isRegularFile(holidaysPath)) {
+            return false;
+        }
+        ToolLookupCSV tools;
+        ChargePolicyLookupCSV policies;
+        HolidayLookupCSV holidays;
+        try {
+            tools = ToolLookupCSV.load(toolsPath.toString());
+            policies = ChargePolicyLookupCSV.load(policiesPath.toString());
+            holidays = HolidayLookupCSV.load(holidaysPath.toString());
+        } catch (RuntimeException malformed) {
+            throw new IOException("Malformed catalog file in " + directory + ": " + malformed.getMessage(), malformed);
+        }
+        // a file caught part way through being rewritten may parse cleanly but be empty
+        if (tools.size() == 0) throw new IOException("No tools in " + toolsPath);
+        if (policies.size() == 0) throw new IOException("No charge policies in " + policiesPath);
+
+        // loads run on the watcher thread, or a caller of reload(), so a version is only ever taken by one catalog
+        synchronized (current) {
+            RentalCatalog previous = current.get();
+            long version = previous == null ? 1 : previous.getVersion() + 1;
+            current.set(new RentalCatalog(tools, policies, holidays, RentalCatalog.DEFAULT_FIRST_INDEXED_YEAR,
+                    RentalCatalog.DEFAULT_LAST_INDEXED_YEAR, version));
+        }
+        return true;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean isCatalogChanged = drainEvents(key);
+                // keep collecting events until the directory has been quiet for a while
+                while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    isCatalogChanged |= drainEvents(key);
+                }
+                if (isCatalogChanged) reloadQuietly();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException stopped) {
+            // close() was called
+        }
+    }
+
+    // the watcher must outlive a bad edit, so a failed reload keeps the current catalog until the files are fixed
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (IOException | RuntimeException | InternalError exception) {
+            // InternalError is how a fault reading a file truncated under its memory mapping can surface
+            System.err.println("Catalog reload failed, keeping version " + current().getVersion() + ": "
+                    + exception.getMessage());
+        }
+    }
+
+    private static boolean drainEvents(WatchKey key) {
+        boolean isCatalogChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || CATALOG_FILES.contains((Path) event.context())) {
+                isCatalogChanged = true;
+            }
+        }
+        key.reset();
+        return isCatalogChanged;
+    }
+
+    /**
+     * Stops watching the directory. The current catalog stays available
+     *
+     * @throws IOException if the WatchService cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watcher.interrupt();
+        watchService.close();
+    }
+}
@@ -1,13 +1,30 @@
 package demo.rental;
 
+import demo.rental.charge.ChargeCalculator;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.dates.DayCounter;
+import demo.rental.inventory.Inventory;
+import demo.rental.tool.Tool;
+
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Rental class is used for calling checkout to get RentalAgreements
  */
 public class Rental {
     /**
-     * Gets a RentalAgreement for a particular tool
+     * The largest batch, or slice of a batch, that checkoutAll prices on a single thread
+     */
+    public static final int DEFAULT_PARALLELISM_THRESHOLD = 1024;
+
+    /**
+     * Gets a RentalAgreement for a particular tool, priced against the default RentalCatalog
      *
      * @param toolCode  unique identifying code for tool being rented
      * @param numRentalDays  number of days after checkout the tool will be rented, must be at least 1
@@ -16,9 +33,204 @@ public class Rental {
      * @return a new RentalAgreement based on the parameters
      * @throws Exception if numRentalDays is less than 1
      * @throws Exception if discountPercent is outside [0,100]
+     * @throws Exception if the tool code or its charge policy is not in the catalog
      */
     public static RentalAgreement checkout(String toolCode, int numRentalDays, int discountPercent,
                                            LocalDate checkoutDate) throws Exception {
-        return new RentalAgreement(toolCode, numRentalDays, discountPercent, checkoutDate);
+        return checkout(RentalCatalog.getDefault(), toolCode, numRentalDays, discountPercent, checkoutDate);
+    }
+
+    /**
+     * Gets a RentalAgreement for a particular tool, priced against the given catalog
+     *
+     * @param catalog  the RentalCatalog containing the tools, charge policies and holidays to price with
+     * @param toolCode  unique identifying code for tool being rented
+     * @param numRentalDays  number of days after checkout the tool will be rented, must be at least 1
+     * @param discountPercent  discount applied to total cost, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @return a new RentalAgreement based on the parameters
+     * @throws Exception if numRentalDays is less than 1
+     * @throws Exception if discountPercent is outside [0,100]
+     * @throws Exception if the tool code or its charge policy is not in the catalog
+     */
+    public static RentalAgreement checkout(RentalCatalog catalog, String toolCode, int numRentalDays,
+                                           int discountPercent, LocalDate checkoutDate) throws Exception {
+        return new RentalAgreement(catalog, toolCode, numRentalDays, discountPercent, checkoutDate);
+    }
+
+    /**
+     * Prices a rental into a Quote the caller owns, without creating any objects for rentals inside the years of the
+     * catalog's ChargeDayTable. Outside them charge days are counted from the holidays, which does allocate.
+     * Gives the same charges as checkout, but builds no RentalAgreement and records no CheckoutMetrics
+     *
+     * @param catalog  the RentalCatalog containing the tools, charge policies and holidays to price with
+     * @param toolCode  unique identifying code for tool being rented
+     * @param numRentalDays  number of days after checkout the tool will be rented, must be at least 1
+     * @param discountPercent  discount applied to total cost, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @param quote  receives the price, overwriting whatever it held
+     * @return the quote, for chaining
+     * @throws Exception if numRentalDays is less than 1
+     * @throws Exception if discountPercent is outside [0,100]
+     * @throws Exception if the tool code or its charge policy is not in the catalog
+     */
+    public static Quote quote(RentalCatalog catalog, String toolCode, int numRentalDays, int discountPercent,
+                              LocalDate checkoutDate, Quote quote) throws Exception {
+        RentalAgreement.checkRentalDays(numRentalDays);
+        RentalAgreement.checkDiscountPercent(discountPercent);
+        Tool tool = RentalAgreement.findTool(catalog, toolCode);
+        ChargePolicy chargePolicy = RentalAgreement.findChargePolicy(catalog, tool);
+
+        int checkoutEpochDay = DayCounter.toEpochDay(checkoutDate);
+        int dueEpochDay = ChargeCalculator.calcDueDate(checkoutEpochDay, numRentalDays);
+        int numChargeDays = ChargeCalculator.calcChargeDays(checkoutEpochDay, dueEpochDay, chargePolicy,
+                catalog.getChargeDayTable());
+        long preDiscountCharge = ChargeCalculator.calcPreDiscountCharge(chargePolicy.dailyChargeCents(), numChargeDays);
+        long discountAmount = ChargeCalculator.calcDiscountAmount(preDiscountCharge, discountPercent);
+        quote.set(tool, chargePolicy.dailyChargeCents(), numRentalDays, numChargeDays, preDiscountCharge,
+                discountPercent, discountAmount, ChargeCalculator.calcFinalCharge(preDiscountCharge, discountAmount),
+                checkoutEpochDay, dueEpochDay, catalog.getVersion());
+        return quote;
+    }
+
+    /**
+     * Gets a CartAgreement for several tools rented for the same dates, priced against the given catalog
+     *
+     * @param catalog  the RentalCatalog containing the tools, charge policies and holidays to price with
+     * @param items  the tools being rented, each with its own discount, must not be empty
+     * @param numRentalDays  number of days after checkout the tools will be rented, must be at least 1
+     * @param discountPercent  discount applied to the cart's subtotal, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @return a new CartAgreement based on the parameters
+     * @throws Exception if the cart is empty
+     * @throws Exception if numRentalDays is less than 1
+     * @throws Exception if any discountPercent is outside [0,100]
+     * @throws Exception if any tool code or its charge policy is not in the catalog
+     */
+    public static CartAgreement checkoutCart(RentalCatalog catalog, List<CartItem> items, int numRentalDays,
+                                             int discountPercent, LocalDate checkoutDate) throws Exception {
+        return new CartAgreement(catalog, items, numRentalDays, discountPercent, checkoutDate);
+    }
+
+    /**
+     * Gets a RentalAgreement for a particular tool without blocking the calling thread
+     * The checkout runs on a virtual thread when the runtime supports them, otherwise on a bounded pool of daemon
+     * threads, and the default RentalCatalog is loaded there too if this is the first use
+     *
+     * @param toolCode  unique identifying code for tool being rented
+     * @param numRentalDays  number of days after checkout the tool will be rented, must be at least 1
+     * @param discountPercent  discount applied to total cost, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @return a CompletableFuture which completes with the RentalAgreement, or exceptionally with the Exception
+     * that checkout would have thrown
+     */
+    public static CompletableFuture<RentalAgreement> checkoutAsync(String toolCode, int numRentalDays,
+                                                                   int discountPercent, LocalDate checkoutDate) {
+        return checkoutAsync(toolCode, numRentalDays, discountPercent, checkoutDate, CheckoutExecutors.getDefault());
+    }
+
+    /**
+     * Gets a RentalAgreement for a particular tool on the given Executor, priced against the default RentalCatalog
+     *
+     * @param toolCode  unique identifying code for tool being rented
+     * @param numRentalDays  number of days after checkout the tool will be rented, must be at least 1
+     * @param discountPercent  discount applied to total cost, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @param executor  the Executor to run the checkout and any catalog loading on
+     * @return a CompletableFuture which completes with the RentalAgreement, or exceptionally with the Exception
+     * that checkout would have thrown
+     */
+    public static CompletableFuture<RentalAgreement> checkoutAsync(String toolCode, int numRentalDays,
+                                                                   int discountPercent, LocalDate checkoutDate,
+                                                                   Executor executor) {
+        return runAsync(() -> checkout(RentalCatalog.getDefault(), toolCode, numRentalDays, discountPercent,
+                checkoutDate), executor);
+    }
+
+    /**
+     * Gets a RentalAgreement for a particular tool on the given Executor, priced against the given catalog
+     *
+     * @param catalog  the RentalCatalog containing the tools, charge policies and holidays to price with
+     * @param toolCode  unique identifying code for tool being rented
+     * @param numRentalDays  number of days after checkout the tool will be rented, must be at least 1
+     * @param discountPercent  discount applied to total cost, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @param executor  the Executor to run the checkout on
+     * @return a CompletableFuture which completes with the RentalAgreement, or exceptionally with the Exception
+     * that checkout would have thrown
+     */
+    public static CompletableFuture<RentalAgreement> checkoutAsync(RentalCatalog catalog, String toolCode,
+                                                                   int numRentalDays, int discountPercent,
+                                                                   LocalDate checkoutDate, Executor executor) {
+        return runAsync(() -> checkout(catalog, toolCode, numRentalDays, discountPercent, checkoutDate), executor);
+    }
+
+    private static CompletableFuture<RentalAgreement> runAsync(Callable<RentalAgreement> checkout, Executor executor) {
+        CompletableFuture<RentalAgreement> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(checkout.call());
+                } catch (Throwable throwable) {
+                    // Errors too, ex. a default catalog that fails to load, or callers joining would wait forever
+                    future.completeExceptionally(throwable);
+                }
+            });
+        } catch (RejectedExecutionException rejected) {
+            future.completeExceptionally(rejected);
+        }
+        return future;
+    }
+
+    /**
+     * Reserves a unit of a tool from the inventory, then gets a RentalAgreement for it priced against the given catalog
+     * The unit is released again if the checkout fails, and should be released by the caller when the tool is returned
+     *
+     * @param catalog  the RentalCatalog containing the tools, charge policies and holidays to price with
+     * @param inventory  the Inventory to reserve the tool from
+     * @param toolCode  unique identifying code for tool being rented
+     * @param numRentalDays  number of days after checkout the tool will be rented, must be at least 1
+     * @param discountPercent  discount applied to total cost, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @return a new RentalAgreement based on the parameters
+     * @throws Exception if no unit of the tool is available
+     * @throws Exception if numRentalDays is less than 1
+     * @throws Exception if discountPercent is outside [0,100]
+     * @throws Exception if the tool code or its charge policy is not in the catalog
+     */
+    public static RentalAgreement checkout(RentalCatalog catalog, Inventory inventory, String toolCode,
+                                           int numRentalDays, int discountPercent, LocalDate checkoutDate)
+            throws Exception {
+        if (!inventory.tryReserve(toolCode)) throw new Exception("No units available for tool code: " + toolCode);
+        try {
+            return new RentalAgreement(catalog, toolCode, numRentalDays, discountPercent, checkoutDate);
+        } catch (Exception exception) {
+            inventory.release(toolCode);
+            throw exception;
+        }
+    }
+
+    /**
+     * Gets a RentalAgreement for every request in a batch, priced against the default RentalCatalog
+     *
+     * @param requests  the rentals to check out
+     * @return a List of results in the same order as the requests, each holding either an agreement or an error
+     */
+    public static List<CheckoutResult> checkoutAll(List<RentalRequest> requests) {
+        return checkoutAll(RentalCatalog.getDefault(), requests, DEFAULT_PARALLELISM_THRESHOLD);
+    }
+
+    /**
+     * Gets a RentalAgreement for every request in a batch, all priced against the same catalog
+     * Batches larger than the parallelism threshold are split across the common ForkJoinPool
+     *
+     * @param catalog  the RentalCatalog containing the tools, charge policies and holidays to price with
+     * @param requests  the rentals to check out
+     * @param parallelismThreshold  the largest slice of the batch priced on a single thread, must be at least 1
+     * @return a List of results in the same order as the requests, each holding either an agreement or an error
+     */
+    public static List<CheckoutResult> checkoutAll(RentalCatalog catalog, List<RentalRequest> requests,
+                                                   int parallelismThreshold) {
+        return BatchCheckout.run(catalog, requests, parallelismThreshold, ForkJoinPool.commonPool());
     }
 }
@@ -1,25 +1,22 @@
 package demo.rental;
 
 import demo.rental.charge.*;
-import demo.rental.dates.HolidayLookup;
-import demo.rental.dates.HolidayLookupCSV;
-import demo.rental.tool.ToolLookupCSV;
-import demo.rental.tool.ToolLookup;
+import demo.rental.dates.DayCounter;
+import demo.rental.metrics.CheckoutMetrics;
+import demo.rental.metrics.CheckoutStage;
 import demo.rental.tool.Tool;
 
-import java.text.NumberFormat;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 /**
  * The RentalAgreement class is used generate and print information about tool rentals
  *
  * Upon construction, a RentalAgreement will look up information about the particular tool being rented including
- * type, brand, charge policies. Then it will calculate charge data such as number of days charged, pre-discount price,
+ * type, brand, charge policies from a RentalCatalog. Then it will calculate charge data such as number of days charged, pre-discount price,
  * discount amount, and final price.
  *
- * After construction, a RentalAgreement can print all of its rental data to System.out.
+ * After construction, a RentalAgreement can print all of its rental data to System.out. To write agreements anywhere
+ * else, or many at once, use AgreementRenderer.
  */
 public class RentalAgreement {
 
@@ -33,6 +30,7 @@ public class RentalAgreement {
     private final long finalCharge;
     private final LocalDate checkoutDate;
     private final LocalDate dueDate;
+    private final long catalogVersion;
 
     /**
      * Constructs a RentalAgreement for a particular tool
@@ -43,27 +41,162 @@ public class RentalAgreement {
      * @param checkoutDate  date of checkout, charges begin the day after checkout
      * @throws Exception if numRentalDays is less than 1
      * @throws Exception if discountPercent is outside [0,100]
+     * @throws Exception if the tool code or its charge policy is not in the catalog
      */
     public RentalAgreement(String toolCode, int numRentalDays, int discountPercent, LocalDate checkoutDate) throws Exception {
+        this(RentalCatalog.getDefault(), toolCode, numRentalDays, discountPercent, checkoutDate);
+    }
+
+    /**
+     * Constructs a RentalAgreement for a particular tool, using the given catalog for all lookups
+     *
+     * @param catalog  the RentalCatalog containing the tools, charge policies and holidays to price with
+     * @param toolCode  unique identifying code for tool being rented
+     * @param numRentalDays  number of days after checkout the tool will be rented, must be at least 1
+     * @param discountPercent  discount applied to total cost, must be within range [0,100]
+     * @param checkoutDate  date of checkout, charges begin the day after checkout
+     * @throws Exception if numRentalDays is less than 1
+     * @throws Exception if discountPercent is outside [0,100]
+     * @throws Exception if the tool code or its charge policy is not in the catalog
+     */
+    public RentalAgreement(RentalCatalog catalog, String toolCode, int numRentalDays, int discountPercent,
+                           LocalDate checkoutDate) throws Exception {
+        // timings are only taken while metrics are enabled, see CheckoutMetrics
+        CheckoutMetrics metrics = CheckoutMetrics.ifEnabled();
+        long startTime = metrics == null ? 0 : System.nanoTime();
+        long time = startTime;
+        Tool foundTool = null;
+        try {
+            checkRentalDays(numRentalDays);
+            checkDiscountPercent(discountPercent);
+
+            this.numRentalDays = numRentalDays;
+            this.discountPercent = discountPercent;
+            this.checkoutDate = checkoutDate;
+            this.catalogVersion = catalog.getVersion();
+            foundTool = findTool(catalog, toolCode);
+            this.tool = foundTool;
+            if (metrics != null) time = metrics.recordStage(CheckoutStage.TOOL_LOOKUP, time);
+
+            this.chargePolicy = findChargePolicy(catalog, this.tool);
+            if (metrics != null) time = metrics.recordStage(CheckoutStage.POLICY_LOOKUP, time);
+
+            this.dueDate = ChargeCalculator.calcDueDate(this.checkoutDate, this.numRentalDays);
+            int checkoutEpochDay = DayCounter.toEpochDay(this.checkoutDate);
+            this.numChargeDays = ChargeCalculator.calcChargeDays(checkoutEpochDay,
+                    ChargeCalculator.calcDueDate(checkoutEpochDay, this.numRentalDays), this.chargePolicy,
+                    catalog.getChargeDayTable());
+            if (metrics != null) time = metrics.recordStage(CheckoutStage.CHARGE_DAYS, time);
+
+            this.preDiscountCharge = ChargeCalculator.calcPreDiscountCharge(this.chargePolicy.dailyChargeCents(),
+                    this.numChargeDays);
+            this.discountAmount = ChargeCalculator.calcDiscountAmount(this.preDiscountCharge, this.discountPercent);
+            this.finalCharge = ChargeCalculator.calcFinalCharge(this.preDiscountCharge, this.discountAmount);
+            if (metrics != null) {
+                metrics.recordStage(CheckoutStage.DISCOUNT, time);
+                metrics.recordStage(CheckoutStage.TOTAL, startTime);
+                metrics.recordCheckout(this.tool.type());
+            }
+        } catch (Exception exception) {
+            if (metrics != null) metrics.recordFailure(foundTool == null ? null : foundTool.type());
+            throw exception;
+        }
+    }
+
+    /**
+     * Shared by every way of pricing a rental, so they all reject the same requests with the same messages
+     *
+     * @throws Exception if numRentalDays is less than 1
+     */
+    static void checkRentalDays(int numRentalDays) throws Exception {
         if (numRentalDays < 1) throw new Exception("Number of rental days must be greater than 0");
+    }
+
+    /**
+     * @throws Exception if discountPercent is outside [0,100]
+     */
+    static void checkDiscountPercent(int discountPercent) throws Exception {
         if (discountPercent < 0 || discountPercent > 100) throw new Exception("Discount percentage must be within range [0, 100]");
+    }
 
-        ToolLookup toolLookup = new ToolLookupCSV("csv/Tools.csv");
-        ChargePolicyLookup policyLookup = new ChargePolicyLookupCSV("csv/ChargePolicies.csv");
-        HolidayLookup holidayLookup = new HolidayLookupCSV("csv/Holidays.csv");
+    /**
+     * @return the Tool for a tool code
+     * @throws Exception if the tool code is not in the catalog
+     */
+    static Tool findTool(RentalCatalog catalog, String toolCode) throws Exception {
+        Tool tool = catalog.getToolLookup().getToolFromCode(toolCode);
+        if (tool == null) throw new Exception("Tool code not found: " + toolCode);
+        return tool;
+    }
 
+    /**
+     * @return the ChargePolicy for a tool's type
+     * @throws Exception if the tool's type has no charge policy in the catalog
+     */
+    static ChargePolicy findChargePolicy(RentalCatalog catalog, Tool tool) throws Exception {
+        ChargePolicy chargePolicy = catalog.getPolicyLookup().getChargePolicyFromToolType(tool.type());
+        if (chargePolicy == null) throw new Exception("Charge policy not found for tool type: " + tool.type());
+        return chargePolicy;
+    }
+
+    /**
+     * Constructs a RentalAgreement whose tool, charge policy and charge days have already been worked out, as for the
+     * lines of a CartAgreement. Only the charges are calculated here, and nothing is validated.
+     *
+     * @param tool  the Tool being rented
+     * @param chargePolicy  the ChargePolicy for the tool's type
+     * @param numRentalDays  number of days after checkout the tool will be rented
+     * @param numChargeDays  number of rental days which are charged
+     * @param discountPercent  discount applied to total cost
+     * @param checkoutDate  date of checkout
+     * @param dueDate  date the tool is due back
+     * @param catalogVersion  the version of the RentalCatalog the tool and policy came from
+     */
+    RentalAgreement(Tool tool, ChargePolicy chargePolicy, int numRentalDays, int numChargeDays, int discountPercent,
+                    LocalDate checkoutDate, LocalDate dueDate, long catalogVersion) {
+        this.tool = tool;
+        this.chargePolicy = chargePolicy;
         this.numRentalDays = numRentalDays;
+        this.numChargeDays = numChargeDays;
         this.discountPercent = discountPercent;
         this.checkoutDate = checkoutDate;
-        this.tool = toolLookup.getToolFromCode(toolCode);
-        this.chargePolicy = policyLookup.getChargePolicyFromToolType(this.tool.type());
-        this.dueDate = ChargeCalculator.calcDueDate(this.checkoutDate, this.numRentalDays);
-        this.numChargeDays = ChargeCalculator.calcChargeDays(this.checkoutDate, this.dueDate, this.chargePolicy,
-                holidayLookup.getAllHolidays());
-        this.preDiscountCharge = ChargeCalculator.calcPreDiscountCharge(this.chargePolicy.dailyChargeCents(),
-                this.numChargeDays);
-        this.discountAmount = ChargeCalculator.calcDiscountAmount(this.preDiscountCharge, this.discountPercent);
-        this.finalCharge = ChargeCalculator.calcFinalCharge(this.preDiscountCharge, this.discountAmount);
+        this.dueDate = dueDate;
+        this.catalogVersion = catalogVersion;
+        this.preDiscountCharge = ChargeCalculator.calcPreDiscountCharge(chargePolicy.dailyChargeCents(), numChargeDays);
+        this.discountAmount = ChargeCalculator.calcDiscountAmount(preDiscountCharge, discountPercent);
+        this.finalCharge = ChargeCalculator.calcFinalCharge(preDiscountCharge, discountAmount);
+    }
+
+    /**
+     * Restores a RentalAgreement which was priced earlier, ex. when replaying a ledger
+     * Every field is taken as given, nothing is looked up, recalculated or validated
+     *
+     * @param tool  the Tool being rented
+     * @param chargePolicy  the ChargePolicy the tool was priced with
+     * @param numRentalDays  number of days after checkout the tool is rented
+     * @param numChargeDays  number of rental days which are charged
+     * @param preDiscountCharge  the number of cents charged before the discount
+     * @param discountPercent  discount applied to total cost
+     * @param discountAmount  the number of cents deducted by the discount
+     * @param finalCharge  the number of cents charged after the discount
+     * @param checkoutDate  date of checkout
+     * @param dueDate  date the tool is due back
+     * @param catalogVersion  the version of the RentalCatalog the agreement was priced with
+     */
+    public RentalAgreement(Tool tool, ChargePolicy chargePolicy, int numRentalDays, int numChargeDays,
+                           long preDiscountCharge, int discountPercent, long discountAmount, long finalCharge,
+                           LocalDate checkoutDate, LocalDate dueDate, long catalogVersion) {
+        this.tool = tool;
+        this.chargePolicy = chargePolicy;
+        this.numRentalDays = numRentalDays;
+        this.numChargeDays = numChargeDays;
+        this.preDiscountCharge = preDiscountCharge;
+        this.discountPercent = discountPercent;
+        this.discountAmount = discountAmount;
+        this.finalCharge = finalCharge;
+        this.checkoutDate = checkoutDate;
+        this.dueDate = dueDate;
+        this.catalogVersion = catalogVersion;
     }
 
     /**
@@ -83,26 +216,7 @@ public class RentalAgreement {
      * Final charge: $3.58
      */
     public void print() {
-        System.out.println("Tool code: " + tool.code());
-        System.out.println("Tool type: " + tool.type());
-        System.out.println("Tool brand: " + tool.brand());
-        System.out.println("Rental days: " + numRentalDays);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
-        System.out.println("Check out date: " + checkoutDate.format(formatter));
-        System.out.println("Due date: " + dueDate.format(formatter));
-        System.out.println("Daily rental charge: " + printableCurrency(chargePolicy.dailyChargeCents()));
-        System.out.println("Charge days: " + numChargeDays);
-        System.out.println("Pre-discount charge: " + printableCurrency(preDiscountCharge));
-        System.out.println("Discount percent: " + discountPercent + "%");
-        System.out.println("Discount amount: " + printableCurrency(discountAmount));
-        System.out.println("Final charge: " + printableCurrency(finalCharge));
-    }
-
-    private static String printableCurrency(long currencyCents) {
-        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-        currencyFormat.setGroupingUsed(true);
-        double currencyDollars = currencyCents / 100.0;
-        return currencyFormat.format(currencyDollars);
+        System.out.print(AgreementRenderer.render(this));
     }
 
     public Tool getTool() {
@@ -144,4 +258,11 @@ public class RentalAgreement {
     public LocalDate getDueDate() {
         return dueDate;
     }
+
+    /**
+     * @return the version of the RentalCatalog this agreement was priced with
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
 }
@@ -0,0 +1,157 @@
+package demo.rental;
+
+import demo.rental.charge.ChargeDayTable;
+import demo.rental.charge.ChargePolicyLookup;
+import demo.rental.charge.ChargePolicyLookupCSV;
+import demo.rental.charge.ChargePolicyLookupGenerated;
+import demo.rental.dates.Holiday;
+import demo.rental.dates.HolidayIndex;
+import demo.rental.dates.HolidayLookup;
+import demo.rental.dates.HolidayLookupCSV;
+import demo.rental.dates.HolidayLookupGenerated;
+import demo.rental.tool.ToolLookup;
+import demo.rental.tool.ToolLookupCSV;
+import demo.rental.tool.ToolLookupGenerated;
+
+import java.util.List;
+
+/**
+ * A RentalCatalog is an immutable snapshot of everything needed to price a rental: the tools, the charge policies
+ * and the holidays.
+ *
+ * A catalog is loaded once and can then be shared by any number of threads, so checkouts no longer need to re-read
+ * the .csv files every time a RentalAgreement is constructed.
+ */
+public final class RentalCatalog {
+    public static final String DEFAULT_TOOLS_PATH = "csv/Tools.csv";
+    public static final String DEFAULT_POLICIES_PATH = "csv/ChargePolicies.csv";
+    public static final String DEFAULT_HOLIDAYS_PATH = "csv/Holidays.csv";
+    public static final int DEFAULT_FIRST_INDEXED_YEAR = 1900;
+    public static final int DEFAULT_LAST_INDEXED_YEAR = 2100;
+
+    private final ToolLookup toolLookup;
+    private final ChargePolicyLookup policyLookup;
+    private final List<Holiday> holidays;
+    private final HolidayIndex holidayIndex;
+    private final ChargeDayTable chargeDayTable;
+    private final long version;
+
+    /**
+     * Constructs a RentalCatalog from already loaded lookups
+     * The holidays are copied out of the HolidayLookup, so later changes to its list are not seen by this catalog
+     *
+     * @param toolLookup  used for finding the Tool being rented, must not be mutated after construction
+     * @param policyLookup  used for finding the ChargePolicy of a tool type, must not be mutated after construction
+     * @param holidayLookup  supplies the holidays which may affect charged days
+     */
+    public RentalCatalog(ToolLookup toolLookup, ChargePolicyLookup policyLookup, HolidayLookup holidayLookup) {
+        this(toolLookup, policyLookup, holidayLookup, DEFAULT_FIRST_INDEXED_YEAR, DEFAULT_LAST_INDEXED_YEAR);
+    }
+
+    /**
+     * Constructs a RentalCatalog from already loaded lookups, indexing holidays and charge days over the given range of
+     * years
+     * Rentals outside the indexed years are still priced correctly, just more slowly
+     *
+     * @param toolLookup  used for finding the Tool being rented, must not be mutated after construction
+     * @param policyLookup  used for finding the ChargePolicy of a tool type, must not be mutated after construction
+     * @param holidayLookup  supplies the holidays which may affect charged days
+     * @param firstIndexedYear  the first year covered by the catalog's HolidayIndex and ChargeDayTable
+     * @param lastIndexedYear  the last year covered by the catalog's HolidayIndex and ChargeDayTable
+     */
+    public RentalCatalog(ToolLookup toolLookup, ChargePolicyLookup policyLookup, HolidayLookup holidayLookup,
+                         int firstIndexedYear, int lastIndexedYear) {
+        this(toolLookup, policyLookup, holidayLookup, firstIndexedYear, lastIndexedYear, 0);
+    }
+
+    /**
+     * Constructs a versioned RentalCatalog from already loaded lookups, indexing holidays over the given range of years
+     *
+     * @param toolLookup  used for finding the Tool being rented, must not be mutated after construction
+     * @param policyLookup  used for finding the ChargePolicy of a tool type, must not be mutated after construction
+     * @param holidayLookup  supplies the holidays which may affect charged days
+     * @param firstIndexedYear  the first year covered by the catalog's HolidayIndex and ChargeDayTable
+     * @param lastIndexedYear  the last year covered by the catalog's HolidayIndex and ChargeDayTable
+     * @param version  identifies this catalog among catalogs loaded over time, recorded on every RentalAgreement
+     */
+    public RentalCatalog(ToolLookup toolLookup, ChargePolicyLookup policyLookup, HolidayLookup holidayLookup,
+                         int firstIndexedYear, int lastIndexedYear, long version) {
+        this.version = version;
+        this.toolLookup = toolLookup;
+        this.policyLookup = policyLookup;
+        this.holidayIndex = new HolidayIndex(holidayLookup, firstIndexedYear, lastIndexedYear);
+        this.holidays = holidayIndex.getHolidays();
+        this.chargeDayTable = new ChargeDayTable(holidayIndex, firstIndexedYear, lastIndexedYear);
+    }
+
+    /**
+     * Loads a RentalCatalog from three .csv files
+     *
+     * @param toolsPath  the path to a .csv file containing Tool data
+     * @param policiesPath  the path to a .csv file containing ChargePolicy data
+     * @param holidaysPath  the path to a .csv file containing holiday data
+     * @return a new RentalCatalog containing the data from the given files
+     */
+    public static RentalCatalog fromCSV(String toolsPath, String policiesPath, String holidaysPath) {
+        return new RentalCatalog(new ToolLookupCSV(toolsPath), new ChargePolicyLookupCSV(policiesPath),
+                new HolidayLookupCSV(holidaysPath));
+    }
+
+    /**
+     * Gets the catalog loaded from the default .csv files in the csv/ directory
+     * The files are read the first time this is called, every later call returns the same instance
+     *
+     * @return the shared default RentalCatalog
+     */
+    public static RentalCatalog getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Gets the catalog generated from the csv/ directory at build time, for nodes which price against a frozen catalog
+     * Nothing is read or parsed, so the first call only has to index the holidays
+     *
+     * @return the shared generated RentalCatalog
+     */
+    public static RentalCatalog getGenerated() {
+        return GeneratedHolder.INSTANCE;
+    }
+
+    public ToolLookup getToolLookup() {
+        return toolLookup;
+    }
+
+    public ChargePolicyLookup getPolicyLookup() {
+        return policyLookup;
+    }
+
+    /**
+     * @return an immutable List of all holidays in this catalog
+     */
+    public List<Holiday> getHolidays() {
+        return holidays;
+    }
+
+    public HolidayIndex getHolidayIndex() {
+        return holidayIndex;
+    }
+
+    public ChargeDayTable getChargeDayTable() {
+        return chargeDayTable;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // the JVM guarantees the holder is initialized exactly once, on first use, without any explicit locking
+    private static final class DefaultHolder {
+        private static final RentalCatalog INSTANCE = fromCSV(DEFAULT_TOOLS_PATH, DEFAULT_POLICIES_PATH,
+                DEFAULT_HOLIDAYS_PATH);
+    }
+
+    private static final class GeneratedHolder {
+        private static final RentalCatalog INSTANCE = new RentalCatalog(new ToolLookupGenerated(),
+                new ChargePolicyLookupGenerated(), new HolidayLookupGenerated());
+    }
+}
@@ -0,0 +1,13 @@
+package demo.rental;
+
+import java.time.LocalDate;
+
+/**
+ * A record holding the parameters of a single checkout, for use with batch checkouts
+ *
+ * toolCode - unique identifying code for tool being rented
+ * numRentalDays - number of days after checkout the tool will be rented, must be at least 1
+ * discountPercent - discount applied to total cost, must be within range [0,100]
+ * checkoutDate - date of checkout, charges begin the day after checkout
+ */
+public record RentalRequest(String toolCode, int numRentalDays, int discountPercent, LocalDate checkoutDate) {}
@@ -0,0 +1,244 @@
+package demo.rental.analytics;
+
+import demo.rental.dates.DayCounter;
+import demo.rental.tool.Tool;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * An AgreementQuery filters the agreements in an AgreementStore, and sums a Measure over them either in total or
+ * grouped by a Dimension. Queries are started with AgreementStore.query and narrowed with the where methods, ex.
+ * revenue by tool type by month for 2015:
+ *
+ *   store.query().whereCheckoutBetween(LocalDate.of(2015, 1, 1), LocalDate.of(2016, 1, 1))
+ *           .whereToolType("Ladder").sumBy(Dimension.CHECKOUT_MONTH, Measure.FINAL_CHARGE)
+ *
+ * The columns are split into chunks which are scanned by a parallel stream, each chunk summing into its own array
+ * of groups, and the arrays are added together at the end. Groups are resolved to array indexes before the scan, so
+ * the scan itself only reads primitive arrays.
+ */
+public final class AgreementQuery {
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final AgreementStore.Columns columns;
+    private int fromEpochDay = Integer.MIN_VALUE;
+    private int toEpochDay = Integer.MAX_VALUE;
+    // indexed by tool id, null when every tool matches
+    private boolean[] matchingTools;
+
+    AgreementQuery(AgreementStore.Columns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Narrows the query to agreements checked out within a range of dates
+     *
+     * @param from  the first checkout date to include
+     * @param until  the first checkout date after from to exclude
+     * @return this query
+     */
+    public AgreementQuery whereCheckoutBetween(LocalDate from, LocalDate until) {
+        fromEpochDay = Math.max(fromEpochDay, DayCounter.toEpochDay(from));
+        toEpochDay = Math.min(toEpochDay, DayCounter.toEpochDay(until));
+        return this;
+    }
+
+    /**
+     * Narrows the query to agreements for tools of one of the given types
+     *
+     * @param types  the tool types to include
+     * @return this query
+     */
+    public AgreementQuery whereToolType(String... types) {
+        List<String> typeList = List.of(types);
+        return whereTool(tool -> typeList.contains(tool.type()));
+    }
+
+    /**
+     * Narrows the query to agreements for tools with one of the given codes
+     *
+     * @param codes  the tool codes to include
+     * @return this query
+     */
+    public AgreementQuery whereToolCode(String... codes) {
+        List<String> codeList = List.of(codes);
+        return whereTool(tool -> codeList.contains(tool.code()));
+    }
+
+    private AgreementQuery whereTool(Predicate<Tool> predicate) {
+        Tool[] tools = columns.tools();
+        boolean[] matching = new boolean[tools.length];
+        for (int id = 0; id < tools.length; id++) {
+            matching[id] = predicate.test(tools[id]) && (matchingTools == null || matchingTools[id]);
+        }
+        matchingTools = matching;
+        return this;
+    }
+
+    /**
+     * @return the number of matching agreements
+     */
+    public long count() {
+        return sum(Measure.COUNT);
+    }
+
+    /**
+     * Sums a measure over every matching agreement
+     *
+     * @param measure  the quantity to sum
+     * @return the total
+     */
+    public long sum(Measure measure) {
+        return scan(measure, null, 0, null, 1)[0];
+    }
+
+    /**
+     * Sums a measure over the matching agreements in each group of a dimension
+     *
+     * @param dimension  what to group the agreements by
+     * @param measure  the quantity to sum
+     * @return the total for each group with at least one matching agreement, chronologically for the checkout date
+     * dimensions, otherwise in the order the groups were first added to the store
+     */
+    public Map<String, Long> sumBy(Dimension dimension, Measure measure) {
+        List<String> labels = new ArrayList<>();
+        int[] keyColumn;
+        int keyOffset = 0;
+        int[] groupsByKey;
+        switch (dimension) {
+            case TOOL_TYPE -> {
+                keyColumn = columns.toolIds();
+                groupsByKey = columns.toolTypeIds();
+                labels.addAll(List.of(columns.types()));
+            }
+            case TOOL_CODE -> {
+                keyColumn = columns.toolIds();
+                groupsByKey = groupToolsByCode(labels);
+            }
+            default -> {
+                keyColumn = columns.checkoutEpochDays();
+                int[] range = checkoutDayRange();
+                keyOffset = range[0];
+                groupsByKey = groupCheckoutDays(dimension, range[0], range[1], labels);
+            }
+        }
+        long[] totals = scan(measure, keyColumn, keyOffset, groupsByKey, labels.size());
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int group = 0; group < labels.size(); group++) {
+            if (totals[labels.size() + group] > 0) result.put(labels.get(group), totals[group]);
+        }
+        return result;
+    }
+
+    private int[] groupToolsByCode(List<String> labels) {
+        Tool[] tools = columns.tools();
+        Map<String, Integer> groupsByCode = new HashMap<>();
+        int[] groups = new int[tools.length];
+        for (int id = 0; id < tools.length; id++) {
+            groups[id] = groupsByCode.computeIfAbsent(tools[id].code(), code -> {
+                labels.add(code);
+                return labels.size() - 1;
+            });
+        }
+        return groups;
+    }
+
+    /**
+     * @return the first and last checkout epoch days of the matching date range which appear in the store, or an empty
+     * range if there are none
+     */
+    private int[] checkoutDayRange() {
+        int[] days = columns.checkoutEpochDays();
+        int min = IntStream.range(0, columns.size()).parallel().map(row -> days[row])
+                .filter(day -> day >= fromEpochDay && day < toEpochDay).min().orElse(0);
+        int max = IntStream.range(0, columns.size()).parallel().map(row -> days[row])
+                .filter(day -> day >= fromEpochDay && day < toEpochDay).max().orElse(-1);
+        return new int[]{min, max};
+    }
+
+    /*
+     * Maps every checkout day in the range to its group, so the scan groups by date with a single array read instead
+     * of converting each row's epoch day to a date
+     */
+    private static int[] groupCheckoutDays(Dimension dimension, int firstDay, int lastDay, List<String> labels) {
+        int[] groups = new int[Math.max(0, lastDay - firstDay + 1)];
+        if (dimension == Dimension.CHECKOUT_DAY_OF_WEEK) {
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) labels.add(dayOfWeek.toString());
+        }
+        Map<String, Integer> groupsByLabel = new HashMap<>();
+        for (int day = firstDay; day <= lastDay; day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            groups[day - firstDay] = switch (dimension) {
+                case CHECKOUT_DAY_OF_WEEK -> date.getDayOfWeek().getValue() - 1;
+                case CHECKOUT_YEAR -> groupsByLabel.computeIfAbsent(String.valueOf(date.getYear()),
+                        label -> addLabel(labels, label));
+                case CHECKOUT_MONTH -> groupsByLabel.computeIfAbsent(YearMonth.from(date).toString(),
+                        label -> addLabel(labels, label));
+                default -> throw new IllegalArgumentException("Not a checkout date dimension: " + dimension);
+            };
+        }
+        return groups;
+    }
+
+    private static int addLabel(List<String> labels, String label) {
+        labels.add(label);
+        return labels.size() - 1;
+    }
+
+    /**
+     * Scans the matching rows in parallel chunks
+     *
+     * @return the sum for each group, followed by the number of matching rows in each group
+     */
+    private long[] scan(Measure measure, int[] keyColumn, int keyOffset, int[] groupsByKey, int numGroups) {
+        int numChunks = (columns.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, numChunks).parallel()
+                .mapToObj(chunk -> scanChunk(chunk, measure, keyColumn, keyOffset, groupsByKey, numGroups))
+                .reduce(AgreementQuery::add)
+                .orElseGet(() -> new long[numGroups * 2]);
+    }
+
+    private long[] scanChunk(int chunk, Measure measure, int[] keyColumn, int keyOffset, int[] groupsByKey,
+                             int numGroups) {
+        long[] totals = new long[numGroups * 2];
+        int[] days = columns.checkoutEpochDays();
+        int[] toolIds = columns.toolIds();
+        int start = chunk * CHUNK_SIZE;
+        int end = Math.min(columns.size(), start + CHUNK_SIZE);
+        for (int row = start; row < end; row++) {
+            int day = days[row];
+            if (day < fromEpochDay || day >= toEpochDay) continue;
+            if (matchingTools != null && !matchingTools[toolIds[row]]) continue;
+            int group = keyColumn == null ? 0 : groupsByKey[keyColumn[row] - keyOffset];
+            totals[group] += valueOf(measure, row);
+            totals[numGroups + group]++;
+        }
+        return totals;
+    }
+
+    private long valueOf(Measure measure, int row) {
+        return switch (measure) {
+            case COUNT -> 1;
+            case RENTAL_DAYS -> columns.rentalDays()[row];
+            case CHARGE_DAYS -> columns.chargeDays()[row];
+            case HOLIDAY_DAYS_NOT_CHARGED -> columns.holidayDaysNotCharged()[row];
+            case PRE_DISCOUNT_CHARGE -> columns.preDiscountCharges()[row];
+            case DISCOUNT_AMOUNT -> columns.discountAmounts()[row];
+            case FINAL_CHARGE -> columns.preDiscountCharges()[row] - columns.discountAmounts()[row];
+        };
+    }
+
+    private static long[] add(long[] totals, long[] other) {
+        for (int i = 0; i < totals.length; i++) totals[i] += other[i];
+        return totals;
+    }
+}
@@ -0,0 +1,165 @@
+package demo.rental.analytics;
+
+import demo.rental.RentalAgreement;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.dates.DayCounter;
+import demo.rental.tool.Tool;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An AgreementStore keeps the history of RentalAgreements in memory as columns of primitives, for answering revenue
+ * questions with AgreementQuery instead of exporting agreements to a database.
+ *
+ * Each agreement becomes one row of 36 bytes, with no object per row. Tools and tool types are dictionary
+ * encoded as int ids, and the charge days lost to holidays are worked out once, when the agreement is added.
+ *
+ * Agreements may be added while queries run. Each query sees the rows which had been added when it started.
+ */
+public final class AgreementStore {
+    private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    private int[] checkoutEpochDays;
+    private int[] rentalDays;
+    private int[] toolIds;
+    private int[] chargeDays;
+    private int[] holidayDaysNotCharged;
+    private long[] preDiscountCharges;
+    private long[] discountAmounts;
+    private int size;
+
+    // tools are keyed by the whole record, so a tool whose type changes between catalogs is a new tool
+    private final Map<Tool, Integer> toolIdsByTool = new HashMap<>();
+    private final Map<String, Integer> typeIdsByType = new HashMap<>();
+    private Tool[] tools = new Tool[16];
+    private int[] toolTypeIds = new int[16];
+    private String[] types = new String[16];
+
+    public AgreementStore() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity  the number of agreements to make room for up front, must not be negative
+     */
+    public AgreementStore(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        checkoutEpochDays = new int[initialCapacity];
+        rentalDays = new int[initialCapacity];
+        toolIds = new int[initialCapacity];
+        chargeDays = new int[initialCapacity];
+        holidayDaysNotCharged = new int[initialCapacity];
+        preDiscountCharges = new long[initialCapacity];
+        discountAmounts = new long[initialCapacity];
+    }
+
+    /**
+     * Adds an agreement to the end of the store
+     *
+     * @param agreement  the agreement to add
+     */
+    public synchronized void add(RentalAgreement agreement) {
+        if (size == checkoutEpochDays.length) grow(size + 1);
+        int checkoutEpochDay = DayCounter.toEpochDay(agreement.getCheckoutDate());
+        checkoutEpochDays[size] = checkoutEpochDay;
+        rentalDays[size] = agreement.getNumRentalDays();
+        toolIds[size] = toolIdOf(agreement.getTool());
+        chargeDays[size] = agreement.getNumChargeDays();
+        holidayDaysNotCharged[size] = calcChargeDaysIgnoringHolidays(checkoutEpochDay,
+                checkoutEpochDay + agreement.getNumRentalDays(), agreement.getChargePolicy())
+                - agreement.getNumChargeDays();
+        preDiscountCharges[size] = agreement.getPreDiscountCharge();
+        discountAmounts[size] = agreement.getDiscountAmount();
+        size++;
+    }
+
+    /**
+     * Adds agreements to the end of the store, in iteration order
+     *
+     * @param agreements  the agreements to add
+     */
+    public synchronized void addAll(Iterable<RentalAgreement> agreements) {
+        for (RentalAgreement agreement : agreements) {
+            add(agreement);
+        }
+    }
+
+    /**
+     * @return the number of agreements in the store
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Starts a query over every agreement added so far, which can be narrowed with its where methods
+     *
+     * @return a new AgreementQuery
+     */
+    public AgreementQuery query() {
+        return new AgreementQuery(snapshot());
+    }
+
+    private static int calcChargeDaysIgnoringHolidays(int checkoutEpochDay, int dueEpochDay, ChargePolicy policy) {
+        int days = 0;
+        if (policy.isChargedWeekdays()) days += DayCounter.countWeekdaysBetween(checkoutEpochDay, dueEpochDay);
+        if (policy.isChargedWeekends()) days += DayCounter.countWeekendDaysBetween(checkoutEpochDay, dueEpochDay);
+        return days;
+    }
+
+    private int toolIdOf(Tool tool) {
+        Integer id = toolIdsByTool.get(tool);
+        if (id != null) return id;
+        int newId = toolIdsByTool.size();
+        if (newId == tools.length) {
+            tools = Arrays.copyOf(tools, newId * 2);
+            toolTypeIds = Arrays.copyOf(toolTypeIds, newId * 2);
+        }
+        tools[newId] = tool;
+        toolTypeIds[newId] = typeIdOf(tool.type());
+        toolIdsByTool.put(tool, newId);
+        return newId;
+    }
+
+    private int typeIdOf(String type) {
+        Integer id = typeIdsByType.get(type);
+        if (id != null) return id;
+        int newId = typeIdsByType.size();
+        if (newId == types.length) types = Arrays.copyOf(types, newId * 2);
+        types[newId] = type;
+        typeIdsByType.put(type, newId);
+        return newId;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, checkoutEpochDays.length + (checkoutEpochDays.length >> 1) + 16);
+        checkoutEpochDays = Arrays.copyOf(checkoutEpochDays, capacity);
+        rentalDays = Arrays.copyOf(rentalDays, capacity);
+        toolIds = Arrays.copyOf(toolIds, capacity);
+        chargeDays = Arrays.copyOf(chargeDays, capacity);
+        holidayDaysNotCharged = Arrays.copyOf(holidayDaysNotCharged, capacity);
+        preDiscountCharges = Arrays.copyOf(preDiscountCharges, capacity);
+        discountAmounts = Arrays.copyOf(discountAmounts, capacity);
+    }
+
+    /*
+     * Rows and dictionary entries are only ever appended, so the arrays captured here under the lock hold valid data up
+     * to the captured sizes even while later adds write past them, or replace them with larger copies
+     */
+    private synchronized Columns snapshot() {
+        int numTools = toolIdsByTool.size();
+        int numTypes = typeIdsByType.size();
+        return new Columns(size, checkoutEpochDays, rentalDays, toolIds, chargeDays, holidayDaysNotCharged,
+                preDiscountCharges, discountAmounts, Arrays.copyOf(tools, numTools),
+                Arrays.copyOf(toolTypeIds, numTools), Arrays.copyOf(types, numTypes));
+    }
+
+    /**
+     * The columns of the store as they were when a query started
+     */
+    record Columns(int size, int[] checkoutEpochDays, int[] rentalDays, int[] toolIds, int[] chargeDays,
+                   int[] holidayDaysNotCharged, long[] preDiscountCharges, long[] discountAmounts,
+                   Tool[] tools, int[] toolTypeIds, String[] types) {}
+}
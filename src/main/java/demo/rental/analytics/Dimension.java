@@ -0,0 +1,13 @@
+package demo.rental.analytics;
+
+/**
+ * The attributes an AgreementQuery can group agreements by
+ * Each group is labelled with a String, ex. "Ladder" for TOOL_TYPE or "2015-07" for CHECKOUT_MONTH
+ */
+public enum Dimension {
+    TOOL_TYPE,
+    TOOL_CODE,
+    CHECKOUT_YEAR,
+    CHECKOUT_MONTH,
+    CHECKOUT_DAY_OF_WEEK
+}
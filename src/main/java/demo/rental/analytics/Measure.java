@@ -0,0 +1,23 @@
+package demo.rental.analytics;
+
+/**
+ * The quantities an AgreementQuery can sum over the agreements it matches
+ */
+public enum Measure {
+    /**
+     * The number of agreements
+     */
+    COUNT,
+    RENTAL_DAYS,
+    CHARGE_DAYS,
+    /**
+     * Days which would have been charged if the charge policy charged holidays
+     */
+    HOLIDAY_DAYS_NOT_CHARGED,
+    PRE_DISCOUNT_CHARGE,
+    DISCOUNT_AMOUNT,
+    /**
+     * The revenue in cents, after discounts
+     */
+    FINAL_CHARGE
+}
@@ -0,0 +1,66 @@
+package demo.rental.binary;
+
+import demo.rental.RentalAgreement;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.tool.ToolCodes;
+
+import java.nio.ByteBuffer;
+
+import static demo.rental.binary.AgreementLayout.*;
+
+/**
+ * Encodes RentalAgreements into fixed-width 72 byte little-endian binary records, which AgreementFlyweight reads back
+ * in place
+ */
+public final class AgreementEncoder {
+    /**
+     * The size in bytes of every encoded agreement
+     */
+    public static final int RECORD_SIZE = AgreementLayout.RECORD_SIZE;
+
+    private AgreementEncoder() {}
+
+    /**
+     * Encodes an agreement at the buffer's position, and advances the position past it
+     *
+     * @param agreement  the agreement to encode
+     * @param buffer  the buffer to write to, with at least RECORD_SIZE bytes remaining
+     * @throws IllegalArgumentException if the agreement's tool code cannot be packed by ToolCodes
+     */
+    public static void encode(RentalAgreement agreement, ByteBuffer buffer) {
+        encode(agreement, buffer, buffer.position());
+        buffer.position(buffer.position() + RECORD_SIZE);
+    }
+
+    /**
+     * Encodes an agreement at an offset in a buffer, without changing the buffer's position
+     *
+     * @param agreement  the agreement to encode
+     * @param buffer  the buffer to write to
+     * @param offset  the offset of the record in the buffer
+     * @throws IllegalArgumentException if the agreement's tool code cannot be packed by ToolCodes
+     * @throws IndexOutOfBoundsException if the record does not fit in the buffer
+     */
+    public static void encode(RentalAgreement agreement, ByteBuffer buffer, int offset) {
+        long toolCode = ToolCodes.pack(agreement.getTool().code());
+        if (toolCode == ToolCodes.NOT_PACKABLE)
+            throw new IllegalArgumentException("Tool code cannot be encoded: " + agreement.getTool().code());
+        if (offset < 0 || offset > buffer.limit() - RECORD_SIZE)
+            throw new IndexOutOfBoundsException("No room for a record at " + offset);
+        ChargePolicy policy = agreement.getChargePolicy();
+        LONG.set(buffer, offset + TOOL_CODE_OFFSET, toolCode);
+        LONG.set(buffer, offset + CATALOG_VERSION_OFFSET, agreement.getCatalogVersion());
+        LONG.set(buffer, offset + DAILY_CHARGE_OFFSET, policy.dailyChargeCents());
+        LONG.set(buffer, offset + PRE_DISCOUNT_CHARGE_OFFSET, agreement.getPreDiscountCharge());
+        LONG.set(buffer, offset + DISCOUNT_AMOUNT_OFFSET, agreement.getDiscountAmount());
+        LONG.set(buffer, offset + FINAL_CHARGE_OFFSET, agreement.getFinalCharge());
+        INT.set(buffer, offset + CHECKOUT_EPOCH_DAY_OFFSET, Math.toIntExact(agreement.getCheckoutDate().toEpochDay()));
+        INT.set(buffer, offset + DUE_EPOCH_DAY_OFFSET, Math.toIntExact(agreement.getDueDate().toEpochDay()));
+        INT.set(buffer, offset + RENTAL_DAYS_OFFSET, agreement.getNumRentalDays());
+        INT.set(buffer, offset + CHARGE_DAYS_OFFSET, agreement.getNumChargeDays());
+        INT.set(buffer, offset + DISCOUNT_PERCENT_OFFSET, agreement.getDiscountPercent());
+        INT.set(buffer, offset + POLICY_FLAGS_OFFSET, (policy.isChargedWeekdays() ? CHARGED_WEEKDAYS : 0)
+                | (policy.isChargedWeekends() ? CHARGED_WEEKENDS : 0)
+                | (policy.isChargedHolidays() ? CHARGED_HOLIDAYS : 0));
+    }
+}
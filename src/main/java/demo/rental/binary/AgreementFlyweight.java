@@ -0,0 +1,131 @@
+package demo.rental.binary;
+
+import demo.rental.RentalAgreement;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.tool.Tool;
+import demo.rental.tool.ToolCodes;
+import demo.rental.tool.ToolLookup;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import static demo.rental.binary.AgreementLayout.*;
+
+/**
+ * An AgreementFlyweight reads an agreement encoded by AgreementEncoder straight out of a ByteBuffer
+ *
+ * One flyweight is moved from record to record with wrap, and the primitive getters read the buffer in place, so
+ * scanning encoded agreements creates no objects. The getters returning objects, like getDueDate, allocate them on
+ * every call. A flyweight is not thread safe, but any number of flyweights can read the same buffer.
+ */
+public final class AgreementFlyweight {
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Points this flyweight at an encoded record
+     *
+     * @param buffer  the buffer holding the record
+     * @param offset  the offset of the record in the buffer
+     * @return this flyweight
+     * @throws IndexOutOfBoundsException if the record does not fit in the buffer
+     */
+    public AgreementFlyweight wrap(ByteBuffer buffer, int offset) {
+        if (offset < 0 || offset > buffer.limit() - RECORD_SIZE)
+            throw new IndexOutOfBoundsException("No record at " + offset);
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * @return the tool code, packed by ToolCodes
+     */
+    public long getPackedToolCode() {
+        return (long) LONG.get(buffer, offset + TOOL_CODE_OFFSET);
+    }
+
+    public String getToolCode() {
+        return ToolCodes.unpack(getPackedToolCode());
+    }
+
+    public long getCatalogVersion() {
+        return (long) LONG.get(buffer, offset + CATALOG_VERSION_OFFSET);
+    }
+
+    public long getDailyChargeCents() {
+        return (long) LONG.get(buffer, offset + DAILY_CHARGE_OFFSET);
+    }
+
+    public boolean isChargedWeekdays() {
+        return ((int) INT.get(buffer, offset + POLICY_FLAGS_OFFSET) & CHARGED_WEEKDAYS) != 0;
+    }
+
+    public boolean isChargedWeekends() {
+        return ((int) INT.get(buffer, offset + POLICY_FLAGS_OFFSET) & CHARGED_WEEKENDS) != 0;
+    }
+
+    public boolean isChargedHolidays() {
+        return ((int) INT.get(buffer, offset + POLICY_FLAGS_OFFSET) & CHARGED_HOLIDAYS) != 0;
+    }
+
+    public ChargePolicy getChargePolicy() {
+        return new ChargePolicy(getDailyChargeCents(), isChargedWeekdays(), isChargedWeekends(), isChargedHolidays());
+    }
+
+    public int getNumRentalDays() {
+        return (int) INT.get(buffer, offset + RENTAL_DAYS_OFFSET);
+    }
+
+    public int getNumChargeDays() {
+        return (int) INT.get(buffer, offset + CHARGE_DAYS_OFFSET);
+    }
+
+    public long getPreDiscountCharge() {
+        return (long) LONG.get(buffer, offset + PRE_DISCOUNT_CHARGE_OFFSET);
+    }
+
+    public int getDiscountPercent() {
+        return (int) INT.get(buffer, offset + DISCOUNT_PERCENT_OFFSET);
+    }
+
+    public long getDiscountAmount() {
+        return (long) LONG.get(buffer, offset + DISCOUNT_AMOUNT_OFFSET);
+    }
+
+    public long getFinalCharge() {
+        return (long) LONG.get(buffer, offset + FINAL_CHARGE_OFFSET);
+    }
+
+    public int getCheckoutEpochDay() {
+        return (int) INT.get(buffer, offset + CHECKOUT_EPOCH_DAY_OFFSET);
+    }
+
+    public int getDueEpochDay() {
+        return (int) INT.get(buffer, offset + DUE_EPOCH_DAY_OFFSET);
+    }
+
+    public LocalDate getCheckoutDate() {
+        return LocalDate.ofEpochDay(getCheckoutEpochDay());
+    }
+
+    public LocalDate getDueDate() {
+        return LocalDate.ofEpochDay(getDueEpochDay());
+    }
+
+    /**
+     * Materializes the record as a RentalAgreement, looking its tool up by code
+     *
+     * @param toolLookup  the ToolLookup of the catalog the record was priced with
+     * @return a new RentalAgreement with the record's fields
+     * @throws IllegalStateException if the tool code is not in the lookup
+     */
+    public RentalAgreement toRentalAgreement(ToolLookup toolLookup) {
+        String toolCode = getToolCode();
+        Tool tool = toolLookup.getToolFromCode(toolCode);
+        if (tool == null) throw new IllegalStateException("Tool code not found: " + toolCode);
+        return new RentalAgreement(tool, getChargePolicy(), getNumRentalDays(), getNumChargeDays(),
+                getPreDiscountCharge(), getDiscountPercent(), getDiscountAmount(), getFinalCharge(),
+                getCheckoutDate(), getDueDate(), getCatalogVersion());
+    }
+}
@@ -0,0 +1,51 @@
+package demo.rental.binary;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * The fixed-width binary layout of an encoded RentalAgreement, shared by AgreementEncoder and AgreementFlyweight
+ *
+ * Every record is 72 bytes, little-endian whatever the order of the buffer holding it, so records can be written and
+ * read on any platform:
+ *   0  long  tool code, packed by ToolCodes
+ *   8  long  catalog version
+ *   16 long  daily charge in cents
+ *   24 long  pre-discount charge in cents
+ *   32 long  discount amount in cents
+ *   40 long  final charge in cents
+ *   48 int   checkout epoch day    52 int due epoch day
+ *   56 int   rental days           60 int charge days
+ *   64 int   discount percent      68 int charge policy flags (1 weekdays, 2 weekends, 4 holidays)
+ *
+ * Tool type and brand are not stored, since the tool code identifies them in the catalog the record was priced with.
+ */
+final class AgreementLayout {
+    static final int RECORD_SIZE = 72;
+
+    static final int TOOL_CODE_OFFSET = 0;
+    static final int CATALOG_VERSION_OFFSET = 8;
+    static final int DAILY_CHARGE_OFFSET = 16;
+    static final int PRE_DISCOUNT_CHARGE_OFFSET = 24;
+    static final int DISCOUNT_AMOUNT_OFFSET = 32;
+    static final int FINAL_CHARGE_OFFSET = 40;
+    static final int CHECKOUT_EPOCH_DAY_OFFSET = 48;
+    static final int DUE_EPOCH_DAY_OFFSET = 52;
+    static final int RENTAL_DAYS_OFFSET = 56;
+    static final int CHARGE_DAYS_OFFSET = 60;
+    static final int DISCOUNT_PERCENT_OFFSET = 64;
+    static final int POLICY_FLAGS_OFFSET = 68;
+
+    static final int CHARGED_WEEKDAYS = 1;
+    static final int CHARGED_WEEKENDS = 2;
+    static final int CHARGED_HOLIDAYS = 4;
+
+    /**
+     * Little-endian views of a ByteBuffer, indexed by absolute byte offset, which ignore the buffer's own order
+     */
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private AgreementLayout() {}
+}
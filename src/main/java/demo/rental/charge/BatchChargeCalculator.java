@@ -0,0 +1,60 @@
+package demo.rental.charge;
+
+/**
+ * Calculates the charges of many rentals at once, from columns of inputs into columns of outputs
+ *
+ * The arrays are read and written in one straight pass with integer arithmetic, so invoicing runs can re-price
+ * millions of rows without creating a RentalAgreement or converting each charge to a double.
+ */
+public final class BatchChargeCalculator {
+    private BatchChargeCalculator() {}
+
+    /**
+     * Calculates the pre-discount charge, discount amount and final charge of every row
+     * Row i of each output array gets exactly what ChargeCalculator calculates for row i of the inputs
+     *
+     * @param dailyChargeCents  the number of cents charged per day, for each row
+     * @param chargeDays  the number of days charged, for each row
+     * @param discountPercent  the percent as a whole number between 0 and 100 of discount to apply, for each row
+     * @param preDiscountCharges  receives the number of cents charged before the discount, for each row
+     * @param discountAmounts  receives the number of cents deducted by the discount, for each row
+     * @param finalCharges  receives the number of cents charged after the discount, for each row
+     * @throws IllegalArgumentException if the arrays are not all the same length
+     */
+    public static void calcCharges(long[] dailyChargeCents, int[] chargeDays, int[] discountPercent,
+                                   long[] preDiscountCharges, long[] discountAmounts, long[] finalCharges) {
+        int rows = dailyChargeCents.length;
+        if (chargeDays.length != rows || discountPercent.length != rows || preDiscountCharges.length != rows
+                || discountAmounts.length != rows || finalCharges.length != rows) {
+            throw new IllegalArgumentException("All columns must have " + rows + " rows");
+        }
+        for (int i = 0; i < rows; i++) {
+            long preDiscountCharge = dailyChargeCents[i] * chargeDays[i];
+            long discountAmount = calcDiscountAmount(preDiscountCharge, discountPercent[i]);
+            preDiscountCharges[i] = preDiscountCharge;
+            discountAmounts[i] = discountAmount;
+            finalCharges[i] = preDiscountCharge - discountAmount;
+        }
+    }
+
+    /**
+     * Calculates a discount with integer arithmetic, giving exactly the result of ChargeCalculator.calcDiscountAmount
+     *
+     * The exact discount is a whole number of hundredths of a cent, so apart from exact halves it is at least a
+     * hundredth of a cent away from a rounding boundary, far beyond any error in the double calculation. Those rows
+     * round half up in integers. At exact halves the double product can land either side of the boundary (ex. 25
+     * cents at 58% is 14.5, but 25 * 0.58 is 14.499999999999998), so those rows, and negative charges, are
+     * delegated to ChargeCalculator to stay bit-exact with it.
+     *
+     * @param preDiscountCharge  the number of cents that will be charged before a discount is applied
+     * @param discountPercent  the percent as a whole number between 0 and 100 of discount to apply
+     * @return the number of cents that will be deducted from the preDiscountCharge due to the discount
+     */
+    public static long calcDiscountAmount(long preDiscountCharge, int discountPercent) {
+        long hundredthsOfCents = preDiscountCharge * discountPercent;
+        if (hundredthsOfCents < 0 || hundredthsOfCents % 100 == 50) {
+            return ChargeCalculator.calcDiscountAmount(preDiscountCharge, discountPercent);
+        }
+        return (hundredthsOfCents + 50) / 100;
+    }
+}
@@ -2,6 +2,7 @@ package demo.rental.charge;
 
 import demo.rental.dates.DayCounter;
 import demo.rental.dates.Holiday;
+import demo.rental.dates.HolidayIndex;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -21,6 +22,17 @@ public class ChargeCalculator {
         return checkoutDate.plusDays(numRentalDays);
     }
 
+    /**
+     * Calculates the due date for a rental as an epoch day
+     *
+     * @param checkoutEpochDay  the checkout date for the rental as an epoch day
+     * @param numRentalDays  the number of consecutive days the tool will be rented
+     * @return the epoch day of the rental's due date
+     */
+    public static int calcDueDate(int checkoutEpochDay, int numRentalDays) {
+        return checkoutEpochDay + numRentalDays;
+    }
+
     /**
      * Calculates the number of days that will be charged for a rental
      *
@@ -41,6 +53,97 @@ public class ChargeCalculator {
         return numChargedDays;
     }
 
+    /**
+     * Calculates the number of days that will be charged for a rental, counting holidays with a precompiled index
+     *
+     * @param checkoutDate  the checkout date for the rental
+     * @param dueDate  the due date for the rental
+     * @param chargePolicy  the ChargePolicy for the tool being rented
+     * @param holidayIndex  HolidayIndex of holidays which may affect charged days
+     * @return the number of days after checkoutDate up to dueDate, for which the rental will be charged
+     */
+    public static int calcChargeDays(LocalDate checkoutDate, LocalDate dueDate, ChargePolicy chargePolicy,
+                                     HolidayIndex holidayIndex) {
+        return calcChargeDays(DayCounter.toEpochDay(checkoutDate), DayCounter.toEpochDay(dueDate), chargePolicy,
+                holidayIndex);
+    }
+
+    /**
+     * Calculates the number of days that will be charged for a rental, with both dates given as epoch days
+     * Does not allocate, so it is suitable for tight pricing loops
+     *
+     * @param checkoutEpochDay  the checkout date for the rental as an epoch day
+     * @param dueEpochDay  the due date for the rental as an epoch day
+     * @param chargePolicy  the ChargePolicy for the tool being rented
+     * @param holidayIndex  HolidayIndex of holidays which may affect charged days
+     * @return the number of days after checkoutEpochDay up to dueEpochDay, for which the rental will be charged
+     */
+    public static int calcChargeDays(int checkoutEpochDay, int dueEpochDay, ChargePolicy chargePolicy,
+                                     HolidayIndex holidayIndex) {
+        int numChargedDays = 0;
+        if (chargePolicy.isChargedWeekdays()) {
+            numChargedDays += DayCounter.countWeekdaysBetween(checkoutEpochDay, dueEpochDay);
+            if (!chargePolicy.isChargedHolidays()) {
+                numChargedDays -= DayCounter.countWeekdayHolidaysBetween(checkoutEpochDay, dueEpochDay, holidayIndex);
+            }
+        }
+        if (chargePolicy.isChargedWeekends()) {
+            numChargedDays += DayCounter.countWeekendDaysBetween(checkoutEpochDay, dueEpochDay);
+            if (!chargePolicy.isChargedHolidays()) {
+                numChargedDays -= DayCounter.countWeekendHolidaysBetween(checkoutEpochDay, dueEpochDay, holidayIndex);
+            }
+        }
+        return numChargedDays;
+    }
+
+    /**
+     * Calculates the number of days that will be charged for a rental from a precomputed ChargeDayTable
+     * Inside the table's horizon this is two array reads, outside it falls back to counting
+     *
+     * @param checkoutEpochDay  the checkout date for the rental as an epoch day
+     * @param dueEpochDay  the due date for the rental as an epoch day
+     * @param chargePolicy  the ChargePolicy for the tool being rented
+     * @param chargeDayTable  ChargeDayTable built from the holidays which may affect charged days
+     * @return the number of days after checkoutEpochDay up to dueEpochDay, for which the rental will be charged
+     */
+    public static int calcChargeDays(int checkoutEpochDay, int dueEpochDay, ChargePolicy chargePolicy,
+                                     ChargeDayTable chargeDayTable) {
+        return chargeDayTable.calcChargeDays(checkoutEpochDay, dueEpochDay, chargePolicy);
+    }
+
+    /**
+     * Calculates the final charge for every rental length from 1 to maxRentalDays days, for quoting a price curve
+     * Walks forward from the checkout date one day at a time with a running count of charged days, so the whole curve
+     * costs about as much as a single long rental instead of maxRentalDays separate checkouts
+     *
+     * @param chargePolicy  the ChargePolicy for the tool being rented
+     * @param checkoutDate  the checkout date for the rentals
+     * @param discountPercent  the percent as a whole number between 0 and 100 of discount to apply
+     * @param maxRentalDays  the longest rental to price, must not be negative
+     * @param holidayIndex  HolidayIndex of holidays which may affect charged days
+     * @return an array where element i holds the final charge in cents for a rental of i + 1 days
+     */
+    public static long[] calcPriceCurve(ChargePolicy chargePolicy, LocalDate checkoutDate, int discountPercent,
+                                        int maxRentalDays, HolidayIndex holidayIndex) {
+        if (maxRentalDays < 0) throw new IllegalArgumentException("Negative number of rental days: " + maxRentalDays);
+        long[] finalCharges = new long[maxRentalDays];
+        int checkoutEpochDay = DayCounter.toEpochDay(checkoutDate);
+        int numChargeDays = 0;
+        for (int days = 1; days <= maxRentalDays; days++) {
+            if (isChargedDay(checkoutEpochDay + days, chargePolicy, holidayIndex)) numChargeDays++;
+            long preDiscountCharge = calcPreDiscountCharge(chargePolicy.dailyChargeCents(), numChargeDays);
+            finalCharges[days - 1] = calcFinalCharge(preDiscountCharge,
+                    calcDiscountAmount(preDiscountCharge, discountPercent));
+        }
+        return finalCharges;
+    }
+
+    private static boolean isChargedDay(int epochDay, ChargePolicy chargePolicy, HolidayIndex holidayIndex) {
+        boolean charged = DayCounter.isWeekend(epochDay) ? chargePolicy.isChargedWeekends()
+                : chargePolicy.isChargedWeekdays();
+        return charged && (chargePolicy.isChargedHolidays() || !holidayIndex.isHoliday(epochDay));
+    }
+
     /**
      * Calculates the number of weekend days that will be charged for a rental
      * Assumes that weekends will be charged, regardless of charge policy
@@ -0,0 +1,110 @@
+package demo.rental.charge;
+
+import demo.rental.dates.DayCounter;
+import demo.rental.dates.HolidayIndex;
+
+import java.time.LocalDate;
+
+/**
+ * A ChargeDayTable holds precomputed running counts of charged days, so the charge days of any rental inside its
+ * horizon are the difference of two array reads.
+ *
+ * A ChargePolicy only decides which days are charged through its three flags, so there are just eight ways of
+ * charging. For each of them the table stores, for every epoch day in the horizon, how many days from the start of
+ * the horizon up to and including that day are charged. Rentals reaching outside the horizon fall back to counting
+ * with ChargeCalculator.
+ */
+public final class ChargeDayTable {
+    private static final int NUM_COMBINATIONS = 8;
+
+    private final HolidayIndex holidayIndex;
+    private final int firstYear;
+    private final int lastYear;
+    // the day before the first day of the horizon, whose running count is always 0
+    private final int baseEpochDay;
+    private final int lastEpochDay;
+    private final int[][] chargedDaysUpTo;
+
+    /**
+     * Constructs a ChargeDayTable covering the given years
+     * Each year adds 8 * 4 bytes per day, about 11.5KB
+     *
+     * @param holidayIndex  HolidayIndex of holidays which may affect charged days
+     * @param firstYear  the first year of the horizon
+     * @param lastYear  the last year of the horizon, must not be before firstYear
+     */
+    public ChargeDayTable(HolidayIndex holidayIndex, int firstYear, int lastYear) {
+        if (lastYear < firstYear)
+            throw new IllegalArgumentException("last year " + lastYear + " is before first year " + firstYear);
+        this.holidayIndex = holidayIndex;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.baseEpochDay = DayCounter.toEpochDay(LocalDate.of(firstYear, 1, 1)) - 1;
+        this.lastEpochDay = DayCounter.toEpochDay(LocalDate.of(lastYear, 12, 31));
+
+        int numDays = lastEpochDay - baseEpochDay;
+        chargedDaysUpTo = new int[NUM_COMBINATIONS][numDays + 1];
+        for (int day = 1; day <= numDays; day++) {
+            int epochDay = baseEpochDay + day;
+            // the day kind is the flag a policy needs for the day to be charged, weekdays 1 and weekends 2
+            int dayKind = DayCounter.isWeekend(epochDay) ? 2 : 1;
+            boolean holiday = holidayIndex.isHoliday(epochDay);
+            for (int combination = 0; combination < NUM_COMBINATIONS; combination++) {
+                boolean charged = (combination & dayKind) != 0 && (!holiday || (combination & 4) != 0);
+                chargedDaysUpTo[combination][day] = chargedDaysUpTo[combination][day - 1] + (charged ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of a ChargePolicy's flag combination, as used by the table
+     *
+     * @param chargePolicy  the ChargePolicy
+     * @return 1 if weekdays are charged, plus 2 if weekends are charged, plus 4 if holidays are charged
+     */
+    public static int combination(ChargePolicy chargePolicy) {
+        return (chargePolicy.isChargedWeekdays() ? 1 : 0)
+                | (chargePolicy.isChargedWeekends() ? 2 : 0)
+                | (chargePolicy.isChargedHolidays() ? 4 : 0);
+    }
+
+    /**
+     * Checks whether a rental can be answered from the table
+     *
+     * @param checkoutEpochDay  the checkout date for the rental as an epoch day
+     * @param dueEpochDay  the due date for the rental as an epoch day
+     * @return true if both days are within the horizon
+     */
+    public boolean covers(int checkoutEpochDay, int dueEpochDay) {
+        return checkoutEpochDay >= baseEpochDay && dueEpochDay <= lastEpochDay;
+    }
+
+    /**
+     * Calculates the number of days that will be charged for a rental
+     *
+     * @param checkoutEpochDay  the checkout date for the rental as an epoch day
+     * @param dueEpochDay  the due date for the rental as an epoch day
+     * @param chargePolicy  the ChargePolicy for the tool being rented
+     * @return the number of days after checkoutEpochDay up to dueEpochDay, for which the rental will be charged
+     */
+    public int calcChargeDays(int checkoutEpochDay, int dueEpochDay, ChargePolicy chargePolicy) {
+        if (checkoutEpochDay >= dueEpochDay) return 0;
+        if (!covers(checkoutEpochDay, dueEpochDay)) {
+            return ChargeCalculator.calcChargeDays(checkoutEpochDay, dueEpochDay, chargePolicy, holidayIndex);
+        }
+        int[] table = chargedDaysUpTo[combination(chargePolicy)];
+        return table[dueEpochDay - baseEpochDay] - table[checkoutEpochDay - baseEpochDay];
+    }
+
+    public HolidayIndex getHolidayIndex() {
+        return holidayIndex;
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+}
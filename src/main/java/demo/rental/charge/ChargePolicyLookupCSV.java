@@ -1,16 +1,17 @@
 package demo.rental.charge;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import demo.rental.csv.MappedCSVReader;
+
+import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Scanner;
 
 /**
  * Am implementation of ChargePolicyLookup which generates ChargePolicies from a given .csv file
  */
 public class ChargePolicyLookupCSV implements ChargePolicyLookup {
-    private final Map<String, ChargePolicy> policies = new HashMap<>();
+    private final Map<String, ChargePolicy> policies;
 
     /**
      * Constructs a ChargePolicyLookupCSV objects and loads ChargePolicy data from the given .csv file
@@ -18,27 +19,54 @@ public class ChargePolicyLookupCSV implements ChargePolicyLookup {
      * @param filePath  the path to a .csv file containing ChargePolicy data
      */
     public ChargePolicyLookupCSV(String filePath) {
-        loadPoliciesFromCSV(filePath);
+        this(loadPoliciesFromCSV(filePath));
+    }
+
+    private ChargePolicyLookupCSV(Map<String, ChargePolicy> policies) {
+        this.policies = Collections.unmodifiableMap(policies);
     }
 
-    private void loadPoliciesFromCSV(String filePath) {
+    /**
+     * Loads a ChargePolicyLookupCSV from the given .csv file, failing instead of returning whatever could be read
+     *
+     * @param filePath  the path to a .csv file containing ChargePolicy data
+     * @return a new ChargePolicyLookupCSV containing every ChargePolicy in the file
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if a daily charge is not a number
+     * @throws IndexOutOfBoundsException if a line has fewer than 5 fields
+     */
+    public static ChargePolicyLookupCSV load(String filePath) throws IOException {
+        return new ChargePolicyLookupCSV(readPoliciesFromCSV(filePath));
+    }
+
+    /**
+     * @return the number of tool types with a ChargePolicy
+     */
+    public int size() {
+        return policies.size();
+    }
+
+    private static Map<String, ChargePolicy> loadPoliciesFromCSV(String filePath) {
         try {
-            Scanner scan = new Scanner(new File(filePath));
-            while(scan.hasNextLine()) {
-                String line = scan.nextLine();
-                // Expect lines to be of the form "ToolType,dailyChargeCents,[yes/no],[yes/no],[yes/no]"
-                String[] lineSplit = line.split(",", 5);
-                ChargePolicy policy = new ChargePolicy(Long.parseLong(lineSplit[1]), isYes(lineSplit[2]),
-                        isYes(lineSplit[3]), isYes(lineSplit[4]));
-                policies.put(lineSplit[0], policy);
-            }
-        } catch (FileNotFoundException fileNotFoundException) {
-            System.err.println(fileNotFoundException.getMessage());
+            return readPoliciesFromCSV(filePath);
+        } catch (IOException ioException) {
+            System.err.println(ioException.getMessage());
+            return new HashMap<>();
         }
     }
 
-    private static boolean isYes(String s) {
-        return s.equalsIgnoreCase("yes");
+    private static Map<String, ChargePolicy> readPoliciesFromCSV(String filePath) throws IOException {
+        Map<String, ChargePolicy> policies = new HashMap<>();
+        // Expect lines to be of the form "ToolType,dailyChargeCents,[yes/no],[yes/no],[yes/no]"
+        MappedCSVReader.read(filePath, 5, row -> {
+            ChargePolicy policy = new ChargePolicy(row.getLong(1), isYes(row, 2), isYes(row, 3), isYes(row, 4));
+            policies.put(row.getString(0), policy);
+        });
+        return policies;
+    }
+
+    private static boolean isYes(MappedCSVReader.Row row, int field) {
+        return row.fieldEqualsIgnoreCase(field, "yes");
     }
 
     /**
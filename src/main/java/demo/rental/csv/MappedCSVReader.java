@@ -0,0 +1,254 @@
+package demo.rental.csv;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedCSVReader reads simple comma separated files by memory mapping them and scanning the bytes for delimiters.
+ *
+ * Unlike Scanner and String.split, no line Strings or String arrays are created. Each row is handed to a RowHandler
+ * as a set of field offsets into the mapped file, and a field only becomes a String if the handler asks for one.
+ * Numbers and yes/no flags can be read straight from the bytes.
+ *
+ * Fields are not quoted or escaped. Lines may end in "\n" or "\r\n", and blank lines are skipped.
+ */
+public final class MappedCSVReader {
+    // files are mapped in windows of at most this many bytes, since a single mapping is limited to 2GB
+    private static final int MAX_WINDOW_SIZE = 1 << 30;
+    private static final byte COMMA = ',';
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    /**
+     * Receives the rows of a .csv file, one at a time
+     */
+    public interface RowHandler {
+        /**
+         * Handles a single row. The Row is only valid until this method returns, and must not be kept
+         *
+         * @param row  the current row of the file
+         */
+        void handleRow(Row row);
+    }
+
+    private MappedCSVReader() {}
+
+    /**
+     * Reads every row of a .csv file
+     * Like String.split with a limit, a row is split into at most maxFields fields, and any commas after that are
+     * part of the last field
+     *
+     * @param filePath  the path to the .csv file
+     * @param maxFields  the most fields a row is split into, must be at least 1
+     * @param handler  called once for every non-blank row, in file order
+     * @throws IOException if the file cannot be opened or mapped, or is truncated while it is being read
+     */
+    public static void read(String filePath, int maxFields, RowHandler handler) throws IOException {
+        if (maxFields < 1) throw new IllegalArgumentException("max fields less than one: " + maxFields);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long windowStart = 0;
+            Row row = new Row(maxFields);
+            while (windowStart < fileSize) {
+                int windowSize = (int) Math.min(MAX_WINDOW_SIZE, fileSize - windowStart);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+                boolean isLastWindow = windowStart + windowSize == fileSize;
+                int consumed;
+                try {
+                    consumed = readRows(window, isLastWindow, row, handler);
+                } catch (InternalError fault) {
+                    // reading a mapping past the end of a file truncated after it was mapped faults like this, and
+                    // the file may have grown back by now, so its size cannot tell
+                    throw new IOException("File truncated while being read: " + filePath, fault);
+                }
+                if (consumed == 0) throw new IOException("Line longer than " + MAX_WINDOW_SIZE + " bytes in " + filePath);
+                windowStart += consumed;
+            }
+        }
+    }
+
+    /**
+     * Reads all complete rows in a window of the file
+     *
+     * @return the number of bytes consumed, which stops short of a trailing partial line unless this is the last window
+     */
+    private static int readRows(MappedByteBuffer window, boolean isLastWindow, Row row, RowHandler handler) {
+        int limit = window.limit();
+        int lineStart = 0;
+        row.reset(window, lineStart);
+        for (int position = 0; position < limit; position++) {
+            byte b = window.get(position);
+            if (b == NEW_LINE) {
+                row.endLine(position);
+                if (!row.isBlank()) handler.handleRow(row);
+                lineStart = position + 1;
+                row.reset(window, lineStart);
+            } else if (b == COMMA) {
+                row.endField(position);
+            }
+        }
+        if (lineStart < limit && isLastWindow) {
+            row.endLine(limit);
+            if (!row.isBlank()) handler.handleRow(row);
+            lineStart = limit;
+        }
+        return lineStart;
+    }
+
+    /**
+     * A single row of a .csv file, giving access to its fields without copying them out of the file
+     */
+    public static final class Row {
+        private final int maxFields;
+        private final int[] fieldStarts;
+        private final int[] fieldEnds;
+        private MappedByteBuffer buffer;
+        private int numFields;
+        private byte[] scratch = new byte[64];
+
+        private Row(int maxFields) {
+            this.maxFields = maxFields;
+            this.fieldStarts = new int[maxFields];
+            this.fieldEnds = new int[maxFields];
+        }
+
+        private void reset(MappedByteBuffer buffer, int lineStart) {
+            this.buffer = buffer;
+            this.numFields = 1;
+            fieldStarts[0] = lineStart;
+        }
+
+        private void endField(int commaPosition) {
+            if (numFields == maxFields) return;
+            fieldEnds[numFields - 1] = commaPosition;
+            fieldStarts[numFields++] = commaPosition + 1;
+        }
+
+        private void endLine(int lineEnd) {
+            if (lineEnd > fieldStarts[numFields - 1] && buffer.get(lineEnd - 1) == CARRIAGE_RETURN) {
+                lineEnd--;
+            }
+            fieldEnds[numFields - 1] = lineEnd;
+        }
+
+        private boolean isBlank() {
+            return numFields == 1 && fieldEnds[0] == fieldStarts[0];
+        }
+
+        /**
+         * @return the number of fields in this row
+         */
+        public int numFields() {
+            return numFields;
+        }
+
+        private void checkField(int field) {
+            if (field < 0 || field >= numFields)
+                throw new IndexOutOfBoundsException("field " + field + " out of bounds for " + numFields + " fields");
+        }
+
+        /**
+         * Copies a field out of the file into a new String
+         *
+         * @param field  the index of the field, starting from 0
+         * @return the field decoded as UTF-8
+         */
+        public String getString(int field) {
+            checkField(field);
+            int length = fieldEnds[field] - fieldStarts[field];
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(fieldStarts[field], scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Parses a field as a decimal long, without creating a String
+         *
+         * @param field  the index of the field, starting from 0
+         * @return the value of the field
+         * @throws NumberFormatException if the field is not a decimal number which fits in a long
+         */
+        public long getLong(int field) {
+            checkField(field);
+            int position = fieldStarts[field];
+            int end = fieldEnds[field];
+            boolean isNegative = false;
+            if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                isNegative = buffer.get(position) == '-';
+                position++;
+            }
+            if (position == end) throw new NumberFormatException("Not a number: \"" + getString(field) + "\"");
+            // accumulate negatively so that Long.MIN_VALUE can be parsed
+            long value = 0;
+            for (; position < end; position++) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10)
+                    throw new NumberFormatException("Not a long: \"" + getString(field) + "\"");
+                value = value * 10 - digit;
+            }
+            if (isNegative) return value;
+            if (value == Long.MIN_VALUE) throw new NumberFormatException("Not a long: \"" + getString(field) + "\"");
+            return -value;
+        }
+
+        /**
+         * Parses a field as a decimal int, without creating a String
+         *
+         * @param field  the index of the field, starting from 0
+         * @return the value of the field
+         * @throws NumberFormatException if the field is not a decimal number which fits in an int
+         */
+        public int getInt(int field) {
+            long value = getLong(field);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+                throw new NumberFormatException("Not an int: \"" + getString(field) + "\"");
+            return (int) value;
+        }
+
+        /**
+         * Compares a field to an ASCII string, without creating a String
+         *
+         * @param field  the index of the field, starting from 0
+         * @param value  the ASCII text to compare with
+         * @return true if the field contains exactly the given text
+         */
+        public boolean fieldEquals(int field, String value) {
+            return compareField(field, value, false);
+        }
+
+        /**
+         * Compares a field to an ASCII string ignoring case, without creating a String
+         *
+         * @param field  the index of the field, starting from 0
+         * @param value  the ASCII text to compare with
+         * @return true if the field contains the given text, ignoring case
+         */
+        public boolean fieldEqualsIgnoreCase(int field, String value) {
+            return compareField(field, value, true);
+        }
+
+        private boolean compareField(int field, String value, boolean ignoreCase) {
+            checkField(field);
+            int start = fieldStarts[field];
+            if (fieldEnds[field] - start != value.length()) return false;
+            for (int i = 0; i < value.length(); i++) {
+                int actual = buffer.get(start + i);
+                int expected = value.charAt(i);
+                if (ignoreCase) {
+                    actual = toLowerAscii(actual);
+                    expected = toLowerAscii(expected);
+                }
+                if (actual != expected) return false;
+            }
+            return true;
+        }
+
+        private static int toLowerAscii(int c) {
+            return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+        }
+    }
+}
@@ -24,18 +24,39 @@ public class ClosestWeekdayHoliday implements Holiday {
     /**
      * Gets the date this holiday will be observed in the given year
      * If the date would be a weekend, it is instead observed on the closest weekday
+     * Dates are resolved once and then shared through the HolidayDateCache
      *
      * @param year the year for which the holiday date is being requested
      * @return a LocalDate with the date this holiday would be observed in the give year
      */
     @Override
     public LocalDate getDateForYear(int year) {
-        LocalDate date = fixedHoliday.getDateForYear(year);
+        LocalDate date = HolidayDateCache.get(this, year);
+        if (date != null) return date;
+        date = fixedHoliday.getDateForYear(year);
         if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
             date = date.minusDays(1);
         } else if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
             date = date.plusDays(1);
         }
-        return date;
+        return HolidayDateCache.put(this, year, date);
+    }
+
+    public int getMonth() {
+        return fixedHoliday.month();
+    }
+
+    public int getDayOfMonth() {
+        return fixedHoliday.dayOfMonth();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ClosestWeekdayHoliday holiday && fixedHoliday.equals(holiday.fixedHoliday);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * fixedHoliday.hashCode() + 1;
     }
 }
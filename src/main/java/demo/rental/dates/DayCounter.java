@@ -2,7 +2,6 @@ package demo.rental.dates;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -16,6 +15,9 @@ public class DayCounter {
         boolean filter(LocalDate date);
     }
 
+    // 1970-01-05, the first Monday on or after the epoch
+    private static final int FIRST_MONDAY_EPOCH_DAY = 4;
+
     /**
      * Gets the number of weekdays between two dates, not including the start day
      *
@@ -24,33 +26,31 @@ public class DayCounter {
      * @return the number of weekdays from the day after start up to and including end, 0 if start is not before end
      */
     public static int countWeekdaysBetween(LocalDate start, LocalDate end) {
-        if (start.isAfter(end)) return 0;
-        int weekDaysBetween = 0;
-        LocalDate adjustedStart = start;
-
-        // walk the start day forward until it's on a Sunday, or it reaches end day, counting days as we go
-        while(adjustedStart.isBefore(end) && adjustedStart.getDayOfWeek() != DayOfWeek.SUNDAY) {
-            adjustedStart = adjustedStart.plusDays(1);
-            if (isWeekday(adjustedStart.getDayOfWeek())) {
-                weekDaysBetween++;
-            }
-        }
-        // walk end day backward until it's on a Sunday, or it reaches the adjusted start day, counting days as we go
-        LocalDate adjustedEnd = end;
-        while (adjustedEnd.isAfter(adjustedStart) && adjustedEnd.getDayOfWeek() != DayOfWeek.SUNDAY) {
-            if (isWeekday(adjustedEnd.getDayOfWeek())) {
-                weekDaysBetween++;
-            }
-            adjustedEnd = adjustedEnd.minusDays(1);
-        }
+        return countWeekdaysBetween(toEpochDay(start), toEpochDay(end));
+    }
+
+    /**
+     * Gets the number of weekdays between two epoch days, not including the start day
+     *
+     * @param startEpochDay  The epoch day after which we start counting
+     * @param endEpochDay  The epoch day on which we stop counting
+     * @return the number of weekdays from the day after start up to and including end, 0 if start is not before end
+     */
+    public static int countWeekdaysBetween(int startEpochDay, int endEpochDay) {
+        if (startEpochDay > endEpochDay) return 0;
+        return countWeekdaysUpTo(endEpochDay) - countWeekdaysUpTo(startEpochDay);
+    }
 
-        /*
-           Now, either adjustedStart and adjustedEnd are on the same day OR both of them are on Sundays. So we
-           know that the number of days between adjustedStart and adjustedEnd is a multiple of 7, and for every 7
-           days between, 5 are weekdays and 2 are weekends. So add ((daysBetween / 7) * 5) weekdays;
-         */
-        int daysBetween = getDaysBetween(adjustedStart, adjustedEnd);
-        return weekDaysBetween + ((daysBetween / 7) * 5);
+    /**
+     * Counts weekdays from an arbitrary fixed Monday up to and including the given day, so that the number of weekdays
+     * between two days is the difference of their counts. Every full week contributes 5 weekdays, and the days into a
+     * partial week contribute one each, up to 5 (Saturday and Sunday add nothing)
+     */
+    private static int countWeekdaysUpTo(int epochDay) {
+        int daysSinceMonday = epochDay - FIRST_MONDAY_EPOCH_DAY;
+        int weeks = Math.floorDiv(daysSinceMonday, 7);
+        int daysIntoWeek = Math.floorMod(daysSinceMonday, 7);
+        return weeks * 5 + Math.min(daysIntoWeek + 1, 5);
     }
 
     /**
@@ -61,13 +61,40 @@ public class DayCounter {
      * @return the number of weekend days from the day after start up to and including end, 0 if start is not before end
      */
     public static int countWeekendDaysBetween(LocalDate start, LocalDate end) {
-        if (start.isAfter(end)) return 0;
-        int daysBetween = getDaysBetween(start, end);
-        return daysBetween - countWeekdaysBetween(start, end);
+        return countWeekendDaysBetween(toEpochDay(start), toEpochDay(end));
     }
 
-    private static int getDaysBetween(LocalDate start, LocalDate end) {
-        return (int) ChronoUnit.DAYS.between(start, end);
+    /**
+     * Gets the number of weekend days between two epoch days, not including the start day
+     *
+     * @param startEpochDay  The epoch day after which we start counting
+     * @param endEpochDay  The epoch day on which we stop counting
+     * @return the number of weekend days from the day after start up to and including end, 0 if start is not before end
+     */
+    public static int countWeekendDaysBetween(int startEpochDay, int endEpochDay) {
+        if (startEpochDay > endEpochDay) return 0;
+        return (endEpochDay - startEpochDay) - countWeekdaysBetween(startEpochDay, endEpochDay);
+    }
+
+    /**
+     * Checks whether an epoch day falls on a Saturday or Sunday
+     *
+     * @param epochDay  the epoch day to check
+     * @return true if the epoch day is a weekend day
+     */
+    public static boolean isWeekend(int epochDay) {
+        return Math.floorMod(epochDay - FIRST_MONDAY_EPOCH_DAY, 7) >= 5;
+    }
+
+    /**
+     * Converts a date to an epoch day
+     *
+     * @param date  the date to convert
+     * @return the number of days since 1970-01-01
+     * @throws ArithmeticException if the date is too far from the epoch to fit in an int
+     */
+    public static int toEpochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
     }
 
     /**
@@ -94,6 +121,54 @@ public class DayCounter {
         return countFilteredHolidaysBetween(start, end, holidays, date -> isWeekday(date.getDayOfWeek()));
     }
 
+    /**
+     * Gets the number of weekend holidays between two dates, not including the start day, using a precompiled index
+     *
+     * @param start  The date after which we start counting
+     * @param end  The date on which we stop counting
+     * @param holidayIndex  A HolidayIndex containing the holidays to count
+     * @return the number of weekend holidays from the day after start up to and including end
+     */
+    public static int countWeekendHolidaysBetween(LocalDate start, LocalDate end, HolidayIndex holidayIndex) {
+        return holidayIndex.countWeekendHolidaysBetween(start, end);
+    }
+
+    /**
+     * Gets the number of weekday holidays between two dates, not including the start day, using a precompiled index
+     *
+     * @param start  The date after which we start counting
+     * @param end  The date on which we stop counting
+     * @param holidayIndex  A HolidayIndex containing the holidays to count
+     * @return the number of weekday holidays from the day after start up to and including end
+     */
+    public static int countWeekdayHolidaysBetween(LocalDate start, LocalDate end, HolidayIndex holidayIndex) {
+        return holidayIndex.countWeekdayHolidaysBetween(start, end);
+    }
+
+    /**
+     * Gets the number of weekend holidays between two epoch days, not including the start day
+     *
+     * @param startEpochDay  The epoch day after which we start counting
+     * @param endEpochDay  The epoch day on which we stop counting
+     * @param holidayIndex  A HolidayIndex containing the holidays to count
+     * @return the number of weekend holidays from the day after start up to and including end
+     */
+    public static int countWeekendHolidaysBetween(int startEpochDay, int endEpochDay, HolidayIndex holidayIndex) {
+        return holidayIndex.countWeekendHolidaysBetween(startEpochDay, endEpochDay);
+    }
+
+    /**
+     * Gets the number of weekday holidays between two epoch days, not including the start day
+     *
+     * @param startEpochDay  The epoch day after which we start counting
+     * @param endEpochDay  The epoch day on which we stop counting
+     * @param holidayIndex  A HolidayIndex containing the holidays to count
+     * @return the number of weekday holidays from the day after start up to and including end
+     */
+    public static int countWeekdayHolidaysBetween(int startEpochDay, int endEpochDay, HolidayIndex holidayIndex) {
+        return holidayIndex.countWeekdayHolidaysBetween(startEpochDay, endEpochDay);
+    }
+
     /**
      * Counts holiday between two dates but applies a filter to only count some holiday date
      * Ex. Filter for only holidays that are on weekdays
@@ -127,9 +202,11 @@ public class DayCounter {
      */
     private static Set<LocalDate> getHolidayDatesBetween(LocalDate start, LocalDate end, Holiday holiday, HolidayFilter filter) {
         Set<LocalDate> holidayDates = new HashSet<>();
-        for(int year = start.getYear(); year <= end.getYear(); year++) {
+        // a holiday can be observed in the neighbouring year (ex. Jan 1st on a Saturday), so check one extra year on
+        // each side, the same as HolidayIndex does
+        for(int year = start.getYear() - 1; year <= end.getYear() + 1; year++) {
             LocalDate holidayDate = holiday.getDateForYear(year);
-            if (holidayDate.isAfter(start) && !holidayDate.isAfter(end) && filter.filter(holidayDate)) {
+            if (holidayDate != null && holidayDate.isAfter(start) && !holidayDate.isAfter(end) && filter.filter(holidayDate)) {
                 holidayDates.add(holidayDate);
             }
         }
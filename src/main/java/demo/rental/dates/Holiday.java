@@ -1,6 +1,8 @@
 package demo.rental.dates;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Holiday is an interface for getting dates for holidays
@@ -13,4 +15,21 @@ public interface Holiday {
      * @return a LocalDate containing the date for this holiday in the given year
      */
     LocalDate getDateForYear(int year);
+
+    /**
+     * Gets the dates for the holiday in every year of a range
+     *
+     * @param firstYear  the first year for which a date is requested
+     * @param lastYear  the last year for which a date is requested, must not be before firstYear
+     * @return a List with the date of this holiday in each year from firstYear to lastYear, in order
+     */
+    default List<LocalDate> getDatesForYears(int firstYear, int lastYear) {
+        if (lastYear < firstYear)
+            throw new IllegalArgumentException("last year " + lastYear + " is before first year " + firstYear);
+        List<LocalDate> dates = new ArrayList<>(lastYear - firstYear + 1);
+        for (int year = firstYear; year <= lastYear; year++) {
+            dates.add(getDateForYear(year));
+        }
+        return dates;
+    }
 }
@@ -0,0 +1,51 @@
+package demo.rental.dates;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of resolved holiday dates shared by every Holiday implementation which is costly to resolve
+ *
+ * Dates are kept per holiday, in an array indexed by the year's offset into one 400 year Gregorian cycle. Holidays
+ * are keyed by value, so equal holidays from different lookups, or from a reloaded catalog, share their dates.
+ * The cache is bounded: years outside the cycle and holidays beyond MAX_HOLIDAYS are simply resolved every time.
+ */
+final class HolidayDateCache {
+    static final int FIRST_YEAR = 1900;
+    static final int NUM_YEARS = 400;
+    static final int MAX_HOLIDAYS = 256;
+
+    // LocalDate is immutable with final fields, so a date written by one thread is safe to read from another without
+    // locking, and a thread which misses another's write just resolves the date again
+    private static final Map<Holiday, LocalDate[]> dates = new ConcurrentHashMap<>();
+
+    private HolidayDateCache() {}
+
+    /**
+     * @return the cached date of the holiday in the given year, or null if it has not been cached
+     */
+    static LocalDate get(Holiday holiday, int year) {
+        int offset = year - FIRST_YEAR;
+        if (offset < 0 || offset >= NUM_YEARS) return null;
+        LocalDate[] years = dates.get(holiday);
+        return years == null ? null : years[offset];
+    }
+
+    /**
+     * Caches the date of a holiday in the given year, if there is room
+     *
+     * @return the date
+     */
+    static LocalDate put(Holiday holiday, int year, LocalDate date) {
+        int offset = year - FIRST_YEAR;
+        if (offset < 0 || offset >= NUM_YEARS) return date;
+        LocalDate[] years = dates.get(holiday);
+        if (years == null) {
+            if (dates.size() >= MAX_HOLIDAYS) return date;
+            years = dates.computeIfAbsent(holiday, key -> new LocalDate[NUM_YEARS]);
+        }
+        years[offset] = date;
+        return date;
+    }
+}
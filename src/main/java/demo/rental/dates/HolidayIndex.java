@@ -0,0 +1,198 @@
+package demo.rental.dates;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A HolidayIndex is a precompiled, immutable set of holiday dates over a fixed range of years.
+ *
+ * Every holiday is resolved once for every year in the range and stored as a sorted, deduplicated array of epoch
+ * days, split into holidays which are observed on weekdays and holidays which land on weekends. Counting holidays
+ * between two dates is then two binary searches, with no allocation.
+ *
+ * Queries reaching outside the indexed years fall back to resolving the holidays directly through DayCounter.
+ */
+public final class HolidayIndex {
+    private final List<Holiday> holidays;
+    private final int firstYear;
+    private final int lastYear;
+    private final int firstEpochDay;
+    private final int lastEpochDay;
+    private final int[] weekdayHolidays;
+    private final int[] weekendHolidays;
+
+    /**
+     * Constructs a HolidayIndex for all holidays in a HolidayLookup
+     *
+     * @param holidayLookup  supplies the holidays to index
+     * @param firstYear  the first year which can be answered from the index
+     * @param lastYear  the last year which can be answered from the index, must not be before firstYear
+     */
+    public HolidayIndex(HolidayLookup holidayLookup, int firstYear, int lastYear) {
+        this(holidayLookup.getAllHolidays(), firstYear, lastYear);
+    }
+
+    /**
+     * Constructs a HolidayIndex for a list of holidays
+     *
+     * @param holidays  the holidays to index
+     * @param firstYear  the first year which can be answered from the index
+     * @param lastYear  the last year which can be answered from the index, must not be before firstYear
+     */
+    public HolidayIndex(List<Holiday> holidays, int firstYear, int lastYear) {
+        if (lastYear < firstYear)
+            throw new IllegalArgumentException("last year " + lastYear + " is before first year " + firstYear);
+        this.holidays = List.copyOf(holidays);
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.firstEpochDay = DayCounter.toEpochDay(LocalDate.of(firstYear, 1, 1));
+        this.lastEpochDay = DayCounter.toEpochDay(LocalDate.of(lastYear, 12, 31));
+
+        // a holiday can be observed in the neighbouring year (ex. Jan 1st on a Saturday), so resolve one extra year
+        // on each side to make sure every date inside the indexed years is present
+        int maxDates = this.holidays.size() * (lastYear - firstYear + 3);
+        int[] weekdays = new int[maxDates];
+        int[] weekends = new int[maxDates];
+        int numWeekdays = 0;
+        int numWeekends = 0;
+        for (Holiday holiday : this.holidays) {
+            for (int year = firstYear - 1; year <= lastYear + 1; year++) {
+                LocalDate date = holiday.getDateForYear(year);
+                if (date == null) continue;
+                int epochDay = DayCounter.toEpochDay(date);
+                if (DayCounter.isWeekend(epochDay)) {
+                    weekends[numWeekends++] = epochDay;
+                } else {
+                    weekdays[numWeekdays++] = epochDay;
+                }
+            }
+        }
+        this.weekdayHolidays = sortedDistinct(weekdays, numWeekdays);
+        this.weekendHolidays = sortedDistinct(weekends, numWeekends);
+    }
+
+    private static int[] sortedDistinct(int[] values, int length) {
+        Arrays.sort(values, 0, length);
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (distinct == 0 || values[distinct - 1] != values[i]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, distinct);
+    }
+
+    /**
+     * Checks whether both dates can be answered from the index, without falling back to resolving holidays
+     *
+     * @param start  The date after which we start counting
+     * @param end  The date on which we stop counting
+     * @return true if both dates are within the indexed years
+     */
+    public boolean covers(LocalDate start, LocalDate end) {
+        return start.getYear() >= firstYear && end.getYear() <= lastYear;
+    }
+
+    /**
+     * Checks whether both epoch days can be answered from the index, without falling back to resolving holidays
+     *
+     * @param startEpochDay  The epoch day after which we start counting
+     * @param endEpochDay  The epoch day on which we stop counting
+     * @return true if both epoch days are within the indexed years
+     */
+    public boolean covers(int startEpochDay, int endEpochDay) {
+        return startEpochDay >= firstEpochDay && endEpochDay <= lastEpochDay;
+    }
+
+    /**
+     * Gets the number of weekday holidays between two dates, not including the start day
+     *
+     * @param start  The date after which we start counting
+     * @param end  The date on which we stop counting
+     * @return the number of weekday holidays from the day after start up to and including end
+     */
+    public int countWeekdayHolidaysBetween(LocalDate start, LocalDate end) {
+        return countWeekdayHolidaysBetween(DayCounter.toEpochDay(start), DayCounter.toEpochDay(end));
+    }
+
+    /**
+     * Gets the number of weekday holidays between two epoch days, not including the start day
+     *
+     * @param startEpochDay  The epoch day after which we start counting
+     * @param endEpochDay  The epoch day on which we stop counting
+     * @return the number of weekday holidays from the day after start up to and including end
+     */
+    public int countWeekdayHolidaysBetween(int startEpochDay, int endEpochDay) {
+        if (!covers(startEpochDay, endEpochDay)) {
+            return DayCounter.countWeekdayHolidaysBetween(LocalDate.ofEpochDay(startEpochDay),
+                    LocalDate.ofEpochDay(endEpochDay), holidays);
+        }
+        return countBetween(weekdayHolidays, startEpochDay, endEpochDay);
+    }
+
+    /**
+     * Gets the number of weekend holidays between two dates, not including the start day
+     *
+     * @param start  The date after which we start counting
+     * @param end  The date on which we stop counting
+     * @return the number of weekend holidays from the day after start up to and including end
+     */
+    public int countWeekendHolidaysBetween(LocalDate start, LocalDate end) {
+        return countWeekendHolidaysBetween(DayCounter.toEpochDay(start), DayCounter.toEpochDay(end));
+    }
+
+    /**
+     * Gets the number of weekend holidays between two epoch days, not including the start day
+     *
+     * @param startEpochDay  The epoch day after which we start counting
+     * @param endEpochDay  The epoch day on which we stop counting
+     * @return the number of weekend holidays from the day after start up to and including end
+     */
+    public int countWeekendHolidaysBetween(int startEpochDay, int endEpochDay) {
+        if (!covers(startEpochDay, endEpochDay)) {
+            return DayCounter.countWeekendHolidaysBetween(LocalDate.ofEpochDay(startEpochDay),
+                    LocalDate.ofEpochDay(endEpochDay), holidays);
+        }
+        return countBetween(weekendHolidays, startEpochDay, endEpochDay);
+    }
+
+    /**
+     * Checks whether a holiday is observed on an epoch day
+     *
+     * @param epochDay  the epoch day to check
+     * @return true if any holiday is observed on that day
+     */
+    public boolean isHoliday(int epochDay) {
+        if (!covers(epochDay, epochDay)) {
+            return countWeekdayHolidaysBetween(epochDay - 1, epochDay) > 0
+                    || countWeekendHolidaysBetween(epochDay - 1, epochDay) > 0;
+        }
+        return Arrays.binarySearch(DayCounter.isWeekend(epochDay) ? weekendHolidays : weekdayHolidays, epochDay) >= 0;
+    }
+
+    private static int countBetween(int[] epochDays, int startEpochDay, int endEpochDay) {
+        if (startEpochDay >= endEpochDay) return 0;
+        return countAtOrBefore(epochDays, endEpochDay) - countAtOrBefore(epochDays, startEpochDay);
+    }
+
+    private static int countAtOrBefore(int[] epochDays, int epochDay) {
+        int index = Arrays.binarySearch(epochDays, epochDay);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    /**
+     * @return an immutable List of the holidays in this index
+     */
+    public List<Holiday> getHolidays() {
+        return holidays;
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    public int getLastYear() {
+        return lastYear;
+    }
+}
@@ -1,15 +1,16 @@
 package demo.rental.dates;
 
-import java.io.File;
+import demo.rental.csv.MappedCSVReader;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 /**
  * An implementation of HolidayLookup which gets holidays out of a give .csv file
  */
 public class HolidayLookupCSV implements HolidayLookup {
-    private final List<Holiday> holidays = new ArrayList<>();
+    private final List<Holiday> holidays;
 
     /**
      * Constructs a HolidayLookupCSV object and loads holiday data from the given .csv file
@@ -17,38 +18,68 @@ public class HolidayLookupCSV implements HolidayLookup {
      * @param filePath  the path to a .csv file containing holiday data
      */
     public HolidayLookupCSV(String filePath) {
-        loadHolidaysFromCSV(filePath);
+        this(loadHolidaysFromCSV(filePath));
+    }
+
+    private HolidayLookupCSV(List<Holiday> holidays) {
+        this.holidays = List.copyOf(holidays);
+    }
+
+    /**
+     * Loads a HolidayLookupCSV from the given .csv file, failing instead of returning whatever could be read
+     *
+     * @param filePath  the path to a .csv file containing holiday data
+     * @return a new HolidayLookupCSV containing every holiday in the file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a holiday type is unknown or a number cannot be parsed
+     * @throws IndexOutOfBoundsException if a line has too few fields for its holiday type
+     */
+    public static HolidayLookupCSV load(String filePath) throws IOException {
+        return new HolidayLookupCSV(readHolidaysFromCSV(filePath));
     }
 
-    private void loadHolidaysFromCSV(String filePath) {
+    private static List<Holiday> loadHolidaysFromCSV(String filePath) {
+        List<Holiday> holidays = new ArrayList<>();
         try {
-            Scanner scan = new Scanner(new File(filePath));
-            while(scan.hasNextLine()) {
-                String line = scan.nextLine();
-                /*
-                  Expect line to look like one of the following:
-                  "Fixed,[Month],[Day]" ex Christmas -> "Fixed,12,25"
-                  "ClosestWeekday,[Month],[Day]" ex July 4th -> "ClosestWeekday,7,4"
-                  "Relative,[weekOfMonth],[dayOfWeek],[Month]" ex Labor Day -> "Relative,1,1,9"
-                 */
-                String[] lineSplit = line.split(",", 4);
-                Holiday holiday = switch (lineSplit[0]) {
-                    case "Fixed" -> new FixedHoliday(Integer.parseInt(lineSplit[1]), Integer.parseInt(lineSplit[2]));
-                    case "ClosestWeekday" -> new ClosestWeekdayHoliday(Integer.parseInt(lineSplit[1]), Integer.parseInt(lineSplit[2]));
-                    case "Relative" -> new RelativeHoliday(Integer.parseInt(lineSplit[1]), Integer.parseInt(lineSplit[2]), Integer.parseInt(lineSplit[3]));
-                    default -> throw new Exception("Unknown Holiday type: " + lineSplit[0]);
-                };
-                holidays.add(holiday);
-            }
+            readHolidaysFromCSV(filePath, holidays);
         } catch (Exception exception) {
+            // keep the holidays read before the bad line
             System.err.println(exception.getMessage());
         }
+        return holidays;
+    }
+
+    private static List<Holiday> readHolidaysFromCSV(String filePath) throws IOException {
+        List<Holiday> holidays = new ArrayList<>();
+        readHolidaysFromCSV(filePath, holidays);
+        return holidays;
+    }
+
+    private static void readHolidaysFromCSV(String filePath, List<Holiday> holidays) throws IOException {
+        /*
+          Expect line to look like one of the following:
+          "Fixed,[Month],[Day]" ex Christmas -> "Fixed,12,25"
+          "ClosestWeekday,[Month],[Day]" ex July 4th -> "ClosestWeekday,7,4"
+          "Relative,[weekOfMonth],[dayOfWeek],[Month]" ex Labor Day -> "Relative,1,1,9"
+         */
+        MappedCSVReader.read(filePath, 4, row -> holidays.add(parseHoliday(row)));
+    }
+
+    private static Holiday parseHoliday(MappedCSVReader.Row row) {
+        if (row.fieldEquals(0, "Fixed")) {
+            return new FixedHoliday(row.getInt(1), row.getInt(2));
+        } else if (row.fieldEquals(0, "ClosestWeekday")) {
+            return new ClosestWeekdayHoliday(row.getInt(1), row.getInt(2));
+        } else if (row.fieldEquals(0, "Relative")) {
+            return new RelativeHoliday(row.getInt(1), row.getInt(2), row.getInt(3));
+        }
+        throw new IllegalArgumentException("Unknown Holiday type: " + row.getString(0));
     }
 
     /**
      * Gets all the holidays from the .csv file
      *
-     * @return A List of all Holiday generated from the .csv file
+     * @return An immutable List of all Holiday generated from the .csv file
      */
     @Override
     public List<Holiday> getAllHolidays() {
@@ -13,13 +13,16 @@ public record RelativeHoliday(int weekOfMonth, int dayOfWeek, int month) impleme
 
     /**
      * Gets the date for this relative holiday for a given year
+     * Dates are resolved once and then shared through the HolidayDateCache
      *
      * @param year the year for which the holiday date is being requested
      * @return a LocalDate with the date of this holiday in the given year
      */
     @Override
     public LocalDate getDateForYear(int year) {
-        return LocalDate.of(year, month, 1)
-                .with(TemporalAdjusters.dayOfWeekInMonth(weekOfMonth, DayOfWeek.of(dayOfWeek)));
+        LocalDate date = HolidayDateCache.get(this, year);
+        if (date != null) return date;
+        return HolidayDateCache.put(this, year, LocalDate.of(year, month, 1)
+                .with(TemporalAdjusters.dayOfWeekInMonth(weekOfMonth, DayOfWeek.of(dayOfWeek))));
     }
 }
@@ -0,0 +1,61 @@
+package demo.rental.inventory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inventory tracks how many units of each tool code are available to rent, so a unit is never checked out twice
+ *
+ * There is no global lock. Codes are kept in a ConcurrentHashMap, and each code's count is a lock-free counter
+ * updated by compare-and-set. Reservations never take a count below zero, which is what prevents double-booking, and
+ * releases never take it above the stocked quantity.
+ */
+public final class Inventory {
+    private final Map<String, UnitCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Adds units of a tool to the inventory, for example when a shipment arrives
+     *
+     * @param toolCode  the code of the tool being stocked
+     * @param units  the number of units to add, must not be negative
+     * @throws IllegalArgumentException if units is negative, or the stocked quantity would exceed Integer.MAX_VALUE
+     */
+    public void stock(String toolCode, int units) {
+        if (units < 0) throw new IllegalArgumentException("Units must not be negative: " + units);
+        counters.computeIfAbsent(toolCode, code -> new UnitCounter()).add(units);
+    }
+
+    /**
+     * Reserves one unit of a tool if one is available
+     *
+     * @param toolCode  the code of the tool to reserve
+     * @return true if a unit was reserved, false if the code has no available units or is not stocked
+     */
+    public boolean tryReserve(String toolCode) {
+        UnitCounter counter = counters.get(toolCode);
+        return counter != null && counter.tryTake();
+    }
+
+    /**
+     * Returns a reserved unit to the inventory
+     * Each call must match an earlier successful tryReserve for the same code
+     *
+     * @param toolCode  the code of the tool being returned
+     * @throws IllegalArgumentException if the tool code was never stocked
+     * @throws IllegalStateException if every stocked unit of the tool is already available
+     */
+    public void release(String toolCode) {
+        UnitCounter counter = counters.get(toolCode);
+        if (counter == null) throw new IllegalArgumentException("Tool code not stocked: " + toolCode);
+        if (!counter.put()) throw new IllegalStateException("No reserved units to release for tool code: " + toolCode);
+    }
+
+    /**
+     * @param toolCode  the code of the tool
+     * @return the number of units currently available, or 0 if the code is not stocked
+     */
+    public int available(String toolCode) {
+        UnitCounter counter = counters.get(toolCode);
+        return counter == null ? 0 : counter.available();
+    }
+}
@@ -0,0 +1,96 @@
+package demo.rental.inventory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A count of the units of one tool code, both stocked and currently available, packed into a single long so that both
+ * are updated together by one compare-and-set
+ *
+ * Availability never goes below zero, so units are never oversold, and never above the stocked quantity, so a
+ * duplicate release cannot create stock. A reservation only fails when it observes zero units available.
+ * Each code costs one small object however many processors there are.
+ */
+final class UnitCounter {
+    private static final VarHandle STATE;
+    private static final long AVAILABLE_MASK = 0xFFFFFFFFL;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(UnitCounter.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // stocked units in the high 32 bits, available units in the low 32 bits
+    private volatile long state;
+
+    private static int stocked(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int available(long state) {
+        return (int) (state & AVAILABLE_MASK);
+    }
+
+    private static long pack(int stocked, int available) {
+        return (long) stocked << 32 | available;
+    }
+
+    /**
+     * Adds units to both the stocked and the available counts
+     *
+     * @throws IllegalArgumentException if the stocked count would overflow
+     */
+    void add(int units) {
+        long current = state;
+        while (true) {
+            int stocked = stocked(current);
+            if (units > Integer.MAX_VALUE - stocked) {
+                throw new IllegalArgumentException("Too many units stocked: " + ((long) stocked + units));
+            }
+            long witness = (long) STATE.compareAndExchange(this, current,
+                    pack(stocked + units, available(current) + units));
+            if (witness == current) return;
+            current = witness;
+        }
+    }
+
+    /**
+     * Takes one unit, if one is available
+     *
+     * @return true if a unit was taken, false only if no units were available
+     */
+    boolean tryTake() {
+        long current = state;
+        while (available(current) > 0) {
+            long witness = (long) STATE.compareAndExchange(this, current, current - 1);
+            if (witness == current) return true;
+            current = witness;
+        }
+        return false;
+    }
+
+    /**
+     * Returns one unit, unless every stocked unit is already available
+     *
+     * @return true if the unit was returned, false if there was no unit out to return
+     */
+    boolean put() {
+        long current = state;
+        while (available(current) < stocked(current)) {
+            long witness = (long) STATE.compareAndExchange(this, current, current + 1);
+            if (witness == current) return true;
+            current = witness;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of available units
+     */
+    int available() {
+        return available(state);
+    }
+}
@@ -0,0 +1,280 @@
+package demo.rental.ledger;
+
+import demo.rental.RentalAgreement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * An AgreementLedger durably records RentalAgreements in an append-only log on disk
+ *
+ * The log is split into fixed size segment files, each memory mapped and named after the sequence number of its
+ * first agreement. Appending only copies an encoded record into the mapped segment, and a background thread makes
+ * appended records durable by forcing the segment to disk. Appends which arrive while a force is in progress are all
+ * covered by the next one, so under load a single force commits a whole group of agreements and no checkout waits
+ * for a force of its own.
+ *
+ * The kernel may write the pages of a mapped segment to disk in any order, so a crash can leave records torn, or
+ * intact, anywhere after the last force. Each segment therefore starts with a commit watermark, the end of its
+ * committed records, which is only advanced and forced after the records before it are durable, and before their
+ * appends are acknowledged. Opening a ledger replays every record below the watermarks, and zeroes everything past
+ * the watermark of the last segment, which was never acknowledged and is overwritten by the next append. Every record
+ * carries a CRC32C checksum, and a bad record below a watermark fails the open as corruption.
+ */
+public final class AgreementLedger implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "ledger-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // the commit watermark (4), then reserved space (4) before the first record
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int WATERMARK_OFFSET = 0;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Thread flusher;
+
+    // guarded by this
+    private MappedByteBuffer segment;
+    private int position;
+    private long nextSequence;
+    private List<PendingAppend> pending = new ArrayList<>();
+    private boolean closed;
+
+    private record PendingAppend(long sequence, CompletableFuture<Long> future) {}
+
+    /**
+     * Opens or creates a ledger in a directory with the default segment size, replaying the agreements already in it
+     *
+     * @param directory  the directory holding the ledger's segment files, created if missing
+     * @param replayHandler  receives every agreement already in the ledger, in order, before this returns
+     * @throws IOException if the ledger cannot be read or created, or holds a corrupt committed record
+     */
+    public AgreementLedger(Path directory, ReplayHandler replayHandler) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, replayHandler);
+    }
+
+    /**
+     * Opens or creates a ledger in a directory, replaying the agreements already in it
+     *
+     * @param directory  the directory holding the ledger's segment files, created if missing
+     * @param segmentSize  the size in bytes of new segment files, which limits the size of a single record
+     * @param replayHandler  receives every agreement already in the ledger, in order, before this returns
+     * @throws IOException if the ledger cannot be read or created, or holds a corrupt committed record
+     */
+    public AgreementLedger(Path directory, int segmentSize, ReplayHandler replayHandler) throws IOException {
+        if (segmentSize < 1024) throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        replay(replayHandler);
+        this.flusher = new Thread(this::flushUntilClosed, "agreement-ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private void replay(ReplayHandler replayHandler) throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        if (segments.isEmpty()) {
+            segment = createSegment(0);
+            position = SEGMENT_HEADER_SIZE;
+            return;
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            long firstSequence = Long.parseLong(file.getFileName().toString()
+                    .substring(SEGMENT_PREFIX.length(), file.getFileName().toString().length() - SEGMENT_SUFFIX.length()));
+            if (firstSequence != nextSequence) throw new IOException("Ledger segment out of sequence: " + file);
+
+            MappedByteBuffer mapped = map(file, last ? StandardOpenOption.WRITE : StandardOpenOption.READ);
+            int watermark = mapped.capacity() < SEGMENT_HEADER_SIZE ? 0 : mapped.getInt(WATERMARK_OFFSET);
+            if (last && watermark == 0 && mapped.capacity() < segmentSize) {
+                // a crash while creating the segment can leave it empty or short, and the next segment would be
+                // created under the same name, so it is created again now
+                Files.delete(file);
+                mapped = createSegment(firstSequence);
+            }
+            // a segment with nothing committed yet has a watermark of 0
+            int committedEnd = watermark == 0 ? SEGMENT_HEADER_SIZE : watermark;
+            if (committedEnd < SEGMENT_HEADER_SIZE || committedEnd > mapped.capacity()) {
+                throw new IOException("Corrupt commit watermark " + watermark + " in ledger segment " + file);
+            }
+            int offset = SEGMENT_HEADER_SIZE;
+            while (offset < committedEnd) {
+                int payloadSize = LedgerRecord.check(mapped, offset);
+                if (payloadSize <= 0 || payloadSize > committedEnd - offset - LedgerRecord.HEADER_SIZE) {
+                    throw new IOException("Corrupt record in ledger segment " + file + " at " + offset);
+                }
+                replayHandler.replayed(nextSequence++, LedgerRecord.decode(mapped, offset));
+                offset += LedgerRecord.HEADER_SIZE + payloadSize;
+            }
+            if (last) {
+                clearUncommitted(mapped, committedEnd);
+                segment = mapped;
+                position = committedEnd;
+            }
+        }
+    }
+
+    /**
+     * Zeroes everything in a segment past its commit watermark, which may hold torn or intact records that were never
+     * acknowledged, so that none of them can be mistaken for data after later appends
+     */
+    private static void clearUncommitted(MappedByteBuffer segment, int committedEnd) {
+        boolean cleared = false;
+        for (int offset = committedEnd; offset < segment.capacity(); offset++) {
+            if (segment.get(offset) != 0) {
+                segment.put(offset, (byte) 0);
+                cleared = true;
+            }
+        }
+        if (cleared) segment.force();
+    }
+
+    /**
+     * Appends an agreement to the ledger
+     * The record is in the ledger when this returns, and durable on disk when the returned future completes
+     *
+     * @param agreement  the agreement to record
+     * @return a CompletableFuture which completes with the agreement's sequence number once it is durable, or
+     * exceptionally if forcing it to disk failed
+     * @throws IOException if a new segment file was needed and could not be created
+     * @throws IllegalStateException if the ledger is closed
+     */
+    public CompletableFuture<Long> append(RentalAgreement agreement) throws IOException {
+        byte[] record = LedgerRecord.encode(agreement);
+        if (record.length > segmentSize - SEGMENT_HEADER_SIZE)
+            throw new IllegalArgumentException("Record larger than a ledger segment");
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("Ledger is closed");
+            if (position + record.length > segment.capacity()) {
+                // the flusher only forces the current segment, so the old one is committed here before moving on
+                segment.force();
+                commit(segment, position);
+                segment = createSegment(nextSequence);
+                position = SEGMENT_HEADER_SIZE;
+            }
+            segment.put(position, record);
+            position += record.length;
+            if (pending.isEmpty()) notifyAll();
+            pending.add(new PendingAppend(nextSequence++, future));
+        }
+        return future;
+    }
+
+    /**
+     * @return the sequence number the next appended agreement will get
+     */
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Makes every appended agreement durable and stops the ledger
+     * Waits for the final force even if interrupted, and then restores the interrupt status
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                flusher.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void flushUntilClosed() {
+        while (true) {
+            List<PendingAppend> group;
+            MappedByteBuffer flushing;
+            int end;
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // only close stops the flusher, so that no append is left without a force
+                    }
+                }
+                if (pending.isEmpty()) return;
+                group = pending;
+                pending = new ArrayList<>();
+                flushing = segment;
+                end = position;
+            }
+            try {
+                flushing.force(0, end);
+                // the records before end are durable, so the watermark can advance, but never back over the end a
+                // segment being moved on from was committed to by append. Appends can go on while it is forced.
+                synchronized (this) {
+                    if (end > flushing.getInt(WATERMARK_OFFSET)) flushing.putInt(WATERMARK_OFFSET, end);
+                }
+                flushing.force(WATERMARK_OFFSET, 4);
+                for (PendingAppend append : group) append.future().complete(append.sequence());
+            } catch (Throwable throwable) {
+                // fail this group, but keep flushing, or every later append would wait forever
+                Throwable cause = throwable instanceof UncheckedIOException ? throwable.getCause() : throwable;
+                for (PendingAppend append : group) append.future().completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Advances a segment's commit watermark and forces it to disk
+     * Only call this once every record before end is durable, since replay trusts everything below the watermark
+     *
+     * @param segment  the segment to commit
+     * @param end  the end of the segment's committed records
+     */
+    private static void commit(MappedByteBuffer segment, int end) {
+        segment.putInt(WATERMARK_OFFSET, end);
+        segment.force(WATERMARK_OFFSET, 4);
+    }
+
+    private MappedByteBuffer createSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            // make the new file and its directory entry durable, so a crash cannot lose the segment with its records
+            channel.force(true);
+            try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                directoryChannel.force(true);
+            }
+            return mapped;
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, StandardOpenOption mode) throws IOException {
+        boolean writable = mode == StandardOpenOption.WRITE;
+        try (FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package demo.rental.ledger;
+
+import demo.rental.RentalAgreement;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.tool.Tool;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Encodes and decodes the records of an AgreementLedger
+ *
+ * A record is a 4 byte payload length, a 4 byte CRC32C of the payload, then the payload itself. A length of 0 is
+ * never written, since it is what the unwritten space of a segment reads as.
+ *
+ * Payload layout, big-endian:
+ * checkout epoch day (4), due epoch day (4), rental days (4), charge days (4), discount percent (4),
+ * daily charge cents (8), charge policy flags (1), pre-discount charge (8), discount amount (8), final charge (8),
+ * catalog version (8), then tool code, type and brand, each as a 2 byte length and UTF-8 bytes
+ */
+final class LedgerRecord {
+    static final int HEADER_SIZE = 8;
+
+    private static final int FIXED_PAYLOAD_SIZE = 4 * 5 + 8 + 1 + 8 * 4;
+    private static final int CHARGED_WEEKDAYS = 1;
+    private static final int CHARGED_WEEKENDS = 2;
+    private static final int CHARGED_HOLIDAYS = 4;
+
+    private LedgerRecord() {}
+
+    /**
+     * @return the complete record for an agreement, header included
+     * @throws IllegalArgumentException if a tool field is longer than 65535 bytes of UTF-8
+     */
+    static byte[] encode(RentalAgreement agreement) {
+        byte[] code = utf8(agreement.getTool().code());
+        byte[] type = utf8(agreement.getTool().type());
+        byte[] brand = utf8(agreement.getTool().brand());
+        int payloadSize = FIXED_PAYLOAD_SIZE + 6 + code.length + type.length + brand.length;
+        ChargePolicy policy = agreement.getChargePolicy();
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+        record.putInt(payloadSize).putInt(0)
+                .putInt(Math.toIntExact(agreement.getCheckoutDate().toEpochDay()))
+                .putInt(Math.toIntExact(agreement.getDueDate().toEpochDay()))
+                .putInt(agreement.getNumRentalDays())
+                .putInt(agreement.getNumChargeDays())
+                .putInt(agreement.getDiscountPercent())
+                .putLong(policy.dailyChargeCents())
+                .put((byte) ((policy.isChargedWeekdays() ? CHARGED_WEEKDAYS : 0)
+                        | (policy.isChargedWeekends() ? CHARGED_WEEKENDS : 0)
+                        | (policy.isChargedHolidays() ? CHARGED_HOLIDAYS : 0)))
+                .putLong(agreement.getPreDiscountCharge())
+                .putLong(agreement.getDiscountAmount())
+                .putLong(agreement.getFinalCharge())
+                .putLong(agreement.getCatalogVersion());
+        putString(record, code);
+        putString(record, type);
+        putString(record, brand);
+
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER_SIZE, payloadSize);
+        record.putInt(4, (int) crc.getValue());
+        return record.array();
+    }
+
+    /**
+     * Checks the record at an offset
+     *
+     * @return the payload length of a complete record with a matching checksum, 0 at the end of the segment, or -1
+     * if the record is torn or corrupt
+     */
+    static int check(ByteBuffer segment, int offset) {
+        if (offset + HEADER_SIZE > segment.capacity()) return 0;
+        int payloadSize = segment.getInt(offset);
+        if (payloadSize == 0) return 0;
+        if (payloadSize < FIXED_PAYLOAD_SIZE || payloadSize > segment.capacity() - offset - HEADER_SIZE) return -1;
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(offset + HEADER_SIZE, payloadSize));
+        return (int) crc.getValue() == segment.getInt(offset + 4) ? payloadSize : -1;
+    }
+
+    /**
+     * Decodes a record which has already passed check
+     */
+    static RentalAgreement decode(ByteBuffer segment, int offset) {
+        ByteBuffer payload = segment.slice(offset + HEADER_SIZE, segment.getInt(offset));
+        LocalDate checkoutDate = LocalDate.ofEpochDay(payload.getInt());
+        LocalDate dueDate = LocalDate.ofEpochDay(payload.getInt());
+        int numRentalDays = payload.getInt();
+        int numChargeDays = payload.getInt();
+        int discountPercent = payload.getInt();
+        long dailyChargeCents = payload.getLong();
+        int flags = payload.get();
+        long preDiscountCharge = payload.getLong();
+        long discountAmount = payload.getLong();
+        long finalCharge = payload.getLong();
+        long catalogVersion = payload.getLong();
+        String code = getString(payload);
+        String type = getString(payload);
+        String brand = getString(payload);
+        return new RentalAgreement(new Tool(type, brand, code),
+                new ChargePolicy(dailyChargeCents, (flags & CHARGED_WEEKDAYS) != 0, (flags & CHARGED_WEEKENDS) != 0,
+                        (flags & CHARGED_HOLIDAYS) != 0),
+                numRentalDays, numChargeDays, preDiscountCharge, discountPercent, discountAmount, finalCharge,
+                checkoutDate, dueDate, catalogVersion);
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IllegalArgumentException("Tool field too long for the ledger: " + value);
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer record, byte[] bytes) {
+        record.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort() & 0xFFFF];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,16 @@
+package demo.rental.ledger;
+
+import demo.rental.RentalAgreement;
+
+/**
+ * Receives every RentalAgreement already in a ledger when an AgreementLedger is opened, in the order they were
+ * appended
+ */
+@FunctionalInterface
+public interface ReplayHandler {
+    /**
+     * @param sequence  the agreement's position in the ledger, starting from 0
+     * @param agreement  the agreement as it was appended
+     */
+    void replayed(long sequence, RentalAgreement agreement);
+}
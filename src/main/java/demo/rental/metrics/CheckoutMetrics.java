@@ -0,0 +1,199 @@
+package demo.rental.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * CheckoutMetrics records how long each stage of a checkout takes, and counts checkouts and failures by tool type.
+ *
+ * Metrics are off unless the system property "demo.rental.metrics" is "true", or setEnabled(true) is called, e.g.
+ * through JMX after registerMBean(). While off, a checkout only pays for one volatile read: callers get null from
+ * ifEnabled() and skip reading the clock entirely.
+ *
+ * Typical use:
+ * CheckoutMetrics metrics = CheckoutMetrics.ifEnabled();
+ * long time = metrics == null ? 0 : System.nanoTime();
+ * ...
+ * if (metrics != null) time = metrics.recordStage(CheckoutStage.TOOL_LOOKUP, time);
+ */
+public final class CheckoutMetrics implements CheckoutMetricsMXBean {
+    public static final String OBJECT_NAME = "demo.rental:type=CheckoutMetrics";
+    /**
+     * The tool type failures are counted under when the checkout failed before its tool was found
+     */
+    public static final String UNKNOWN_TOOL_TYPE = "unknown";
+
+    private static final CheckoutMetrics INSTANCE = new CheckoutMetrics();
+    private static volatile boolean enabled = Boolean.getBoolean("demo.rental.metrics");
+
+    private final Map<CheckoutStage, LatencyHistogram> stageLatencies = new EnumMap<>(CheckoutStage.class);
+    private final ConcurrentMap<String, LongAdder> checkoutsByToolType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> failuresByToolType = new ConcurrentHashMap<>();
+
+    private CheckoutMetrics() {
+        for (CheckoutStage stage : CheckoutStage.values()) {
+            stageLatencies.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * @return the shared CheckoutMetrics, whether or not metrics are enabled
+     */
+    public static CheckoutMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the shared CheckoutMetrics if metrics are enabled, otherwise null
+     */
+    public static CheckoutMetrics ifEnabled() {
+        return enabled ? INSTANCE : null;
+    }
+
+    /**
+     * Registers the shared CheckoutMetrics with the platform MBeanServer, if it is not registered already
+     *
+     * @throws JMException if the MBean cannot be registered
+     */
+    public static void registerMBean() throws JMException {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException alreadyRegistered) {
+            // registering is idempotent
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean isEnabled) {
+        enabled = isEnabled;
+    }
+
+    /**
+     * Records the latency of one stage of a checkout
+     *
+     * @param stage  the stage which just finished
+     * @param startNanos  the System.nanoTime() when the stage started
+     * @return the current System.nanoTime(), which is when the next stage starts
+     */
+    public long recordStage(CheckoutStage stage, long startNanos) {
+        long now = System.nanoTime();
+        stageLatencies.get(stage).record(now - startNanos);
+        return now;
+    }
+
+    /**
+     * Records a successful checkout
+     *
+     * @param toolType  the type of the tool checked out
+     */
+    public void recordCheckout(String toolType) {
+        checkoutsByToolType.computeIfAbsent(toolType, type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a failed checkout
+     *
+     * @param toolType  the type of the tool, or null if the checkout failed before its tool was found, as it does for
+     *                  an unknown tool code or invalid rental days or discount
+     */
+    public void recordFailure(String toolType) {
+        String key = toolType == null ? UNKNOWN_TOOL_TYPE : toolType;
+        failuresByToolType.computeIfAbsent(key, type -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return a copy of everything recorded so far
+     */
+    public MetricsSnapshot snapshot() {
+        Map<CheckoutStage, HistogramSnapshot> latencies = new EnumMap<>(CheckoutStage.class);
+        stageLatencies.forEach((stage, histogram) -> latencies.put(stage, histogram.snapshot()));
+        return new MetricsSnapshot(Map.copyOf(latencies), sums(checkoutsByToolType), sums(failuresByToolType));
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+
+    private static long total(Map<String, LongAdder> counters) {
+        long total = 0;
+        for (LongAdder counter : counters.values()) total += counter.sum();
+        return total;
+    }
+
+    private Map<String, Long> stageValues(ToLongFunction<HistogramSnapshot> value) {
+        Map<String, Long> values = new TreeMap<>();
+        snapshot().stageLatencies().forEach((stage, histogram) -> values.put(stage.name(), value.applyAsLong(histogram)));
+        return values;
+    }
+
+    @Override
+    public long getCheckoutCount() {
+        return total(checkoutsByToolType);
+    }
+
+    @Override
+    public long getFailureCount() {
+        return total(failuresByToolType);
+    }
+
+    @Override
+    public Map<String, Long> getCheckoutsByToolType() {
+        return sums(checkoutsByToolType);
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByToolType() {
+        return sums(failuresByToolType);
+    }
+
+    @Override
+    public Map<String, Long> getStageCounts() {
+        return stageValues(HistogramSnapshot::count);
+    }
+
+    @Override
+    public Map<String, Long> getStageMeanNanos() {
+        return stageValues(HistogramSnapshot::meanNanos);
+    }
+
+    @Override
+    public Map<String, Long> getStageP50Nanos() {
+        return stageValues(HistogramSnapshot::p50Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getStageP99Nanos() {
+        return stageValues(HistogramSnapshot::p99Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getStageMaxNanos() {
+        return stageValues(HistogramSnapshot::maxNanos);
+    }
+
+    /**
+     * Clears all latencies and counters
+     */
+    @Override
+    public void reset() {
+        stageLatencies.values().forEach(LatencyHistogram::reset);
+        checkoutsByToolType.clear();
+        failuresByToolType.clear();
+    }
+}
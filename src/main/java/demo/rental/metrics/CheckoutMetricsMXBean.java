@@ -0,0 +1,33 @@
+package demo.rental.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of CheckoutMetrics, registered as "demo.rental:type=CheckoutMetrics"
+ * Stage maps are keyed by CheckoutStage name
+ */
+public interface CheckoutMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getCheckoutCount();
+
+    long getFailureCount();
+
+    Map<String, Long> getCheckoutsByToolType();
+
+    Map<String, Long> getFailuresByToolType();
+
+    Map<String, Long> getStageCounts();
+
+    Map<String, Long> getStageMeanNanos();
+
+    Map<String, Long> getStageP50Nanos();
+
+    Map<String, Long> getStageP99Nanos();
+
+    Map<String, Long> getStageMaxNanos();
+
+    void reset();
+}
@@ -0,0 +1,17 @@
+package demo.rental.metrics;
+
+/**
+ * The stages of a checkout which are timed by CheckoutMetrics
+ */
+public enum CheckoutStage {
+    /** finding the Tool for the tool code */
+    TOOL_LOOKUP,
+    /** finding the ChargePolicy for the tool type */
+    POLICY_LOOKUP,
+    /** calculating the due date and the number of charged days, which is where holidays are looked up */
+    CHARGE_DAYS,
+    /** calculating the pre-discount charge, discount amount and final charge */
+    DISCOUNT,
+    /** the whole checkout, from validation to the final charge */
+    TOTAL
+}
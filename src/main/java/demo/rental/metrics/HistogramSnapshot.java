@@ -0,0 +1,8 @@
+package demo.rental.metrics;
+
+/**
+ * A point in time summary of a LatencyHistogram. All times are in nanoseconds, and percentiles are accurate to within
+ * about 6%
+ */
+public record HistogramSnapshot(long count, long meanNanos, long maxNanos, long p50Nanos, long p90Nanos,
+                                long p99Nanos, long p999Nanos) {}
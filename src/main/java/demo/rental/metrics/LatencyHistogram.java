@@ -0,0 +1,116 @@
+package demo.rental.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe, fixed size histogram of latencies, in the style of HdrHistogram
+ *
+ * Values below 16ns get a bucket each. Above that, every power of two is split into 16 linear sub-buckets, so a
+ * bucket is never wider than 1/16th of its values and recording is a few bit operations and one atomic increment.
+ * The whole range of positive longs fits in 960 buckets.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one latency
+     *
+     * @param nanos  the latency in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the largest value which is recorded into the given bucket
+     */
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowest = (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Gets the value at a percentile of all recorded latencies
+     *
+     * @param percentile  the percentile, within (0, 100]
+     * @return the highest value in the bucket containing the percentile, or 0 if nothing has been recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] bucketCounts = copyCounts();
+        return valueAtPercentile(bucketCounts, sum(bucketCounts), percentile);
+    }
+
+    private long[] copyCounts() {
+        long[] bucketCounts = new long[NUM_BUCKETS];
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            bucketCounts[bucket] = counts.get(bucket);
+        }
+        return bucketCounts;
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static long valueAtPercentile(long[] bucketCounts, long count, double percentile) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            seen += bucketCounts[bucket];
+            if (seen >= target) return highestValueIn(bucket);
+        }
+        return highestValueIn(bucketCounts.length - 1);
+    }
+
+    /**
+     * @return a summary of everything recorded so far
+     */
+    public HistogramSnapshot snapshot() {
+        long[] bucketCounts = copyCounts();
+        long count = sum(bucketCounts);
+        long mean = count == 0 ? 0 : totalNanos.sum() / Math.max(1, totalCount.sum());
+        return new HistogramSnapshot(count, mean, maxNanos.get(),
+                valueAtPercentile(bucketCounts, count, 50), valueAtPercentile(bucketCounts, count, 90),
+                valueAtPercentile(bucketCounts, count, 99), valueAtPercentile(bucketCounts, count, 99.9));
+    }
+
+    /**
+     * Clears everything recorded so far. Values recorded while resetting may or may not be kept
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
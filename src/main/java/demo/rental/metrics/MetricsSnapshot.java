@@ -0,0 +1,29 @@
+package demo.rental.metrics;
+
+import java.util.Map;
+
+/**
+ * A point in time copy of everything recorded by CheckoutMetrics
+ *
+ * stageLatencies - latency summary of each checkout stage
+ * checkoutsByToolType - number of successful checkouts for each tool type
+ * failuresByToolType - number of failed checkouts for each tool type, or "unknown" for checkouts which failed before
+ * their tool was found, because the tool code was not found or the rental days or discount were invalid
+ */
+public record MetricsSnapshot(Map<CheckoutStage, HistogramSnapshot> stageLatencies,
+                              Map<String, Long> checkoutsByToolType, Map<String, Long> failuresByToolType) {
+
+    /**
+     * @return the total number of successful checkouts
+     */
+    public long checkoutCount() {
+        return checkoutsByToolType.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @return the total number of failed checkouts
+     */
+    public long failureCount() {
+        return failuresByToolType.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,19 @@
+package demo.rental.overdue;
+
+import demo.rental.RentalAgreement;
+
+/**
+ * Receives late-return events from an OverdueTracker, once for each open rental whose due date has passed
+ */
+@FunctionalInterface
+public interface OverdueListener {
+    /**
+     * Called during OverdueTracker.advanceTo, while the tracker is locked. The rental stays open until it is returned,
+     * so this may call OverdueTracker.returned, but should not block.
+     *
+     * @param rentalId  the id register gave the rental
+     * @param agreement  the rental's agreement
+     * @param daysOverdue  the number of days since the due date, at least 1
+     */
+    void overdue(long rentalId, RentalAgreement agreement, int daysOverdue);
+}
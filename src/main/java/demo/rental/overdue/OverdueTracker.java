@@ -0,0 +1,189 @@
+package demo.rental.overdue;
+
+import demo.rental.RentalAgreement;
+import demo.rental.dates.DayCounter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * OverdueTracker keeps track of open rentals, and tells an OverdueListener about each one the day after it was due
+ * back without having been returned
+ *
+ * Open rentals are filed in a timing wheel with one bucket per epoch day, covering the next WHEEL_DAYS days. Rentals
+ * due further out wait in overflow buckets and move onto the wheel as their day comes within range. Advancing a day
+ * only visits that day's bucket, so a sweep costs the number of rentals due that day, however many are open.
+ *
+ * No object is kept per rental besides its agreement. A rental is a slot in a set of parallel arrays, and its id
+ * combines the slot with a generation which changes whenever the slot is freed, so ids of returned rentals never
+ * match a later rental. Returning a rental only frees its slot, and the stale entry in its bucket is skipped when
+ * that day is swept.
+ */
+public final class OverdueTracker {
+    /**
+     * The number of days ahead covered by the wheel, rentals due later are kept in overflow buckets
+     */
+    public static final int WHEEL_DAYS = 1024;
+
+    private static final int WHEEL_MASK = WHEEL_DAYS - 1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final OverdueListener listener;
+    private final Bucket[] wheel = new Bucket[WHEEL_DAYS];
+    private final TreeMap<Integer, Bucket> overflow = new TreeMap<>();
+    // the day about to be swept, every rental due before it has already been reported
+    private int currentDay;
+
+    private RentalAgreement[] agreements = new RentalAgreement[INITIAL_CAPACITY];
+    private int[] dueDays = new int[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private boolean[] reported = new boolean[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int numFreeSlots;
+    private int numSlots;
+    private int numOpen;
+
+    /**
+     * @param today  the date of the first sweep, rentals due before it are reported by the first call to advanceTo
+     * @param listener  receives a late-return event for each rental not returned by its due date
+     */
+    public OverdueTracker(LocalDate today, OverdueListener listener) {
+        this.currentDay = DayCounter.toEpochDay(today);
+        this.listener = listener;
+        for (int i = 0; i < WHEEL_DAYS; i++) wheel[i] = new Bucket();
+    }
+
+    /**
+     * Starts tracking an open rental, until it is returned
+     *
+     * @param agreement  the agreement for the rental
+     * @return an id for the rental, to pass to returned
+     */
+    public synchronized long register(RentalAgreement agreement) {
+        int slot = allocateSlot();
+        int dueDay = DayCounter.toEpochDay(agreement.getDueDate());
+        agreements[slot] = agreement;
+        dueDays[slot] = dueDay;
+        reported[slot] = false;
+        numOpen++;
+        long rentalId = (long) generations[slot] << 32 | slot;
+        // rentals already overdue go in the bucket swept next, the rest in the bucket for their due date's sweep
+        bucketFor(Math.max(dueDay + 1, currentDay)).add(rentalId);
+        return rentalId;
+    }
+
+    /**
+     * Stops tracking a rental, because it has been returned
+     *
+     * @param rentalId  the id register gave the rental
+     * @return true if the rental was open, false if it was already returned or the id is unknown
+     */
+    public synchronized boolean returned(long rentalId) {
+        int slot = slotOf(rentalId);
+        if (slot < 0) return false;
+        agreements[slot] = null;
+        generations[slot]++;
+        if (numFreeSlots == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, numFreeSlots * 2);
+        freeSlots[numFreeSlots++] = slot;
+        numOpen--;
+        return true;
+    }
+
+    /**
+     * @param rentalId  the id register gave the rental
+     * @return true if the rental is open and has been reported overdue
+     */
+    public synchronized boolean isOverdue(long rentalId) {
+        int slot = slotOf(rentalId);
+        return slot >= 0 && reported[slot];
+    }
+
+    /**
+     * @return the number of rentals registered and not yet returned
+     */
+    public synchronized int size() {
+        return numOpen;
+    }
+
+    /**
+     * Sweeps every day up to the given date, reporting each open rental whose due date is before it
+     * Each rental is reported once. If the listener throws, the sweep stops, and the rentals not yet reported are
+     * reported by the next call.
+     *
+     * @param today  the date to sweep up to, sweeping to an earlier date than before does nothing
+     * @return the number of rentals reported
+     */
+    public synchronized int advanceTo(LocalDate today) {
+        int targetDay = DayCounter.toEpochDay(today);
+        int numReported = 0;
+        while (currentDay <= targetDay) {
+            numReported += sweep(wheel[currentDay & WHEEL_MASK]);
+            if (currentDay == targetDay) break;
+            currentDay++;
+            // the bucket just swept now stands for the last day of the wheel, which may have been waiting in overflow
+            Bucket arriving = overflow.remove(currentDay + WHEEL_MASK);
+            if (arriving != null) wheel[(currentDay + WHEEL_MASK) & WHEEL_MASK].addAll(arriving);
+        }
+        return numReported;
+    }
+
+    private int sweep(Bucket bucket) {
+        int numReported = 0;
+        // entries are taken off the bucket before the listener is called, so a throwing listener loses none
+        while (bucket.size > 0) {
+            long rentalId = bucket.rentalIds[--bucket.size];
+            int slot = slotOf(rentalId);
+            if (slot < 0) continue;
+            reported[slot] = true;
+            numReported++;
+            listener.overdue(rentalId, agreements[slot], currentDay - dueDays[slot]);
+        }
+        return numReported;
+    }
+
+    private Bucket bucketFor(int sweepDay) {
+        if (sweepDay - currentDay < WHEEL_DAYS) return wheel[sweepDay & WHEEL_MASK];
+        return overflow.computeIfAbsent(sweepDay, day -> new Bucket());
+    }
+
+    private int slotOf(long rentalId) {
+        int slot = (int) rentalId;
+        boolean isOpen = slot >= 0 && slot < numSlots && generations[slot] == (int) (rentalId >>> 32)
+                && agreements[slot] != null;
+        return isOpen ? slot : -1;
+    }
+
+    private int allocateSlot() {
+        if (numFreeSlots > 0) return freeSlots[--numFreeSlots];
+        if (numSlots == agreements.length) {
+            int capacity = numSlots * 2;
+            agreements = Arrays.copyOf(agreements, capacity);
+            dueDays = Arrays.copyOf(dueDays, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            reported = Arrays.copyOf(reported, capacity);
+        }
+        return numSlots++;
+    }
+
+    /**
+     * A growable array of rental ids, all to be swept on the same day
+     */
+    private static final class Bucket {
+        private long[] rentalIds = new long[4];
+        private int size;
+
+        void add(long rentalId) {
+            if (size == rentalIds.length) rentalIds = Arrays.copyOf(rentalIds, size * 2);
+            rentalIds[size++] = rentalId;
+        }
+
+        void addAll(Bucket other) {
+            if (size + other.size > rentalIds.length) {
+                rentalIds = Arrays.copyOf(rentalIds, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.rentalIds, 0, rentalIds, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package demo.rental.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import demo.rental.CheckoutExecutors;
+import demo.rental.CheckoutResult;
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import demo.rental.RentalRequest;
+import demo.rental.inventory.Inventory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * RentalServer serves quotes and checkouts as JSON over HTTP, using only the JDK's built in HttpServer
+ *
+ * Endpoints, all POST:
+ * /quote - prices one rental, ex. {"toolCode":"LADW","rentalDays":3,"discountPercent":10,"checkoutDate":"2020-07-02"}
+ * /checkout - like /quote, but also reserves a unit of the tool if the server has an Inventory
+ * /return - releases a unit reserved by /checkout back to the Inventory, ex. {"toolCode":"LADW"}
+ * /batch - prices a JSON array of at most MAX_BATCH_SIZE rentals, answering with an array of agreements or
+ * {"error":...} in request order
+ *
+ * discountPercent is optional and defaults to 0. Malformed JSON and rejected checkouts are answered with status 400 and
+ * an error message, bodies over MAX_BODY_BYTES and oversized batches with 413, and anything unexpected with 500.
+ * Every response has a Content-Length, so clients can keep connections alive across requests.
+ */
+public final class RentalServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int MAX_BODY_BYTES = 1 << 20;
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private final HttpServer server;
+    private final Supplier<RentalCatalog> catalog;
+    private final Inventory inventory;
+
+    /**
+     * Starts a RentalServer
+     *
+     * @param address  the address to listen on, port 0 picks any free port
+     * @param catalog  supplies the RentalCatalog to price each request against, ex. ReloadingCatalog::current
+     * @param inventory  the Inventory checkouts reserve tools from, or null if checkouts are not reserved
+     * @param executor  the Executor requests are handled on
+     * @throws IOException if the server cannot listen on the address
+     */
+    public RentalServer(InetSocketAddress address, Supplier<RentalCatalog> catalog, Inventory inventory,
+                        Executor executor) throws IOException {
+        this.catalog = catalog;
+        this.inventory = inventory;
+        this.server = HttpServer.create(address, 0);
+        server.createContext("/quote", exchange -> handle(exchange, this::quote));
+        server.createContext("/checkout", exchange -> handle(exchange, this::checkout));
+        server.createContext("/return", exchange -> handle(exchange, this::returnTool));
+        server.createContext("/batch", exchange -> handle(exchange, this::batch));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Starts a RentalServer on the given port, pricing against the default RentalCatalog without an Inventory
+     * Requests are handled on virtual threads if the runtime supports them, otherwise on a bounded pool
+     *
+     * @param port  the port to listen on, 0 picks any free port
+     * @throws IOException if the server cannot listen on the port
+     */
+    public RentalServer(int port) throws IOException {
+        this(new InetSocketAddress(port), preload(RentalCatalog.getDefault()), null, CheckoutExecutors.getDefault());
+    }
+
+    private static Supplier<RentalCatalog> preload(RentalCatalog catalog) {
+        return () -> catalog;
+    }
+
+    /**
+     * Runs a RentalServer until the process is stopped
+     *
+     * @param args  optionally the port to listen on, defaults to 8080
+     * @throws IOException if the server cannot listen on the port
+     */
+    public static void main(String[] args) throws IOException {
+        // responses are written as headers then body, which Nagle's algorithm holds back until the client's delayed
+        // ACK, costing tens of milliseconds per request on a kept-alive connection. The JDK only reads this property
+        // when its first HttpServer is created, and an explicit setting is left alone. Embedding applications can set
+        // it themselves, since it applies to every HttpServer in the JVM.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        RentalServer server = new RentalServer(args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+        System.out.println("Rental server listening on port " + server.getPort());
+    }
+
+    /**
+     * @return the port the server is listening on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, without waiting for requests in progress
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private interface Endpoint {
+        String respond(Object body) throws Exception;
+    }
+
+    private static final class PayloadTooLargeException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        PayloadTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            String declaredLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (declaredLength != null && isOverLimit(declaredLength)) {
+                // the body is left unread, so the connection cannot be reused
+                exchange.getResponseHeaders().set("Connection", "close");
+                send(exchange, 413, error("Request body larger than " + MAX_BODY_BYTES + " bytes"));
+                return;
+            }
+            // the body is read to the end when it fits, which lets the connection be reused
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readNBytes(MAX_BODY_BYTES + 1);
+            }
+            if (requestBody.length > MAX_BODY_BYTES) {
+                exchange.getResponseHeaders().set("Connection", "close");
+                send(exchange, 413, error("Request body larger than " + MAX_BODY_BYTES + " bytes"));
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, error("Method not allowed: " + exchange.getRequestMethod()));
+                return;
+            }
+            Object body;
+            try {
+                body = Json.parse(new String(requestBody, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException malformed) {
+                send(exchange, 400, error(malformed.getMessage()));
+                return;
+            }
+            String response;
+            try {
+                response = endpoint.respond(body);
+            } catch (PayloadTooLargeException tooLarge) {
+                send(exchange, 413, error(tooLarge.getMessage()));
+                return;
+            } catch (RuntimeException unexpected) {
+                // checkouts report invalid requests with checked Exceptions, so anything unchecked is a bug
+                send(exchange, 500, error("Internal error: " + unexpected));
+                return;
+            } catch (Exception invalid) {
+                send(exchange, 400, error(invalid.getMessage()));
+                return;
+            } catch (Throwable throwable) {
+                // every request gets an answer, even if pricing fails with an Error
+                send(exchange, 500, error("Internal error: " + throwable));
+                return;
+            }
+            send(exchange, 200, response);
+        }
+    }
+
+    private static boolean isOverLimit(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim()) > MAX_BODY_BYTES;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String quote(Object body) throws Exception {
+        RentalRequest request = toRequest(body);
+        RentalAgreement agreement = Rental.checkout(catalog.get(), request.toolCode(), request.numRentalDays(),
+                request.discountPercent(), request.checkoutDate());
+        return appendAgreement(new StringBuilder(384), agreement).toString();
+    }
+
+    private String checkout(Object body) throws Exception {
+        if (inventory == null) return quote(body);
+        RentalRequest request = toRequest(body);
+        RentalAgreement agreement = Rental.checkout(catalog.get(), inventory, request.toolCode(),
+                request.numRentalDays(), request.discountPercent(), request.checkoutDate());
+        return appendAgreement(new StringBuilder(384), agreement).toString();
+    }
+
+    private String returnTool(Object body) throws Exception {
+        if (inventory == null) throw new Exception("Returns are not tracked, this server has no inventory");
+        if (!(body instanceof Map<?, ?> fields)) throw new Exception("Expected a JSON object");
+        if (!(fields.get("toolCode") instanceof String toolCode)) throw new Exception("toolCode must be a string");
+        try {
+            inventory.release(toolCode);
+        } catch (IllegalArgumentException | IllegalStateException notReserved) {
+            throw new Exception(notReserved.getMessage());
+        }
+        StringBuilder out = Json.appendString(new StringBuilder("{\"toolCode\":"), toolCode);
+        return out.append(",\"available\":").append(inventory.available(toolCode)).append('}').toString();
+    }
+
+    private String batch(Object body) throws Exception {
+        if (!(body instanceof List<?> items)) throw new Exception("Expected a JSON array of rentals");
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new PayloadTooLargeException("Batch of " + items.size() + " rentals is larger than " + MAX_BATCH_SIZE);
+        }
+        List<RentalRequest> requests = new ArrayList<>(items.size());
+        for (Object item : items) requests.add(toRequest(item));
+        List<CheckoutResult> results = Rental.checkoutAll(catalog.get(), requests,
+                Rental.DEFAULT_PARALLELISM_THRESHOLD);
+
+        StringBuilder out = new StringBuilder(384 * results.size() + 2).append('[');
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) out.append(',');
+            CheckoutResult result = results.get(i);
+            if (result.isSuccess()) {
+                appendAgreement(out, result.agreement());
+            } else {
+                Json.appendString(out.append("{\"error\":"), String.valueOf(result.error().getMessage())).append('}');
+            }
+        }
+        return out.append(']').toString();
+    }
+
+    private static RentalRequest toRequest(Object json) throws Exception {
+        if (!(json instanceof Map<?, ?> fields)) throw new Exception("Expected a JSON object");
+        Object toolCode = fields.get("toolCode");
+        if (!(toolCode instanceof String)) throw new Exception("toolCode must be a string");
+        Object checkoutDate = fields.get("checkoutDate");
+        if (!(checkoutDate instanceof String)) throw new Exception("checkoutDate must be a date like 2020-07-02");
+        try {
+            return new RentalRequest((String) toolCode, toInt(fields.get("rentalDays"), "rentalDays"),
+                    fields.containsKey("discountPercent") ? toInt(fields.get("discountPercent"), "discountPercent") : 0,
+                    LocalDate.parse((String) checkoutDate));
+        } catch (DateTimeParseException e) {
+            throw new Exception("checkoutDate must be a date like 2020-07-02");
+        }
+    }
+
+    private static int toInt(Object value, String name) throws Exception {
+        if (!(value instanceof Long number) || number != number.intValue())
+            throw new Exception(name + " must be a whole number");
+        return number.intValue();
+    }
+
+    private static String error(String message) {
+        return Json.appendString(new StringBuilder("{\"error\":"), String.valueOf(message)).append('}').toString();
+    }
+
+    private static StringBuilder appendAgreement(StringBuilder out, RentalAgreement agreement) {
+        Json.appendString(out.append("{\"toolCode\":"), agreement.getTool().code());
+        Json.appendString(out.append(",\"toolType\":"), agreement.getTool().type());
+        Json.appendString(out.append(",\"toolBrand\":"), agreement.getTool().brand());
+        out.append(",\"rentalDays\":").append(agreement.getNumRentalDays());
+        out.append(",\"checkoutDate\":\"").append(agreement.getCheckoutDate()).append('"');
+        out.append(",\"dueDate\":\"").append(agreement.getDueDate()).append('"');
+        out.append(",\"dailyChargeCents\":").append(agreement.getChargePolicy().dailyChargeCents());
+        out.append(",\"chargeDays\":").append(agreement.getNumChargeDays());
+        out.append(",\"preDiscountChargeCents\":").append(agreement.getPreDiscountCharge());
+        out.append(",\"discountPercent\":").append(agreement.getDiscountPercent());
+        out.append(",\"discountAmountCents\":").append(agreement.getDiscountAmount());
+        out.append(",\"finalChargeCents\":").append(agreement.getFinalCharge());
+        out.append(",\"catalogVersion\":").append(agreement.getCatalogVersion());
+        return out.append('}');
+    }
+}
@@ -0,0 +1,130 @@
+package demo.rental.snapshot;
+
+import demo.rental.RentalCatalog;
+import demo.rental.dates.HolidayLookup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static demo.rental.snapshot.SnapshotFormat.*;
+
+/**
+ * A CatalogSnapshot is a compiled catalog snapshot file, memory mapped read only.
+ *
+ * Opening a snapshot maps the file instead of parsing it, and the lookups it provides answer straight from the mapped
+ * pages. Since the pages belong to the OS page cache, every JVM on a host which maps the same file shares one copy
+ * of the catalog instead of each holding its own on the heap.
+ *
+ * Snapshot files are written by CatalogSnapshotCompiler.
+ */
+public final class CatalogSnapshot {
+    private final ByteBuffer buffer;
+    private final long catalogVersion;
+    private final MappedToolLookup toolLookup;
+    private final MappedChargePolicyLookup policyLookup;
+    private final MappedHolidayLookup holidayLookup;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_OFFSET) != MAGIC)
+            throw new IOException("Not a catalog snapshot");
+        if (buffer.getInt(FORMAT_VERSION_OFFSET) != FORMAT_VERSION)
+            throw new IOException("Unsupported catalog snapshot format: " + buffer.getInt(FORMAT_VERSION_OFFSET));
+        this.catalogVersion = buffer.getLong(CATALOG_VERSION_OFFSET);
+        this.toolLookup = new MappedToolLookup(this);
+        this.policyLookup = new MappedChargePolicyLookup(this);
+        this.holidayLookup = new MappedHolidayLookup(this);
+    }
+
+    /**
+     * Maps a snapshot file read only
+     *
+     * @param path  the path to a snapshot file written by CatalogSnapshotCompiler
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be mapped or is not a snapshot
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Catalog snapshot too large: " + path);
+            // the mapping stays valid after the channel is closed
+            return new CatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return the version the snapshot was compiled with
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public MappedToolLookup getToolLookup() {
+        return toolLookup;
+    }
+
+    public MappedChargePolicyLookup getPolicyLookup() {
+        return policyLookup;
+    }
+
+    public HolidayLookup getHolidayLookup() {
+        return holidayLookup;
+    }
+
+    /**
+     * @return a RentalCatalog backed by this snapshot, with the snapshot's catalog version
+     */
+    public RentalCatalog toRentalCatalog() {
+        return new RentalCatalog(toolLookup, policyLookup, holidayLookup, RentalCatalog.DEFAULT_FIRST_INDEXED_YEAR,
+                RentalCatalog.DEFAULT_LAST_INDEXED_YEAR, catalogVersion);
+    }
+
+    // the methods below only use absolute reads, so the one shared buffer is safe to read from any thread
+
+    int getInt(int offset) {
+        return buffer.getInt(offset);
+    }
+
+    long getLong(int offset) {
+        return buffer.getLong(offset);
+    }
+
+    /**
+     * Finds a key in one of the snapshot's hash tables
+     *
+     * @param key  the tool code or tool type to find
+     * @param tableOffset  the file offset of the table
+     * @param capacity  the number of slots in the table
+     * @param entriesOffset  the file offset of the entries the table indexes
+     * @param entrySize  the size of each entry
+     * @param keyField  the offset within an entry of the key's string id
+     * @return the file offset of the matching entry, or -1 if the key is not found
+     */
+    int findEntry(String key, int tableOffset, int capacity, int entriesOffset, int entrySize, int keyField) {
+        if (key == null) return -1;
+        for (int slot = firstSlot(key, capacity); ; slot = (slot + 1) & (capacity - 1)) {
+            int indexPlusOne = buffer.getInt(tableOffset + slot * TABLE_SLOT_SIZE);
+            if (indexPlusOne == 0) return -1;
+            int entry = entriesOffset + (indexPlusOne - 1) * entrySize;
+            if (stringEquals(buffer.getInt(entry + keyField), key)) return entry;
+        }
+    }
+
+    private boolean stringEquals(int stringId, String value) {
+        int indexEntry = buffer.getInt(STRING_INDEX_OFFSET) + stringId * STRING_ENTRY_SIZE;
+        return equalsUtf8(buffer, buffer.getInt(indexEntry), buffer.getInt(indexEntry + 4), value);
+    }
+
+    /**
+     * Decodes one of the snapshot's Strings onto the heap
+     */
+    String getString(int stringId) {
+        int indexEntry = buffer.getInt(STRING_INDEX_OFFSET) + stringId * STRING_ENTRY_SIZE;
+        byte[] bytes = new byte[buffer.getInt(indexEntry + 4)];
+        buffer.get(buffer.getInt(indexEntry), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
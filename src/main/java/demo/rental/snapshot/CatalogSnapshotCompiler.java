@@ -0,0 +1,198 @@
+package demo.rental.snapshot;
+
+import demo.rental.charge.ChargePolicy;
+import demo.rental.csv.MappedCSVReader;
+import demo.rental.dates.ClosestWeekdayHoliday;
+import demo.rental.dates.FixedHoliday;
+import demo.rental.dates.Holiday;
+import demo.rental.dates.HolidayLookupCSV;
+import demo.rental.dates.RelativeHoliday;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static demo.rental.snapshot.SnapshotFormat.*;
+
+/**
+ * CatalogSnapshotCompiler compiles the catalog .csv files into a single binary snapshot file, which CatalogSnapshot
+ * can then memory map. See SnapshotFormat for the layout.
+ *
+ * Usage: java demo.rental.snapshot.CatalogSnapshotCompiler [outputFile] [catalogVersion] [csvDirectory]
+ * By default the csv/ directory is compiled to csv/catalog.snapshot with the current time as the catalog version.
+ */
+public final class CatalogSnapshotCompiler {
+    private CatalogSnapshotCompiler() {}
+
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of(args.length > 0 ? args[0] : "csv/catalog.snapshot");
+        long catalogVersion = args.length > 1 ? Long.parseLong(args[1]) : System.currentTimeMillis();
+        Path directory = Path.of(args.length > 2 ? args[2] : "csv");
+        compile(directory.resolve("Tools.csv").toString(), directory.resolve("ChargePolicies.csv").toString(),
+                directory.resolve("Holidays.csv").toString(), output, catalogVersion);
+    }
+
+    /**
+     * Compiles three catalog .csv files into a snapshot file
+     * The file is written next to the output and then moved into place, so readers never see a partial snapshot
+     *
+     * @param toolsPath  the path to a .csv file containing Tool data
+     * @param policiesPath  the path to a .csv file containing ChargePolicy data
+     * @param holidaysPath  the path to a .csv file containing holiday data
+     * @param output  the snapshot file to write
+     * @param catalogVersion  the version recorded in the snapshot, and on agreements priced from it
+     * @throws IOException if a .csv file cannot be read or the snapshot cannot be written
+     * @throws IllegalArgumentException if a .csv file contains a malformed number or an unknown holiday type
+     */
+    public static void compile(String toolsPath, String policiesPath, String holidaysPath, Path output,
+                               long catalogVersion) throws IOException {
+        StringTable strings = new StringTable();
+
+        // later rows replace earlier rows with the same key, the same as the *LookupCSV classes
+        Map<String, int[]> tools = new LinkedHashMap<>();
+        MappedCSVReader.read(toolsPath, 3, row -> {
+            String code = row.getString(2);
+            tools.put(code, new int[]{strings.idOf(code), strings.idOf(row.getString(0)), strings.idOf(row.getString(1))});
+        });
+        Map<String, ChargePolicy> policies = new LinkedHashMap<>();
+        MappedCSVReader.read(policiesPath, 5, row -> policies.put(row.getString(0), new ChargePolicy(row.getLong(1),
+                row.fieldEqualsIgnoreCase(2, "yes"), row.fieldEqualsIgnoreCase(3, "yes"),
+                row.fieldEqualsIgnoreCase(4, "yes"))));
+        policies.keySet().forEach(strings::idOf);
+        List<Holiday> holidays = HolidayLookupCSV.load(holidaysPath).getAllHolidays();
+
+        int stringIndexOffset = HEADER_SIZE;
+        int stringDataOffset = stringIndexOffset + strings.size() * STRING_ENTRY_SIZE;
+        int toolsOffset = align(stringDataOffset + strings.dataLength);
+        int toolTableCapacity = tableCapacity(tools.size());
+        int toolTableOffset = toolsOffset + tools.size() * TOOL_ENTRY_SIZE;
+        int policiesOffset = align(toolTableOffset + toolTableCapacity * TABLE_SLOT_SIZE);
+        int policyTableCapacity = tableCapacity(policies.size());
+        int policyTableOffset = policiesOffset + policies.size() * POLICY_ENTRY_SIZE;
+        int holidaysOffset = align(policyTableOffset + policyTableCapacity * TABLE_SLOT_SIZE);
+        long fileSize = (long) holidaysOffset + (long) holidays.size() * HOLIDAY_ENTRY_SIZE;
+        if (fileSize > Integer.MAX_VALUE) throw new IOException("Catalog too large for a snapshot: " + fileSize + " bytes");
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+        buffer.putInt(MAGIC_OFFSET, MAGIC)
+                .putInt(FORMAT_VERSION_OFFSET, FORMAT_VERSION)
+                .putLong(CATALOG_VERSION_OFFSET, catalogVersion)
+                .putInt(STRING_COUNT_OFFSET, strings.size())
+                .putInt(STRING_INDEX_OFFSET, stringIndexOffset)
+                .putInt(TOOL_COUNT_OFFSET, tools.size())
+                .putInt(TOOLS_OFFSET, toolsOffset)
+                .putInt(TOOL_TABLE_CAPACITY_OFFSET, toolTableCapacity)
+                .putInt(TOOL_TABLE_OFFSET, toolTableOffset)
+                .putInt(POLICY_COUNT_OFFSET, policies.size())
+                .putInt(POLICIES_OFFSET, policiesOffset)
+                .putInt(POLICY_TABLE_CAPACITY_OFFSET, policyTableCapacity)
+                .putInt(POLICY_TABLE_OFFSET, policyTableOffset)
+                .putInt(HOLIDAY_COUNT_OFFSET, holidays.size())
+                .putInt(HOLIDAYS_OFFSET, holidaysOffset);
+
+        int dataPosition = stringDataOffset;
+        for (int id = 0; id < strings.size(); id++) {
+            byte[] bytes = strings.bytes.get(id);
+            buffer.putInt(stringIndexOffset + id * STRING_ENTRY_SIZE, dataPosition);
+            buffer.putInt(stringIndexOffset + id * STRING_ENTRY_SIZE + 4, bytes.length);
+            buffer.put(dataPosition, bytes);
+            dataPosition += bytes.length;
+        }
+
+        int index = 0;
+        for (Map.Entry<String, int[]> tool : tools.entrySet()) {
+            int entry = toolsOffset + index * TOOL_ENTRY_SIZE;
+            buffer.putInt(entry, tool.getValue()[0]).putInt(entry + 4, tool.getValue()[1])
+                    .putInt(entry + 8, tool.getValue()[2]);
+            insert(buffer, toolTableOffset, toolTableCapacity, tool.getKey(), index++);
+        }
+
+        index = 0;
+        for (Map.Entry<String, ChargePolicy> policy : policies.entrySet()) {
+            int entry = policiesOffset + index * POLICY_ENTRY_SIZE;
+            ChargePolicy chargePolicy = policy.getValue();
+            int flags = (chargePolicy.isChargedWeekdays() ? CHARGED_WEEKDAYS : 0)
+                    | (chargePolicy.isChargedWeekends() ? CHARGED_WEEKENDS : 0)
+                    | (chargePolicy.isChargedHolidays() ? CHARGED_HOLIDAYS : 0);
+            buffer.putInt(entry, strings.idOf(policy.getKey())).putInt(entry + 4, flags)
+                    .putLong(entry + 8, chargePolicy.dailyChargeCents());
+            insert(buffer, policyTableOffset, policyTableCapacity, policy.getKey(), index++);
+        }
+
+        index = 0;
+        for (Holiday holiday : holidays) {
+            putHoliday(buffer, holidaysOffset + index++ * HOLIDAY_ENTRY_SIZE, holiday);
+        }
+
+        Path temporary = output.resolveSibling(output.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.rewind();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    private static void insert(ByteBuffer buffer, int tableOffset, int capacity, String key, int index) {
+        for (int slot = firstSlot(key, capacity); ; slot = (slot + 1) & (capacity - 1)) {
+            int position = tableOffset + slot * TABLE_SLOT_SIZE;
+            if (buffer.getInt(position) == 0) {
+                buffer.putInt(position, index + 1);
+                return;
+            }
+        }
+    }
+
+    private static void putHoliday(ByteBuffer buffer, int entry, Holiday holiday) {
+        if (holiday instanceof FixedHoliday fixed) {
+            buffer.putInt(entry, FIXED_HOLIDAY).putInt(entry + 4, fixed.month()).putInt(entry + 8, fixed.dayOfMonth());
+        } else if (holiday instanceof ClosestWeekdayHoliday closestWeekday) {
+            buffer.putInt(entry, CLOSEST_WEEKDAY_HOLIDAY).putInt(entry + 4, closestWeekday.getMonth())
+                    .putInt(entry + 8, closestWeekday.getDayOfMonth());
+        } else if (holiday instanceof RelativeHoliday relative) {
+            buffer.putInt(entry, RELATIVE_HOLIDAY).putInt(entry + 4, relative.weekOfMonth())
+                    .putInt(entry + 8, relative.dayOfWeek()).putInt(entry + 12, relative.month());
+        } else {
+            throw new IllegalArgumentException("Holiday type cannot be compiled: " + holiday.getClass().getName());
+        }
+    }
+
+    /**
+     * Assigns each distinct String an id, so repeated types and brands are stored once
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<byte[]> bytes = new ArrayList<>();
+        private int dataLength;
+
+        private int idOf(String value) {
+            return ids.computeIfAbsent(value, newValue -> {
+                byte[] encoded = newValue.getBytes(StandardCharsets.UTF_8);
+                bytes.add(encoded);
+                dataLength += encoded.length;
+                return bytes.size() - 1;
+            });
+        }
+
+        private int size() {
+            return bytes.size();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package demo.rental.snapshot;
+
+import demo.rental.charge.ChargePolicy;
+import demo.rental.charge.ChargePolicyLookup;
+
+import static demo.rental.snapshot.SnapshotFormat.*;
+
+/**
+ * A ChargePolicyLookup which answers from a memory mapped CatalogSnapshot
+ */
+public final class MappedChargePolicyLookup implements ChargePolicyLookup {
+    private final CatalogSnapshot snapshot;
+    private final int policiesOffset;
+    private final int tableOffset;
+    private final int tableCapacity;
+
+    MappedChargePolicyLookup(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.policiesOffset = snapshot.getInt(POLICIES_OFFSET);
+        this.tableOffset = snapshot.getInt(POLICY_TABLE_OFFSET);
+        this.tableCapacity = snapshot.getInt(POLICY_TABLE_CAPACITY_OFFSET);
+    }
+
+    /**
+     * @param type A string identifying the tool type
+     * @return a new ChargePolicy matching the given tool type, or null if a matching ChargePolicy couldn't be found
+     */
+    @Override
+    public ChargePolicy getChargePolicyFromToolType(String type) {
+        int entry = snapshot.findEntry(type, tableOffset, tableCapacity, policiesOffset, POLICY_ENTRY_SIZE, 0);
+        if (entry < 0) return null;
+        int flags = snapshot.getInt(entry + 4);
+        return new ChargePolicy(snapshot.getLong(entry + 8), (flags & CHARGED_WEEKDAYS) != 0,
+                (flags & CHARGED_WEEKENDS) != 0, (flags & CHARGED_HOLIDAYS) != 0);
+    }
+}
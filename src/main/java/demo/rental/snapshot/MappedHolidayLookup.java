@@ -0,0 +1,47 @@
+package demo.rental.snapshot;
+
+import demo.rental.dates.ClosestWeekdayHoliday;
+import demo.rental.dates.FixedHoliday;
+import demo.rental.dates.Holiday;
+import demo.rental.dates.HolidayLookup;
+import demo.rental.dates.RelativeHoliday;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static demo.rental.snapshot.SnapshotFormat.*;
+
+/**
+ * A HolidayLookup which reads its holidays from a memory mapped CatalogSnapshot
+ * Holidays are few and every RentalCatalog indexes them anyway, so they are decoded once when the snapshot is opened
+ */
+public final class MappedHolidayLookup implements HolidayLookup {
+    private final List<Holiday> holidays;
+
+    MappedHolidayLookup(CatalogSnapshot snapshot) {
+        int count = snapshot.getInt(HOLIDAY_COUNT_OFFSET);
+        int holidaysOffset = snapshot.getInt(HOLIDAYS_OFFSET);
+        List<Holiday> decoded = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int entry = holidaysOffset + i * HOLIDAY_ENTRY_SIZE;
+            int a = snapshot.getInt(entry + 4);
+            int b = snapshot.getInt(entry + 8);
+            int c = snapshot.getInt(entry + 12);
+            decoded.add(switch (snapshot.getInt(entry)) {
+                case FIXED_HOLIDAY -> new FixedHoliday(a, b);
+                case CLOSEST_WEEKDAY_HOLIDAY -> new ClosestWeekdayHoliday(a, b);
+                case RELATIVE_HOLIDAY -> new RelativeHoliday(a, b, c);
+                default -> throw new IllegalStateException("Unknown holiday kind in snapshot: " + snapshot.getInt(entry));
+            });
+        }
+        this.holidays = List.copyOf(decoded);
+    }
+
+    /**
+     * @return an immutable List of all holidays in the snapshot
+     */
+    @Override
+    public List<Holiday> getAllHolidays() {
+        return holidays;
+    }
+}
@@ -0,0 +1,45 @@
+package demo.rental.snapshot;
+
+import demo.rental.tool.Tool;
+import demo.rental.tool.ToolLookup;
+
+import static demo.rental.snapshot.SnapshotFormat.*;
+
+/**
+ * A ToolLookup which answers from a memory mapped CatalogSnapshot
+ * Each lookup hashes the tool code, probes the mapped table and decodes the type and brand of the match
+ */
+public final class MappedToolLookup implements ToolLookup {
+    private final CatalogSnapshot snapshot;
+    private final int toolsOffset;
+    private final int tableOffset;
+    private final int tableCapacity;
+    private final int size;
+
+    MappedToolLookup(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.toolsOffset = snapshot.getInt(TOOLS_OFFSET);
+        this.tableOffset = snapshot.getInt(TOOL_TABLE_OFFSET);
+        this.tableCapacity = snapshot.getInt(TOOL_TABLE_CAPACITY_OFFSET);
+        this.size = snapshot.getInt(TOOL_COUNT_OFFSET);
+    }
+
+    /**
+     * @param toolCode the unique code for the tool
+     * @return a new Tool matching the given tool code, or null if tool code not found
+     */
+    @Override
+    public Tool getToolFromCode(String toolCode) {
+        int entry = snapshot.findEntry(toolCode, tableOffset, tableCapacity, toolsOffset, TOOL_ENTRY_SIZE, 0);
+        if (entry < 0) return null;
+        return new Tool(snapshot.getString(snapshot.getInt(entry + 4)), snapshot.getString(snapshot.getInt(entry + 8)),
+                toolCode);
+    }
+
+    /**
+     * @return the number of tools in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+}
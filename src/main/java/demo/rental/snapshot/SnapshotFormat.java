@@ -0,0 +1,106 @@
+package demo.rental.snapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The layout of a compiled catalog snapshot file, shared by CatalogSnapshotCompiler and CatalogSnapshot
+ *
+ * All numbers are big endian and all offsets are absolute file offsets.
+ *
+ * Header, 64 bytes:
+ *   0  int   magic "RCAT"
+ *   4  int   format version
+ *   8  long  catalog version
+ *   16 int   string count        20 int string index offset (entries: int offset, int length of UTF-8 bytes)
+ *   24 int   tool count          28 int tools offset (entries: int code, int type, int brand string ids)
+ *   32 int   tool table capacity 36 int tool table offset (int slots holding tool index + 1, 0 when empty)
+ *   40 int   policy count        44 int policies offset (entries: int type string id, int flags, long cents)
+ *   48 int   policy table capacity 52 int policy table offset
+ *   56 int   holiday count       60 int holidays offset (entries: int kind, int a, int b, int c)
+ *
+ * Tool and policy tables are open addressing hash tables over String.hashCode of the tool code or tool type, which
+ * is fixed by the Java specification and so is the same in every JVM.
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x52434154;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int FORMAT_VERSION_OFFSET = 4;
+    static final int CATALOG_VERSION_OFFSET = 8;
+    static final int STRING_COUNT_OFFSET = 16;
+    static final int STRING_INDEX_OFFSET = 20;
+    static final int TOOL_COUNT_OFFSET = 24;
+    static final int TOOLS_OFFSET = 28;
+    static final int TOOL_TABLE_CAPACITY_OFFSET = 32;
+    static final int TOOL_TABLE_OFFSET = 36;
+    static final int POLICY_COUNT_OFFSET = 40;
+    static final int POLICIES_OFFSET = 44;
+    static final int POLICY_TABLE_CAPACITY_OFFSET = 48;
+    static final int POLICY_TABLE_OFFSET = 52;
+    static final int HOLIDAY_COUNT_OFFSET = 56;
+    static final int HOLIDAYS_OFFSET = 60;
+
+    static final int STRING_ENTRY_SIZE = 8;
+    static final int TOOL_ENTRY_SIZE = 12;
+    static final int POLICY_ENTRY_SIZE = 16;
+    static final int HOLIDAY_ENTRY_SIZE = 16;
+    static final int TABLE_SLOT_SIZE = 4;
+
+    static final int CHARGED_WEEKDAYS = 1;
+    static final int CHARGED_WEEKENDS = 2;
+    static final int CHARGED_HOLIDAYS = 4;
+
+    static final int FIXED_HOLIDAY = 0;
+    static final int CLOSEST_WEEKDAY_HOLIDAY = 1;
+    static final int RELATIVE_HOLIDAY = 2;
+
+    private SnapshotFormat() {}
+
+    /**
+     * @return the capacity of a hash table for the given number of entries, a power of two at most half full
+     */
+    static int tableCapacity(int numEntries) {
+        return Integer.highestOneBit(Math.max(2, numEntries) * 2 - 1) << 1;
+    }
+
+    /**
+     * @return the first slot to probe for a key, in a table of the given power of two capacity
+     */
+    static int firstSlot(String key, int capacity) {
+        // spread similar hash codes, such as those of short sequential tool codes, across the table
+        int mixed = key.hashCode() * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 16)) & (capacity - 1);
+    }
+
+    /**
+     * Compares UTF-8 bytes in a buffer to a String, without decoding the bytes into a new String
+     */
+    static boolean equalsUtf8(ByteBuffer buffer, int offset, int length, String value) {
+        int position = offset;
+        int end = offset + length;
+        int index = 0;
+        while (position < end) {
+            int b = buffer.get(position) & 0xFF;
+            int codePoint;
+            if (b < 0x80) {
+                codePoint = b;
+                position += 1;
+            } else if (b < 0xE0) {
+                codePoint = (b & 0x1F) << 6 | buffer.get(position + 1) & 0x3F;
+                position += 2;
+            } else if (b < 0xF0) {
+                codePoint = (b & 0x0F) << 12 | (buffer.get(position + 1) & 0x3F) << 6 | buffer.get(position + 2) & 0x3F;
+                position += 3;
+            } else {
+                codePoint = (b & 0x07) << 18 | (buffer.get(position + 1) & 0x3F) << 12
+                        | (buffer.get(position + 2) & 0x3F) << 6 | buffer.get(position + 3) & 0x3F;
+                position += 4;
+            }
+            if (index >= value.length() || value.codePointAt(index) != codePoint) return false;
+            index += Character.charCount(codePoint);
+        }
+        return index == value.length();
+    }
+}
@@ -0,0 +1,98 @@
+package demo.rental.tool;
+
+/**
+ * A minimal open addressing hash map from positive long keys to int values, with no boxing and no per entry objects
+ *
+ * Uses linear probing over a power of two table which is kept at most half full. Keys must be greater than zero,
+ * since zero marks an empty slot.
+ */
+final class LongIntHashMap {
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize);
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the value for the key, or missingValue if the key is not in the map
+     */
+    int get(long key, int missingValue) {
+        if (key <= EMPTY) return missingValue;
+        for (int slot = slotFor(key, mask); ; slot = (slot + 1) & mask) {
+            long slotKey = keys[slot];
+            if (slotKey == key) return values[slot];
+            if (slotKey == EMPTY) return missingValue;
+        }
+    }
+
+    /**
+     * Adds or replaces the value for a key
+     */
+    void put(long key, int value) {
+        if (key <= EMPTY) throw new IllegalArgumentException("key must be greater than zero: " + key);
+        if ((size + 1) * 2 > keys.length) grow();
+        for (int slot = slotFor(key, mask); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        rehash(keys.length * 2);
+    }
+
+    /**
+     * Shrinks the table to the smallest capacity which is no more than half full, once all entries have been added
+     */
+    void trim() {
+        int capacity = tableSizeFor(size);
+        if (capacity < keys.length) rehash(capacity);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    // packed codes share long runs of leading bytes, so mix all bits before masking (the murmur3 64 bit finalizer)
+    private static int slotFor(long key, int mask) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
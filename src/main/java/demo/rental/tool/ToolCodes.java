@@ -0,0 +1,57 @@
+package demo.rental.tool;
+
+/**
+ * Utilities for packing short tool codes like "LADW" into a single long
+ *
+ * A code of 1 to 8 ASCII characters is packed one character per byte, first character in the highest byte, and
+ * padded with zero bytes. Since ASCII characters never set the top bit, packed codes are always positive, and distinct
+ * codes always pack to distinct keys.
+ */
+public final class ToolCodes {
+    /**
+     * Returned by pack for codes which cannot be packed
+     */
+    public static final long NOT_PACKABLE = -1;
+
+    private static final int MAX_PACKED_LENGTH = 8;
+
+    private ToolCodes() {}
+
+    /**
+     * Packs a tool code into a long, without allocating
+     *
+     * @param toolCode  the tool code to pack
+     * @return the packed code, or NOT_PACKABLE if the code is null, empty, longer than 8 characters, or contains
+     * characters outside ASCII
+     */
+    public static long pack(String toolCode) {
+        if (toolCode == null) return NOT_PACKABLE;
+        int length = toolCode.length();
+        if (length == 0 || length > MAX_PACKED_LENGTH) return NOT_PACKABLE;
+        long packed = 0;
+        for (int i = 0; i < MAX_PACKED_LENGTH; i++) {
+            int c = i < length ? toolCode.charAt(i) : 0;
+            if (c > 0x7F || (c == 0 && i < length)) return NOT_PACKABLE;
+            packed = (packed << 8) | c;
+        }
+        return packed;
+    }
+
+    /**
+     * Unpacks a code packed by pack
+     *
+     * @param packed  a packed tool code
+     * @return the tool code as a String
+     */
+    public static String unpack(long packed) {
+        if (packed <= 0) throw new IllegalArgumentException("not a packed tool code: " + packed);
+        char[] chars = new char[MAX_PACKED_LENGTH];
+        int length = 0;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            char c = (char) ((packed >>> shift) & 0xFF);
+            if (c == 0) break;
+            chars[length++] = c;
+        }
+        return new String(chars, 0, length);
+    }
+}
@@ -1,18 +1,19 @@
 package demo.rental.tool;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import demo.rental.csv.MappedCSVReader;
+
+import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Scanner;
 
 /**
  * The ToolLookupCSV class is an implementation of the ToolLookup interface.
  *
- * It generates Tool objects based on data in a given .csv file
+ * It generates Tool objects based on data in a given .csv file, which is read through a MappedCSVReader
  */
 public class ToolLookupCSV implements ToolLookup {
-    private final Map<String, Tool> tools = new HashMap<>();
+    private final Map<String, Tool> tools;
 
     /**
      * Constructs a ToolLookupCSV instance and loads Tools based on the give .csv file
@@ -20,7 +21,30 @@ public class ToolLookupCSV implements ToolLookup {
      * @param filePath  the path to a .csv file containing Tool data
      */
     public ToolLookupCSV(String filePath) {
-        loadToolsFromCSV(filePath);
+        this(loadToolsFromCSV(filePath));
+    }
+
+    private ToolLookupCSV(Map<String, Tool> tools) {
+        this.tools = Collections.unmodifiableMap(tools);
+    }
+
+    /**
+     * Loads a ToolLookupCSV from the given .csv file, failing instead of returning whatever could be read
+     *
+     * @param filePath  the path to a .csv file containing Tool data
+     * @return a new ToolLookupCSV containing every Tool in the file
+     * @throws IOException if the file cannot be read
+     * @throws IndexOutOfBoundsException if a line has fewer than 3 fields
+     */
+    public static ToolLookupCSV load(String filePath) throws IOException {
+        return new ToolLookupCSV(readToolsFromCSV(filePath));
+    }
+
+    /**
+     * @return the number of tools in the lookup
+     */
+    public int size() {
+        return tools.size();
     }
 
     /**
@@ -32,19 +56,22 @@ public class ToolLookupCSV implements ToolLookup {
         return tools.get(toolCode);
     }
 
-    private void loadToolsFromCSV(String filePath) {
+    private static Map<String, Tool> loadToolsFromCSV(String filePath) {
         try {
-            Scanner scan = new Scanner(new File(filePath));
-            while(scan.hasNextLine()) {
-                // Expect each line to be in the form "Type,Brand,Code"
-                String line = scan.nextLine();
-                String[] lineSplit = line.split(",", 3);
-                // After split lineSplit should look like ["Type", "Brand", "Code"]
-                Tool tool = new Tool(lineSplit[0], lineSplit[1], lineSplit[2]);
-                tools.put(tool.code(), tool);
-            }
-        } catch (FileNotFoundException fileNotFoundException) {
-            System.err.println(fileNotFoundException.getMessage());
+            return readToolsFromCSV(filePath);
+        } catch (IOException ioException) {
+            System.err.println(ioException.getMessage());
+            return new HashMap<>();
         }
     }
+
+    private static Map<String, Tool> readToolsFromCSV(String filePath) throws IOException {
+        Map<String, Tool> tools = new HashMap<>();
+        // Expect each line to be in the form "Type,Brand,Code"
+        MappedCSVReader.read(filePath, 3, row -> {
+            Tool tool = new Tool(row.getString(0), row.getString(1), row.getString(2));
+            tools.put(tool.code(), tool);
+        });
+        return tools;
+    }
 }
@@ -0,0 +1,139 @@
+package demo.rental.tool;
+
+import demo.rental.csv.MappedCSVReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ToolLookupColumnar class is a ToolLookup implementation for very large tool catalogs.
+ *
+ * Instead of keeping a Tool object per tool, it stores the catalog as columns. Each distinct type and brand String is
+ * kept once in a dictionary and every tool refers to them by int id. Tool codes of up to 8 ASCII characters are
+ * packed into a long and found through an open addressing primitive map, so lookups never call String.hashCode or
+ * String.equals. Longer codes are kept in an ordinary map.
+ *
+ * Tool records are created on demand by getToolFromCode, sharing the dictionary Strings.
+ */
+public class ToolLookupColumnar implements ToolLookup {
+    private static final int NOT_FOUND = -1;
+
+    private final String[] types;
+    private final String[] brands;
+    private final int[] typeIds;
+    private final int[] brandIds;
+    private final LongIntHashMap packedCodeIndex;
+    private final Map<String, Integer> unpackableCodeIndex;
+
+    /**
+     * Constructs a ToolLookupColumnar instance and loads Tools based on the given .csv file
+     *
+     * @param filePath  the path to a .csv file containing Tool data, with lines in the form "Type,Brand,Code"
+     */
+    public ToolLookupColumnar(String filePath) {
+        Builder builder = new Builder();
+        try {
+            MappedCSVReader.read(filePath, 3, row -> builder.add(row.getString(0), row.getString(1), row.getString(2)));
+        } catch (IOException ioException) {
+            System.err.println(ioException.getMessage());
+        }
+        this.types = builder.types.toArray(new String[0]);
+        this.brands = builder.brands.toArray(new String[0]);
+        this.typeIds = Arrays.copyOf(builder.typeIds, builder.size);
+        this.brandIds = Arrays.copyOf(builder.brandIds, builder.size);
+        builder.packedCodeIndex.trim();
+        this.packedCodeIndex = builder.packedCodeIndex;
+        this.unpackableCodeIndex = Map.copyOf(builder.unpackableCodeIndex);
+    }
+
+    /**
+     * @param toolCode the unique code for the tool
+     * @return a new Tool matching the given tool code, or null if tool code not found
+     */
+    @Override
+    public Tool getToolFromCode(String toolCode) {
+        int index = indexOf(toolCode);
+        if (index == NOT_FOUND) return null;
+        return new Tool(types[typeIds[index]], brands[brandIds[index]], toolCode);
+    }
+
+    private int indexOf(String toolCode) {
+        long packed = ToolCodes.pack(toolCode);
+        if (packed != ToolCodes.NOT_PACKABLE) return packedCodeIndex.get(packed, NOT_FOUND);
+        if (toolCode == null) return NOT_FOUND;
+        return unpackableCodeIndex.getOrDefault(toolCode, NOT_FOUND);
+    }
+
+    /**
+     * @return the number of tools in the catalog
+     */
+    public int size() {
+        return typeIds.length;
+    }
+
+    /**
+     * @return the number of distinct tool types in the catalog
+     */
+    public int numTypes() {
+        return types.length;
+    }
+
+    /**
+     * @return the number of distinct tool brands in the catalog
+     */
+    public int numBrands() {
+        return brands.length;
+    }
+
+    /**
+     * Collects the columns while the .csv file is read. A later row with the same code replaces the earlier one,
+     * the same as a HashMap would
+     */
+    private static final class Builder {
+        private final List<String> types = new ArrayList<>();
+        private final List<String> brands = new ArrayList<>();
+        private final Map<String, Integer> typeDictionary = new HashMap<>();
+        private final Map<String, Integer> brandDictionary = new HashMap<>();
+        private final LongIntHashMap packedCodeIndex = new LongIntHashMap(1024);
+        private final Map<String, Integer> unpackableCodeIndex = new HashMap<>();
+        private int[] typeIds = new int[1024];
+        private int[] brandIds = new int[1024];
+        private int size;
+
+        private void add(String type, String brand, String code) {
+            int index = indexOf(code);
+            if (index == NOT_FOUND) {
+                index = size++;
+                if (index == typeIds.length) {
+                    typeIds = Arrays.copyOf(typeIds, index + (index >> 1));
+                    brandIds = Arrays.copyOf(brandIds, index + (index >> 1));
+                }
+                long packed = ToolCodes.pack(code);
+                if (packed != ToolCodes.NOT_PACKABLE) {
+                    packedCodeIndex.put(packed, index);
+                } else {
+                    unpackableCodeIndex.put(code, index);
+                }
+            }
+            typeIds[index] = idOf(type, typeDictionary, types);
+            brandIds[index] = idOf(brand, brandDictionary, brands);
+        }
+
+        private int indexOf(String code) {
+            long packed = ToolCodes.pack(code);
+            if (packed != ToolCodes.NOT_PACKABLE) return packedCodeIndex.get(packed, NOT_FOUND);
+            return unpackableCodeIndex.getOrDefault(code, NOT_FOUND);
+        }
+
+        private static int idOf(String value, Map<String, Integer> dictionary, List<String> values) {
+            return dictionary.computeIfAbsent(value, newValue -> {
+                values.add(newValue);
+                return values.size() - 1;
+            });
+        }
+    }
+}
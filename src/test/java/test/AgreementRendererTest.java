@@ -0,0 +1,99 @@
+package test;
+
+import demo.rental.AgreementRenderer;
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgreementRendererTest {
+    private static final String EXPECTED_LADW = """
+            Tool code: LADW
+            Tool type: Ladder
+            Tool brand: Werner
+            Rental days: 3
+            Check out date: 07/02/20
+            Due date: 07/05/20
+            Daily rental charge: $1.99
+            Charge days: 2
+            Pre-discount charge: $3.98
+            Discount percent: 10%
+            Discount amount: $0.40
+            Final charge: $3.58
+            """;
+
+    private static RentalAgreement ladderAgreement() throws Exception {
+        return Rental.checkout("LADW", 3, 10, LocalDate.of(2020, 7, 2));
+    }
+
+    @Test
+    void render_toString() throws Exception {
+        assertEquals(EXPECTED_LADW, AgreementRenderer.render(ladderAgreement()).replace("\r", ""));
+    }
+
+    @Test
+    void render_toByteBuffer() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        AgreementRenderer.render(ladderAgreement(), buffer);
+        buffer.flip();
+        assertEquals(AgreementRenderer.render(ladderAgreement()), StandardCharsets.UTF_8.decode(buffer).toString());
+    }
+
+    @Test
+    void renderAll_flushesOnce() throws Exception {
+        RentalAgreement agreement = ladderAgreement();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int[] flushes = new int[1];
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes.write(b, off, len);
+            }
+
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+        AgreementRenderer.renderAll(List.of(agreement, agreement, agreement), out);
+        String single = AgreementRenderer.render(agreement);
+        String separator = System.lineSeparator();
+        assertEquals(single + separator + single + separator + single, bytes.toString(StandardCharsets.UTF_8));
+        assertEquals(1, flushes[0]);
+    }
+
+    @Test
+    void appendCurrency_matchesNumberFormat() throws IOException {
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
+        currencyFormat.setGroupingUsed(true);
+        long[] amounts = {0, 1, 9, 10, 99, 100, 101, 99999, 100000, 123456, 100000000, 123456789012L, -1, -150};
+        for (long cents : amounts) {
+            StringBuilder out = new StringBuilder();
+            AgreementRenderer.appendCurrency(cents, out);
+            assertEquals(currencyFormat.format(cents / 100.0), out.toString());
+        }
+    }
+
+    @Test
+    void appendCurrency_extremes() throws IOException {
+        StringBuilder out = new StringBuilder();
+        AgreementRenderer.appendCurrency(Long.MIN_VALUE, out);
+        assertEquals("-$92,233,720,368,547,758.08", out.toString());
+    }
+}
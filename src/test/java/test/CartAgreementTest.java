@@ -0,0 +1,66 @@
+package test;
+
+import demo.rental.CartAgreement;
+import demo.rental.CartItem;
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartAgreementTest {
+    private static final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+    private static final RentalCatalog catalog = RentalCatalog.getDefault();
+
+    @Test
+    void lines_matchSingleCheckouts() throws Exception {
+        List<CartItem> items = List.of(new CartItem("LADW", 10), new CartItem("CHNS", 0), new CartItem("JAKR", 50),
+                new CartItem("JAKD", 0), new CartItem("LADW", 100));
+        CartAgreement cart = Rental.checkoutCart(catalog, items, 9, 0, checkoutDate);
+        assertEquals(items.size(), cart.getLines().size());
+        long subtotal = 0;
+        for (int i = 0; i < items.size(); i++) {
+            RentalAgreement expected = Rental.checkout(catalog, items.get(i).toolCode(), 9,
+                    items.get(i).discountPercent(), checkoutDate);
+            RentalAgreement line = cart.getLines().get(i);
+            assertEquals(expected.getTool(), line.getTool());
+            assertEquals(expected.getNumChargeDays(), line.getNumChargeDays());
+            assertEquals(expected.getPreDiscountCharge(), line.getPreDiscountCharge());
+            assertEquals(expected.getDiscountAmount(), line.getDiscountAmount());
+            assertEquals(expected.getFinalCharge(), line.getFinalCharge());
+            assertEquals(expected.getDueDate(), line.getDueDate());
+            subtotal += expected.getFinalCharge();
+        }
+        assertEquals(subtotal, cart.getSubtotal());
+        assertEquals(subtotal, cart.getFinalCharge());
+        assertEquals(LocalDate.of(2020, 7, 11), cart.getDueDate());
+    }
+
+    @Test
+    void cartDiscount_appliedToSubtotal() throws Exception {
+        CartAgreement cart = Rental.checkoutCart(catalog, List.of(new CartItem("LADW", 10), new CartItem("CHNS", 0)),
+                3, 25, checkoutDate);
+        // LADW 2 days at $1.99 less 10% is $3.58, CHNS 1 day at $1.49 is $1.49
+        assertEquals(507, cart.getSubtotal());
+        assertEquals(127, cart.getDiscountAmount());
+        assertEquals(380, cart.getFinalCharge());
+    }
+
+    @Test
+    void invalidCarts_throw() {
+        assertThrows(Exception.class, () -> Rental.checkoutCart(catalog, List.of(), 3, 0, checkoutDate));
+        assertThrows(Exception.class, () -> Rental.checkoutCart(catalog, List.of(new CartItem("LADW", 0)), 0, 0,
+                checkoutDate));
+        assertThrows(Exception.class, () -> Rental.checkoutCart(catalog, List.of(new CartItem("LADW", 0)), 3, 101,
+                checkoutDate));
+        assertThrows(Exception.class, () -> Rental.checkoutCart(catalog, List.of(new CartItem("LADW", -1)), 3, 0,
+                checkoutDate));
+        Exception exception = assertThrows(Exception.class, () -> Rental.checkoutCart(catalog,
+                List.of(new CartItem("LADW", 0), new CartItem("NONE", 0)), 3, 0, checkoutDate));
+        assertEquals("Tool code not found: NONE", exception.getMessage());
+    }
+}
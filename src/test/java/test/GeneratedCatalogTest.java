@@ -0,0 +1,73 @@
+package test;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import demo.rental.charge.ChargePolicyLookupCSV;
+import demo.rental.charge.ChargePolicyLookupGenerated;
+import demo.rental.dates.HolidayLookupCSV;
+import demo.rental.dates.HolidayLookupGenerated;
+import demo.rental.tool.ToolLookupCSV;
+import demo.rental.tool.ToolLookupGenerated;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedCatalogTest {
+    private static final String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+    private static final String[] types = {"Ladder", "Chainsaw", "Jackhammer"};
+
+    @Test
+    void toolLookup_matchesCSV() {
+        ToolLookupCSV csv = new ToolLookupCSV(RentalCatalog.DEFAULT_TOOLS_PATH);
+        ToolLookupGenerated generated = new ToolLookupGenerated();
+        assertEquals(codes.length, generated.size());
+        for (String code : codes) {
+            assertEquals(csv.getToolFromCode(code), generated.getToolFromCode(code));
+            assertSame(generated.getToolFromCode(code), new ToolLookupGenerated().getToolFromCode(code));
+        }
+    }
+
+    @Test
+    void toolLookup_unknownCodes() {
+        ToolLookupGenerated generated = new ToolLookupGenerated();
+        assertNull(generated.getToolFromCode("NONE"));
+        assertNull(generated.getToolFromCode(""));
+        assertNull(generated.getToolFromCode("ladw"));
+        assertNull(generated.getToolFromCode("LADWX"));
+        assertNull(generated.getToolFromCode(null));
+    }
+
+    @Test
+    void policyLookup_matchesCSV() {
+        ChargePolicyLookupCSV csv = new ChargePolicyLookupCSV(RentalCatalog.DEFAULT_POLICIES_PATH);
+        ChargePolicyLookupGenerated generated = new ChargePolicyLookupGenerated();
+        for (String type : types) {
+            assertEquals(csv.getChargePolicyFromToolType(type), generated.getChargePolicyFromToolType(type));
+            assertSame(generated.getChargePolicyFromToolType(type), generated.getChargePolicyFromToolType(type));
+        }
+        assertNull(generated.getChargePolicyFromToolType("Hammer"));
+        assertNull(generated.getChargePolicyFromToolType(null));
+    }
+
+    @Test
+    void holidayLookup_matchesCSV() {
+        assertEquals(new HolidayLookupCSV(RentalCatalog.DEFAULT_HOLIDAYS_PATH).getAllHolidays(),
+                new HolidayLookupGenerated().getAllHolidays());
+    }
+
+    @Test
+    void getGenerated_pricesLikeDefault() throws Exception {
+        RentalCatalog generated = RentalCatalog.getGenerated();
+        assertSame(generated, RentalCatalog.getGenerated());
+        LocalDate start = LocalDate.of(2015, 6, 28);
+        for (int i = 0; i < 200; i++) {
+            RentalAgreement expected = Rental.checkout(codes[i % 4], 1 + i % 20, i % 101, start.plusDays(i));
+            RentalAgreement actual = Rental.checkout(generated, codes[i % 4], 1 + i % 20, i % 101, start.plusDays(i));
+            assertEquals(expected.getNumChargeDays(), actual.getNumChargeDays());
+            assertEquals(expected.getFinalCharge(), actual.getFinalCharge());
+        }
+    }
+}
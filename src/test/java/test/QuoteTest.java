@@ -0,0 +1,77 @@
+package test;
+
+import demo.rental.Quote;
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteTest {
+    private static final String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    @Test
+    void quote_matchesCheckout() throws Exception {
+        RentalCatalog catalog = RentalCatalog.getDefault();
+        Quote quote = new Quote();
+        LocalDate start = LocalDate.of(2015, 6, 1);
+        for (int i = 0; i < 400; i++) {
+            LocalDate checkoutDate = start.plusDays(i);
+            RentalAgreement expected = Rental.checkout(catalog, codes[i % 4], 1 + i % 45, i % 101, checkoutDate);
+            assertSame(quote, Rental.quote(catalog, codes[i % 4], 1 + i % 45, i % 101, checkoutDate, quote));
+            assertEquals(expected.getTool(), quote.getTool());
+            assertEquals(expected.getChargePolicy().dailyChargeCents(), quote.getDailyChargeCents());
+            assertEquals(expected.getNumRentalDays(), quote.getNumRentalDays());
+            assertEquals(expected.getNumChargeDays(), quote.getNumChargeDays());
+            assertEquals(expected.getPreDiscountCharge(), quote.getPreDiscountCharge());
+            assertEquals(expected.getDiscountPercent(), quote.getDiscountPercent());
+            assertEquals(expected.getDiscountAmount(), quote.getDiscountAmount());
+            assertEquals(expected.getFinalCharge(), quote.getFinalCharge());
+            assertEquals(expected.getCheckoutDate(), quote.getCheckoutDate());
+            assertEquals(expected.getDueDate(), quote.getDueDate());
+        }
+    }
+
+    @Test
+    void quote_invalidRequestsThrow() {
+        RentalCatalog catalog = RentalCatalog.getDefault();
+        LocalDate date = LocalDate.of(2015, 9, 3);
+        assertThrows(Exception.class, () -> Rental.quote(catalog, "JAKR", 5, 101, date, new Quote()));
+        assertThrows(Exception.class, () -> Rental.quote(catalog, "JAKR", 0, 10, date, new Quote()));
+        assertThrows(Exception.class, () -> Rental.quote(catalog, "NONE", 5, 10, date, new Quote()));
+    }
+
+    @Test
+    void quote_allocatesNothing() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeAllocationCounting(threads);
+        RentalCatalog catalog = RentalCatalog.getDefault();
+        LocalDate[] dates = new LocalDate[64];
+        for (int i = 0; i < dates.length; i++) dates[i] = LocalDate.of(2020, 7, 2).plusDays(i);
+        Quote quote = new Quote();
+        long checksum = 0;
+        // warm up, so that nothing is measured while classes load or code compiles
+        for (int i = 0; i < 100_000; i++) {
+            checksum += Rental.quote(catalog, codes[i & 3], 1 + (i & 63), i % 101, dates[i & 63], quote).getFinalCharge();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            checksum += Rental.quote(catalog, codes[i & 3], 1 + (i & 63), i % 101, dates[i & 63], quote).getFinalCharge();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(checksum > 0);
+        // the measurement itself may allocate a few bytes, but a single object per quote would be 1.6MB or more
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes over 100,000 quotes");
+    }
+
+    private static void assumeAllocationCounting(com.sun.management.ThreadMXBean threads) {
+        org.junit.jupiter.api.Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+}
@@ -0,0 +1,153 @@
+package test;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import demo.rental.ReloadingCatalog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReloadingCatalogTest {
+    private static final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+
+    @TempDir
+    Path tempDir;
+
+    private void writeCatalog(String ladderPolicy) throws IOException {
+        Files.writeString(tempDir.resolve("Tools.csv"), "Ladder,Werner,LADW\n");
+        Files.writeString(tempDir.resolve("ChargePolicies.csv"), ladderPolicy + "\n");
+        Files.writeString(tempDir.resolve("Holidays.csv"), "ClosestWeekday,7,4,\n");
+    }
+
+    @Test
+    void reload_swapsInNewVersion() throws Exception {
+        writeCatalog("Ladder,199,Yes,Yes,No");
+        try (ReloadingCatalog catalog = new ReloadingCatalog(tempDir)) {
+            RentalCatalog first = catalog.current();
+            RentalAgreement before = Rental.checkout(first, "LADW", 3, 0, checkoutDate);
+            assertEquals(398, before.getFinalCharge());
+
+            writeCatalog("Ladder,299,Yes,Yes,No");
+            assertTrue(catalog.reload());
+            RentalAgreement after = Rental.checkout(catalog.current(), "LADW", 3, 0, checkoutDate);
+            assertEquals(598, after.getFinalCharge());
+            assertTrue(after.getCatalogVersion() > before.getCatalogVersion());
+            // the old snapshot is unchanged
+            assertEquals(398, Rental.checkout(first, "LADW", 3, 0, checkoutDate).getFinalCharge());
+        }
+    }
+
+    @Test
+    void watcher_reloadsChangedFiles() throws Exception {
+        writeCatalog("Ladder,199,Yes,Yes,No");
+        try (ReloadingCatalog catalog = new ReloadingCatalog(tempDir)) {
+            long firstVersion = catalog.current().getVersion();
+            writeCatalog("Ladder,299,Yes,Yes,No");
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (catalog.current().getVersion() == firstVersion && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertNotEquals(firstVersion, catalog.current().getVersion());
+            assertEquals(299, catalog.current().getPolicyLookup().getChargePolicyFromToolType("Ladder").dailyChargeCents());
+        }
+    }
+
+    @Test
+    void reload_keepsCurrentCatalogWhenFilesAreMalformed() throws Exception {
+        writeCatalog("Ladder,199,Yes,Yes,No");
+        try (ReloadingCatalog catalog = new ReloadingCatalog(tempDir)) {
+            RentalCatalog first = catalog.current();
+            writeCatalog("Ladder,abc,Yes,Yes,No");
+            assertThrows(IOException.class, catalog::reload);
+            writeCatalog("Ladder,199");
+            assertThrows(IOException.class, catalog::reload);
+            writeCatalog("Ladder,199,Yes,Yes,No");
+            Files.writeString(tempDir.resolve("Tools.csv"), "");
+            assertThrows(IOException.class, catalog::reload);
+            Files.writeString(tempDir.resolve("Tools.csv"), "Ladder,Werner,LADW\n");
+            Files.writeString(tempDir.resolve("Holidays.csv"), "Someday,7,4\n");
+            assertThrows(IOException.class, catalog::reload);
+            assertSame(first, catalog.current());
+        }
+    }
+
+    @Test
+    void watcher_survivesMalformedFiles() throws Exception {
+        writeCatalog("Ladder,199,Yes,Yes,No");
+        try (ReloadingCatalog catalog = new ReloadingCatalog(tempDir)) {
+            long firstVersion = catalog.current().getVersion();
+            writeCatalog("Ladder,abc,Yes,Yes,No");
+            // give the watcher time to try, and fail, to load the bad file
+            Thread.sleep(1_000);
+            assertEquals(firstVersion, catalog.current().getVersion());
+
+            writeCatalog("Ladder,299,Yes,Yes,No");
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (catalog.current().getVersion() == firstVersion && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(299, catalog.current().getPolicyLookup().getChargePolicyFromToolType("Ladder").dailyChargeCents());
+        }
+    }
+
+    @Test
+    void reload_keepsCurrentCatalogWhenFileIsTruncatedDuringReload() throws Exception {
+        writeCatalog("Ladder,199,Yes,Yes,No");
+        Path toolsPath = tempDir.resolve("Tools.csv");
+        String tools = "Ladder,Werner,LADW\n".repeat(100_000);
+        Files.writeString(toolsPath, tools);
+        try (ReloadingCatalog catalog = new ReloadingCatalog(tempDir)) {
+            AtomicBoolean stop = new AtomicBoolean();
+            Thread rewriter = new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        try (FileChannel channel = FileChannel.open(toolsPath, StandardOpenOption.WRITE)) {
+                            channel.truncate(0);
+                        }
+                        Files.writeString(toolsPath, tools);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            rewriter.start();
+            try {
+                for (int i = 0; i < 100; i++) {
+                    RentalCatalog before = catalog.current();
+                    try {
+                        catalog.reload();
+                    } catch (IOException expected) {
+                        assertSame(before, catalog.current());
+                    }
+                }
+            } finally {
+                stop.set(true);
+                rewriter.join();
+            }
+            assertTrue(catalog.reload());
+            assertEquals("Werner", catalog.current().getToolLookup().getToolFromCode("LADW").brand());
+        }
+    }
+
+    @Test
+    void constructor_malformedFiles() throws Exception {
+        writeCatalog("Ladder,abc,Yes,Yes,No");
+        assertThrows(IOException.class, () -> new ReloadingCatalog(tempDir));
+    }
+
+    @Test
+    void constructor_missingFiles() {
+        assertThrows(IOException.class, () -> new ReloadingCatalog(tempDir));
+    }
+}
@@ -0,0 +1,44 @@
+package test;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import demo.rental.dates.FixedHoliday;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentalCatalogTest {
+    private static final RentalCatalog catalog = RentalCatalog.fromCSV("src/test/java/test/tool/ToolLookupCSVTest.csv",
+            "src/test/java/test/charge/ChargePolicyLookupCSVTest.csv",
+            "src/test/java/test/dates/HolidayLookupCSVTest.csv");
+
+    @Test
+    void getDefault_sameInstance() {
+        assertSame(RentalCatalog.getDefault(), RentalCatalog.getDefault());
+    }
+
+    @Test
+    void fromCSV_loadsAllLookups() {
+        assertEquals("Werner", catalog.getToolLookup().getToolFromCode("LADW").brand());
+        assertEquals(149, catalog.getPolicyLookup().getChargePolicyFromToolType("Chainsaw").dailyChargeCents());
+        assertEquals(3, catalog.getHolidays().size());
+    }
+
+    @Test
+    void getHolidays_isImmutable() {
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getHolidays().add(new FixedHoliday(1, 1)));
+    }
+
+    @Test
+    void checkout_usesGivenCatalog() throws Exception {
+        // the test holidays include Christmas, which the default catalog does not
+        LocalDate checkoutDate = LocalDate.of(2020, 12, 23);
+        RentalAgreement withChristmas = Rental.checkout(catalog, "JAKR", 3, 0, checkoutDate);
+        RentalAgreement withoutChristmas = Rental.checkout("JAKR", 3, 0, checkoutDate);
+        assertEquals(1, withChristmas.getNumChargeDays());
+        assertEquals(2, withoutChristmas.getNumChargeDays());
+    }
+}
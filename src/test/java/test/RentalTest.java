@@ -1,12 +1,24 @@
 package test;
 
+import demo.rental.CheckoutResult;
 import demo.rental.Rental;
 import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import demo.rental.RentalRequest;
 import org.junit.jupiter.api.*;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -151,6 +163,101 @@ class RentalTest {
                 """, outStream.toString().replace("\r", ""));
     }
 
+    @Test
+    void checkout_unknownToolCode() {
+        Exception exception = assertThrows(Exception.class,
+                () -> Rental.checkout("NOPE", 5, 0, LocalDate.of(2015, 9, 3)));
+        assertEquals("Tool code not found: NOPE", exception.getMessage());
+    }
+
+    @Test
+    void checkoutAll_resultsInRequestOrderWithErrors() {
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 2);
+        List<RentalRequest> requests = List.of(
+                new RentalRequest("JAKR", 9, 0, checkoutDate),
+                new RentalRequest("JAKR", 5, 101, checkoutDate),
+                new RentalRequest("CHNS", 5, 25, checkoutDate));
+        List<CheckoutResult> results = Rental.checkoutAll(requests);
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(1495, results.get(0).agreement().getFinalCharge());
+        assertFalse(results.get(1).isSuccess());
+        assertNull(results.get(1).agreement());
+        assertSame(requests.get(1), results.get(1).request());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(335, results.get(2).agreement().getFinalCharge());
+    }
+
+    @Test
+    void checkoutAll_parallelMatchesSequential() throws Exception {
+        List<RentalRequest> requests = new ArrayList<>();
+        String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 5000; i++) {
+            requests.add(new RentalRequest(codes[i % codes.length], 1 + i % 30, i % 101, start.plusDays(i % 700)));
+        }
+        List<CheckoutResult> results = Rental.checkoutAll(RentalCatalog.getDefault(), requests, 64);
+        for (int i = 0; i < requests.size(); i++) {
+            RentalRequest request = requests.get(i);
+            RentalAgreement expected = Rental.checkout(request.toolCode(), request.numRentalDays(),
+                    request.discountPercent(), request.checkoutDate());
+            assertEquals(expected.getFinalCharge(), results.get(i).agreement().getFinalCharge());
+            assertEquals(expected.getNumChargeDays(), results.get(i).agreement().getNumChargeDays());
+        }
+    }
+
+    @Test
+    void checkoutAsync_matchesCheckout() throws Exception {
+        LocalDate date = LocalDate.of(2015, 7, 2);
+        CompletableFuture<RentalAgreement> future = Rental.checkoutAsync("LADW", 3, 10, date);
+        assertEquals(Rental.checkout("LADW", 3, 10, date).getFinalCharge(),
+                future.get(10, TimeUnit.SECONDS).getFinalCharge());
+    }
+
+    @Test
+    void checkoutAsync_completesExceptionally() {
+        CompletableFuture<RentalAgreement> future = Rental.checkoutAsync(RentalCatalog.getDefault(), "JAKR", 5, 101,
+                LocalDate.of(2015, 9, 3), Runnable::run);
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertEquals(Exception.class, exception.getCause().getClass());
+    }
+
+    @Test
+    void checkoutAsync_completesExceptionallyOnError() {
+        RentalCatalog broken = new RentalCatalog(toolCode -> {
+            throw new AssertionError("lookup failed");
+        }, RentalCatalog.getDefault().getPolicyLookup(), List::of);
+        CompletableFuture<RentalAgreement> future = Rental.checkoutAsync(broken, "JAKR", 5, 0,
+                LocalDate.of(2015, 9, 3), Runnable::run);
+        assertTrue(future.isDone());
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertEquals(AssertionError.class, exception.getCause().getClass());
+    }
+
+    @Test
+    void checkoutAsync_runsOnGivenExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "quote"));
+        try {
+            AtomicReference<String> threadName = new AtomicReference<>();
+            Rental.checkoutAsync("CHNS", 5, 0, LocalDate.of(2015, 7, 2), runnable -> executor.execute(() -> {
+                threadName.set(Thread.currentThread().getName());
+                runnable.run();
+            })).get(10, TimeUnit.SECONDS);
+            assertEquals("quote", threadName.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void checkoutAsync_rejectedExecution() {
+        CompletableFuture<RentalAgreement> future = Rental.checkoutAsync("CHNS", 5, 0, LocalDate.of(2015, 7, 2),
+                runnable -> {
+                    throw new RejectedExecutionException();
+                });
+        assertTrue(future.isCompletedExceptionally());
+    }
+
     private void assertAgreementEquals(RentalAgreement agreement, LocalDate checkoutDate, LocalDate dueDate,
                                        String code, String brand, String type, long dailyCharge,
                                        int numRentalDays, int numChargedDays, long preDiscountCharge,
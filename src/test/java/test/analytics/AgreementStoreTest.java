@@ -0,0 +1,100 @@
+package test.analytics;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.analytics.AgreementStore;
+import demo.rental.analytics.Dimension;
+import demo.rental.analytics.Measure;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgreementStoreTest {
+    private static final String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    private static List<RentalAgreement> history(int count) throws Exception {
+        List<RentalAgreement> agreements = new ArrayList<>();
+        LocalDate start = LocalDate.of(2014, 11, 3);
+        for (int i = 0; i < count; i++) {
+            agreements.add(Rental.checkout(codes[i % 4], 1 + i % 13, (i * 7) % 101, start.plusDays(i % 500)));
+        }
+        return agreements;
+    }
+
+    @Test
+    void sum_matchesAgreements() throws Exception {
+        List<RentalAgreement> agreements = history(200_000);
+        AgreementStore store = new AgreementStore(16);
+        store.addAll(agreements);
+        assertEquals(agreements.size(), store.size());
+        assertEquals(agreements.size(), store.query().count());
+        assertEquals(agreements.stream().mapToLong(RentalAgreement::getFinalCharge).sum(),
+                store.query().sum(Measure.FINAL_CHARGE));
+        assertEquals(agreements.stream().mapToLong(RentalAgreement::getDiscountAmount).sum(),
+                store.query().sum(Measure.DISCOUNT_AMOUNT));
+        assertEquals(agreements.stream().mapToLong(RentalAgreement::getNumChargeDays).sum(),
+                store.query().sum(Measure.CHARGE_DAYS));
+    }
+
+    @Test
+    void sumBy_toolTypeAndMonth() throws Exception {
+        List<RentalAgreement> agreements = history(100_000);
+        AgreementStore store = new AgreementStore();
+        store.addAll(agreements);
+        LocalDate from = LocalDate.of(2015, 1, 1);
+        LocalDate until = LocalDate.of(2016, 1, 1);
+
+        Map<String, Long> expected = new LinkedHashMap<>();
+        for (RentalAgreement agreement : agreements) {
+            LocalDate date = agreement.getCheckoutDate();
+            if (date.isBefore(from) || !date.isBefore(until) || !agreement.getTool().type().equals("Jackhammer")) continue;
+            expected.merge(YearMonth.from(date).toString(), agreement.getFinalCharge(), Long::sum);
+        }
+        Map<String, Long> actual = store.query().whereCheckoutBetween(from, until).whereToolType("Jackhammer")
+                .sumBy(Dimension.CHECKOUT_MONTH, Measure.FINAL_CHARGE);
+        assertEquals(expected, actual);
+        assertEquals(List.of("2015-01", "2015-02", "2015-03", "2015-04", "2015-05", "2015-06", "2015-07", "2015-08",
+                "2015-09", "2015-10", "2015-11", "2015-12"), new ArrayList<>(actual.keySet()));
+
+        Map<String, Long> byType = store.query().sumBy(Dimension.TOOL_TYPE, Measure.COUNT);
+        assertEquals(Map.of("Ladder", 25_000L, "Chainsaw", 25_000L, "Jackhammer", 50_000L), byType);
+        assertEquals(Map.of("JAKR", 25_000L), store.query().whereToolType("Jackhammer").whereToolCode("JAKR", "LADW")
+                .sumBy(Dimension.TOOL_CODE, Measure.COUNT));
+    }
+
+    @Test
+    void sum_holidayDaysNotCharged() throws Exception {
+        AgreementStore store = new AgreementStore();
+        // July 4th 2015 is a Saturday, observed Friday July 3rd, and Labor Day is Monday September 7th
+        store.add(Rental.checkout("LADW", 5, 0, LocalDate.of(2015, 7, 1)));
+        store.add(Rental.checkout("JAKR", 5, 0, LocalDate.of(2015, 9, 3)));
+        store.add(Rental.checkout("CHNS", 5, 0, LocalDate.of(2015, 7, 1)));
+        Map<String, Long> lost = store.query().sumBy(Dimension.TOOL_TYPE, Measure.HOLIDAY_DAYS_NOT_CHARGED);
+        assertEquals(Map.of("Ladder", 1L, "Jackhammer", 1L, "Chainsaw", 0L), lost);
+    }
+
+    @Test
+    void query_seesRowsAddedBeforeItStarted() throws Exception {
+        AgreementStore store = new AgreementStore(0);
+        assertEquals(0, store.query().sum(Measure.FINAL_CHARGE));
+        assertTrue(store.query().sumBy(Dimension.CHECKOUT_DAY_OF_WEEK, Measure.COUNT).isEmpty());
+        store.add(Rental.checkout("LADW", 3, 10, LocalDate.of(2020, 7, 2)));
+        var query = store.query();
+        store.add(Rental.checkout("LADW", 3, 10, LocalDate.of(2020, 7, 2)));
+        assertEquals(1, query.count());
+        assertEquals(Map.of("THURSDAY", 358L), query.sumBy(Dimension.CHECKOUT_DAY_OF_WEEK, Measure.FINAL_CHARGE));
+        assertEquals(Map.of("2020", 2L), store.query().sumBy(Dimension.CHECKOUT_YEAR, Measure.COUNT));
+    }
+
+    @Test
+    void constructor_negativeCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new AgreementStore(-1));
+    }
+}
@@ -0,0 +1,96 @@
+package test.binary;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import demo.rental.binary.AgreementEncoder;
+import demo.rental.binary.AgreementFlyweight;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.tool.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgreementFlyweightTest {
+    private static final String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    @Test
+    void encodeThenRead_matchesAgreements() throws Exception {
+        int count = 1000;
+        RentalAgreement[] agreements = new RentalAgreement[count];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(count * AgreementEncoder.RECORD_SIZE);
+        for (int i = 0; i < count; i++) {
+            agreements[i] = Rental.checkout(codes[i % 4], 1 + i % 40, i % 101, LocalDate.of(2019, 1, 1).plusDays(i));
+            AgreementEncoder.encode(agreements[i], buffer);
+        }
+        assertFalse(buffer.hasRemaining());
+
+        AgreementFlyweight flyweight = new AgreementFlyweight();
+        for (int i = 0; i < count; i++) {
+            flyweight.wrap(buffer, i * AgreementEncoder.RECORD_SIZE);
+            RentalAgreement expected = agreements[i];
+            assertEquals(expected.getTool().code(), flyweight.getToolCode());
+            assertEquals(expected.getChargePolicy(), flyweight.getChargePolicy());
+            assertEquals(expected.getNumRentalDays(), flyweight.getNumRentalDays());
+            assertEquals(expected.getNumChargeDays(), flyweight.getNumChargeDays());
+            assertEquals(expected.getPreDiscountCharge(), flyweight.getPreDiscountCharge());
+            assertEquals(expected.getDiscountPercent(), flyweight.getDiscountPercent());
+            assertEquals(expected.getDiscountAmount(), flyweight.getDiscountAmount());
+            assertEquals(expected.getFinalCharge(), flyweight.getFinalCharge());
+            assertEquals(expected.getCheckoutDate(), flyweight.getCheckoutDate());
+            assertEquals(expected.getDueDate(), flyweight.getDueDate());
+            assertEquals(expected.getCatalogVersion(), flyweight.getCatalogVersion());
+        }
+    }
+
+    @Test
+    void byteOrder_ignoresBufferOrder() throws Exception {
+        RentalAgreement agreement = Rental.checkout("CHNS", 5, 25, LocalDate.of(2015, 7, 2));
+        for (ByteOrder writeOrder : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer written = ByteBuffer.allocate(AgreementEncoder.RECORD_SIZE).order(writeOrder);
+            AgreementEncoder.encode(agreement, written, 0);
+            assertEquals(335, written.order(ByteOrder.LITTLE_ENDIAN).getLong(40));
+
+            ByteOrder readOrder = writeOrder == ByteOrder.BIG_ENDIAN ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            ByteBuffer read = ByteBuffer.allocateDirect(AgreementEncoder.RECORD_SIZE).order(readOrder)
+                    .put(written.array());
+            AgreementFlyweight flyweight = new AgreementFlyweight().wrap(read, 0);
+            assertEquals("CHNS", flyweight.getToolCode());
+            assertEquals(335, flyweight.getFinalCharge());
+            assertEquals(agreement.getCheckoutDate(), flyweight.getCheckoutDate());
+            assertEquals(agreement.getChargePolicy(), flyweight.getChargePolicy());
+        }
+    }
+
+    @Test
+    void toRentalAgreement_looksUpTool() throws Exception {
+        RentalAgreement agreement = Rental.checkout("JAKD", 6, 0, LocalDate.of(2015, 9, 3));
+        ByteBuffer buffer = ByteBuffer.allocate(AgreementEncoder.RECORD_SIZE * 2);
+        AgreementEncoder.encode(agreement, buffer, AgreementEncoder.RECORD_SIZE);
+        assertEquals(0, buffer.position());
+
+        RentalAgreement decoded = new AgreementFlyweight().wrap(buffer, AgreementEncoder.RECORD_SIZE)
+                .toRentalAgreement(RentalCatalog.getDefault().getToolLookup());
+        assertEquals(agreement.getTool(), decoded.getTool());
+        assertEquals(agreement.getFinalCharge(), decoded.getFinalCharge());
+        assertEquals(agreement.getDueDate(), decoded.getDueDate());
+    }
+
+    @Test
+    void encode_rejectsUnpackableCodesAndShortBuffers() throws Exception {
+        RentalAgreement longCode = new RentalAgreement(new Tool("Ladder", "Werner", "LADDER-WERNER"),
+                new ChargePolicy(199, true, true, false), 3, 2, 398, 0, 0, 398, LocalDate.of(2020, 7, 2),
+                LocalDate.of(2020, 7, 5), 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> AgreementEncoder.encode(longCode, ByteBuffer.allocate(AgreementEncoder.RECORD_SIZE)));
+        RentalAgreement agreement = Rental.checkout("LADW", 3, 0, LocalDate.of(2020, 7, 2));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> AgreementEncoder.encode(agreement, ByteBuffer.allocate(AgreementEncoder.RECORD_SIZE - 1)));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> new AgreementFlyweight().wrap(ByteBuffer.allocate(AgreementEncoder.RECORD_SIZE), 1));
+    }
+}
@@ -0,0 +1,63 @@
+package test.charge;
+
+import demo.rental.charge.BatchChargeCalculator;
+import demo.rental.charge.ChargeCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchChargeCalculatorTest {
+
+    @Test
+    void calcDiscountAmount_matchesChargeCalculator() {
+        for (long preDiscountCharge = 0; preDiscountCharge <= 100_000; preDiscountCharge++) {
+            for (int discountPercent = 0; discountPercent <= 100; discountPercent++) {
+                assertEquals(ChargeCalculator.calcDiscountAmount(preDiscountCharge, discountPercent),
+                        BatchChargeCalculator.calcDiscountAmount(preDiscountCharge, discountPercent));
+            }
+        }
+    }
+
+    @Test
+    void calcDiscountAmount_tiesFollowDoubleRounding() {
+        // exactly 14.5 cents, but 25 * 0.58 is just below it as a double
+        assertEquals(14, BatchChargeCalculator.calcDiscountAmount(25, 58));
+        // exactly 1.5 cents
+        assertEquals(2, BatchChargeCalculator.calcDiscountAmount(50, 3));
+        assertEquals(ChargeCalculator.calcDiscountAmount(-25, 58), BatchChargeCalculator.calcDiscountAmount(-25, 58));
+    }
+
+    @Test
+    void calcCharges_matchesChargeCalculator() {
+        Random random = new Random(17);
+        int rows = 10_000;
+        long[] dailyChargeCents = new long[rows];
+        int[] chargeDays = new int[rows];
+        int[] discountPercent = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            dailyChargeCents[i] = random.nextInt(100_000);
+            chargeDays[i] = random.nextInt(400);
+            discountPercent[i] = random.nextInt(101);
+        }
+        long[] preDiscountCharges = new long[rows];
+        long[] discountAmounts = new long[rows];
+        long[] finalCharges = new long[rows];
+        BatchChargeCalculator.calcCharges(dailyChargeCents, chargeDays, discountPercent, preDiscountCharges,
+                discountAmounts, finalCharges);
+        for (int i = 0; i < rows; i++) {
+            long preDiscountCharge = ChargeCalculator.calcPreDiscountCharge(dailyChargeCents[i], chargeDays[i]);
+            long discountAmount = ChargeCalculator.calcDiscountAmount(preDiscountCharge, discountPercent[i]);
+            assertEquals(preDiscountCharge, preDiscountCharges[i]);
+            assertEquals(discountAmount, discountAmounts[i]);
+            assertEquals(ChargeCalculator.calcFinalCharge(preDiscountCharge, discountAmount), finalCharges[i]);
+        }
+    }
+
+    @Test
+    void calcCharges_rejectsMismatchedColumns() {
+        assertThrows(IllegalArgumentException.class, () -> BatchChargeCalculator.calcCharges(new long[2], new int[2],
+                new int[1], new long[2], new long[2], new long[2]));
+    }
+}
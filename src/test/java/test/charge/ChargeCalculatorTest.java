@@ -2,7 +2,11 @@ package test.charge;
 
 import demo.rental.charge.ChargeCalculator;
 import demo.rental.charge.ChargePolicy;
+import demo.rental.dates.ClosestWeekdayHoliday;
+import demo.rental.dates.DayCounter;
+import demo.rental.dates.FixedHoliday;
 import demo.rental.dates.Holiday;
+import demo.rental.dates.HolidayIndex;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -42,6 +46,25 @@ class ChargeCalculatorTest {
         assertEquals(LocalDate.of(2021, Month.AUGUST, 7), dueDate);
     }
 
+    @Test
+    void calcDueDate_epochDay() {
+        int checkout = DayCounter.toEpochDay(LocalDate.of(2021, Month.JULY, 28));
+        assertEquals(DayCounter.toEpochDay(LocalDate.of(2021, Month.AUGUST, 7)), ChargeCalculator.calcDueDate(checkout, 10));
+    }
+
+    @Test
+    void calcChargeDays_epochDaysMatchLocalDates() {
+        LocalDate start = LocalDate.of(2021, Month.JULY, 1);
+        LocalDate end = LocalDate.of(2021, Month.AUGUST, 1);
+        HolidayIndex holidayIndex = new HolidayIndex(holidays, 2021, 2021);
+        for (int flags = 0; flags < 8; flags++) {
+            ChargePolicy policy = new ChargePolicy(1, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0);
+            assertEquals(ChargeCalculator.calcChargeDays(start, end, policy, holidays),
+                    ChargeCalculator.calcChargeDays(DayCounter.toEpochDay(start), DayCounter.toEpochDay(end), policy,
+                            holidayIndex));
+        }
+    }
+
     @Test
     void calcChargeDays_JustWeekdays() {
         LocalDate start = LocalDate.of(2021, Month.JULY, 1);
@@ -165,4 +188,36 @@ class ChargeCalculatorTest {
     void calcFinalCharge_FullDiscount() {
         assertEquals(0, ChargeCalculator.calcFinalCharge(100, 100));
     }
-}
\ No newline at end of file
+
+    @Test
+    void calcPriceCurve_matchesSeparateCheckouts() {
+        HolidayIndex holidayIndex = new HolidayIndex(List.of(new FixedHoliday(Month.JULY.getValue(), 4),
+                new ClosestWeekdayHoliday(Month.DECEMBER.getValue(), 25)), 2015, 2021);
+        for (int flags = 0; flags < 8; flags++) {
+            ChargePolicy policy = new ChargePolicy(199, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0);
+            // the last start date runs past the indexed years
+            for (LocalDate checkoutDate : List.of(LocalDate.of(2015, Month.JULY, 1), LocalDate.of(2021, Month.DECEMBER, 1))) {
+                long[] curve = ChargeCalculator.calcPriceCurve(policy, checkoutDate, 15, 90, holidayIndex);
+                assertEquals(90, curve.length);
+                for (int days = 1; days <= 90; days++) {
+                    int chargeDays = ChargeCalculator.calcChargeDays(checkoutDate, checkoutDate.plusDays(days), policy,
+                            holidayIndex);
+                    long preDiscountCharge = ChargeCalculator.calcPreDiscountCharge(199, chargeDays);
+                    long expected = ChargeCalculator.calcFinalCharge(preDiscountCharge,
+                            ChargeCalculator.calcDiscountAmount(preDiscountCharge, 15));
+                    assertEquals(expected, curve[days - 1], "flags " + flags + ", " + days + " days");
+                }
+            }
+        }
+    }
+
+    @Test
+    void calcPriceCurve_emptyAndNegative() {
+        ChargePolicy policy = new ChargePolicy(199, true, true, true);
+        HolidayIndex holidayIndex = new HolidayIndex(List.of(), 2021, 2021);
+        assertEquals(0, ChargeCalculator.calcPriceCurve(policy, LocalDate.of(2021, Month.JULY, 1), 0, 0,
+                holidayIndex).length);
+        assertThrows(IllegalArgumentException.class, () -> ChargeCalculator.calcPriceCurve(policy,
+                LocalDate.of(2021, Month.JULY, 1), 0, -1, holidayIndex));
+    }
+}
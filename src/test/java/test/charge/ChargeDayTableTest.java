@@ -0,0 +1,70 @@
+package test.charge;
+
+import demo.rental.charge.ChargeCalculator;
+import demo.rental.charge.ChargeDayTable;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.dates.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChargeDayTableTest {
+    private static final HolidayIndex holidayIndex = new HolidayIndex(List.of(
+            new ClosestWeekdayHoliday(Month.JULY.getValue(), 4),
+            new RelativeHoliday(1, DayOfWeek.MONDAY.getValue(), Month.SEPTEMBER.getValue()),
+            new FixedHoliday(Month.DECEMBER.getValue(), 25)), 2010, 2030);
+    private static final ChargeDayTable table = new ChargeDayTable(holidayIndex, 2015, 2025);
+
+    @Test
+    void combination_flagBits() {
+        assertEquals(0, ChargeDayTable.combination(new ChargePolicy(1, false, false, false)));
+        assertEquals(1, ChargeDayTable.combination(new ChargePolicy(1, true, false, false)));
+        assertEquals(2, ChargeDayTable.combination(new ChargePolicy(1, false, true, false)));
+        assertEquals(7, ChargeDayTable.combination(new ChargePolicy(1, true, true, true)));
+    }
+
+    @Test
+    void calcChargeDays_matchesChargeCalculator() {
+        // starts run from before the horizon to after it, so both the table and the fallback are checked
+        int first = DayCounter.toEpochDay(LocalDate.of(2014, Month.NOVEMBER, 1));
+        int last = DayCounter.toEpochDay(LocalDate.of(2026, Month.FEBRUARY, 1));
+        for (int flags = 0; flags < 8; flags++) {
+            ChargePolicy policy = new ChargePolicy(199, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0);
+            for (int checkout = first; checkout < last; checkout += 11) {
+                for (int days = 1; days <= 400; days += 13) {
+                    assertEquals(ChargeCalculator.calcChargeDays(checkout, checkout + days, policy, holidayIndex),
+                            table.calcChargeDays(checkout, checkout + days, policy),
+                            "flags " + flags + " from " + LocalDate.ofEpochDay(checkout) + " for " + days);
+                }
+            }
+        }
+    }
+
+    @Test
+    void covers_horizonEdges() {
+        int firstDay = DayCounter.toEpochDay(LocalDate.of(2015, Month.JANUARY, 1));
+        int lastDay = DayCounter.toEpochDay(LocalDate.of(2025, Month.DECEMBER, 31));
+        // checking out the day before the horizon only charges days inside it
+        assertTrue(table.covers(firstDay - 1, lastDay));
+        assertFalse(table.covers(firstDay - 2, lastDay));
+        assertFalse(table.covers(firstDay, lastDay + 1));
+    }
+
+    @Test
+    void calcChargeDays_dueNotAfterCheckout() {
+        ChargePolicy policy = new ChargePolicy(199, true, true, true);
+        int day = DayCounter.toEpochDay(LocalDate.of(2020, Month.JULY, 2));
+        assertEquals(0, table.calcChargeDays(day, day, policy));
+        assertEquals(0, table.calcChargeDays(day, day - 5, policy));
+    }
+
+    @Test
+    void constructor_rejectsReversedYears() {
+        assertThrows(IllegalArgumentException.class, () -> new ChargeDayTable(holidayIndex, 2020, 2019));
+    }
+}
@@ -0,0 +1,117 @@
+package test.csv;
+
+import demo.rental.csv.MappedCSVReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCSVReaderTest {
+    @TempDir
+    Path tempDir;
+
+    private String writeFile(String contents) throws IOException {
+        Path path = tempDir.resolve("test.csv");
+        Files.writeString(path, contents, StandardCharsets.UTF_8);
+        return path.toString();
+    }
+
+    private List<List<String>> readAll(String filePath, int maxFields) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        MappedCSVReader.read(filePath, maxFields, row -> {
+            List<String> fields = new ArrayList<>();
+            for (int field = 0; field < row.numFields(); field++) {
+                fields.add(row.getString(field));
+            }
+            rows.add(fields);
+        });
+        return rows;
+    }
+
+    @Test
+    void read_splitsLikeStringSplitWithLimit() throws IOException {
+        String filePath = writeFile("a,b,c\nClosestWeekday,7,4,\nx,y,z,extra,commas\n");
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("ClosestWeekday", "7", "4", ""),
+                List.of("x", "y", "z", "extra,commas")), readAll(filePath, 4));
+    }
+
+    @Test
+    void read_handlesCarriageReturnsBlankLinesAndMissingFinalNewLine() throws IOException {
+        String filePath = writeFile("a,b\r\n\r\n\nc,d");
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll(filePath, 2));
+    }
+
+    @Test
+    void read_decodesUtf8() throws IOException {
+        String filePath = writeFile("Säge,Größe,SAGG\n");
+        assertEquals(List.of(List.of("Säge", "Größe", "SAGG")), readAll(filePath, 3));
+    }
+
+    @Test
+    void read_emptyFile() throws IOException {
+        assertEquals(List.of(), readAll(writeFile(""), 3));
+    }
+
+    @Test
+    void read_missingFileThrows() {
+        assertThrows(IOException.class, () -> readAll(tempDir.resolve("missing.csv").toString(), 3));
+    }
+
+    @Test
+    void getLong_parsesWithoutStrings() throws IOException {
+        String filePath = writeFile("199,-42,+7,9223372036854775807,-9223372036854775808\n");
+        MappedCSVReader.read(filePath, 5, row -> {
+            assertEquals(199, row.getLong(0));
+            assertEquals(-42, row.getInt(1));
+            assertEquals(7, row.getLong(2));
+            assertEquals(Long.MAX_VALUE, row.getLong(3));
+            assertEquals(Long.MIN_VALUE, row.getLong(4));
+        });
+    }
+
+    @Test
+    void getLong_rejectsBadNumbers() throws IOException {
+        String filePath = writeFile("12a,,9223372036854775808,-\n");
+        MappedCSVReader.read(filePath, 4, row -> {
+            assertThrows(NumberFormatException.class, () -> row.getLong(0));
+            assertThrows(NumberFormatException.class, () -> row.getLong(1));
+            assertThrows(NumberFormatException.class, () -> row.getLong(2));
+            assertThrows(NumberFormatException.class, () -> row.getLong(3));
+        });
+    }
+
+    @Test
+    void fieldEquals_comparesBytes() throws IOException {
+        String filePath = writeFile("Yes,yes,No\n");
+        MappedCSVReader.read(filePath, 3, row -> {
+            assertTrue(row.fieldEquals(0, "Yes"));
+            assertFalse(row.fieldEquals(1, "Yes"));
+            assertTrue(row.fieldEqualsIgnoreCase(1, "YES"));
+            assertFalse(row.fieldEqualsIgnoreCase(2, "yes"));
+            assertThrows(IndexOutOfBoundsException.class, () -> row.getString(3));
+        });
+    }
+
+    @Test
+    void read_fileTruncatedWhileReading() throws IOException {
+        String filePath = writeFile("Ladder,Werner,LADW\n".repeat(100_000));
+        IOException exception = assertThrows(IOException.class, () -> MappedCSVReader.read(filePath, 3, row -> {
+            try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.WRITE)) {
+                channel.truncate(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        assertTrue(exception.getMessage().startsWith("File truncated while being read"));
+    }
+}
@@ -35,4 +35,14 @@ class ClosestWeekdayHolidayTest {
         assertEquals(LocalDate.of(2023, Month.JULY, 4), dateFor2023);
     }
 
-}
\ No newline at end of file
+    @Test
+    void equalHolidays_shareDates() {
+        Holiday holiday = new ClosestWeekdayHoliday(Month.JULY.getValue(), 4);
+        Holiday reloaded = new ClosestWeekdayHoliday(Month.JULY.getValue(), 4);
+        assertEquals(holiday, reloaded);
+        assertEquals(holiday.hashCode(), reloaded.hashCode());
+        assertNotEquals(holiday, new ClosestWeekdayHoliday(Month.DECEMBER.getValue(), 25));
+        assertSame(holiday.getDateForYear(2020), reloaded.getDateForYear(2020));
+        assertEquals(LocalDate.of(2020, Month.JULY, 3), reloaded.getDateForYear(2020));
+    }
+}
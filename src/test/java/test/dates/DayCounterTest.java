@@ -292,4 +292,34 @@ class DayCounterTest {
         LocalDate aug1st2021 = LocalDate.of(2021, Month.AUGUST, 1);
         assertEquals(2, countWeekendHolidaysBetween(july1st2021, aug1st2021, mockHolidays));
     }
-}
\ No newline at end of file
+
+    @Test
+    void countWeekdays_epochDaysMatchDayByDayCount() {
+        // walks across the epoch so negative epoch days are covered too
+        for (int start = -30; start < 30; start++) {
+            int expectedWeekdays = 0;
+            for (int end = start; end < start + 40; end++) {
+                if (end > start && !LocalDate.ofEpochDay(end).getDayOfWeek().equals(DayOfWeek.SATURDAY)
+                        && !LocalDate.ofEpochDay(end).getDayOfWeek().equals(DayOfWeek.SUNDAY)) {
+                    expectedWeekdays++;
+                }
+                assertEquals(expectedWeekdays, countWeekdaysBetween(start, end));
+                assertEquals(end - start - expectedWeekdays, countWeekendDaysBetween(start, end));
+            }
+        }
+    }
+
+    @Test
+    void countWeekdays_epochDaysReturn0IfStartAfterEnd() {
+        assertEquals(0, countWeekdaysBetween(10, 3));
+        assertEquals(0, countWeekendDaysBetween(10, 3));
+    }
+
+    @Test
+    void isWeekend_matchesDayOfWeek() {
+        for (int epochDay = -14; epochDay < 14; epochDay++) {
+            DayOfWeek dayOfWeek = LocalDate.ofEpochDay(epochDay).getDayOfWeek();
+            assertEquals(dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY, isWeekend(epochDay));
+        }
+    }
+}
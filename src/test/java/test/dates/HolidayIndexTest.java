@@ -0,0 +1,105 @@
+package test.dates;
+
+import demo.rental.dates.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HolidayIndexTest {
+    private static final List<Holiday> holidays = List.of(
+            new ClosestWeekdayHoliday(Month.JULY.getValue(), 4),
+            new RelativeHoliday(1, DayOfWeek.MONDAY.getValue(), Month.SEPTEMBER.getValue()),
+            new FixedHoliday(Month.DECEMBER.getValue(), 25),
+            new FixedHoliday(Month.DECEMBER.getValue(), 25));
+    private static final HolidayIndex index = new HolidayIndex(holidays, 2000, 2030);
+
+    @Test
+    void countWeekdayHolidays_july4thObservedOnMonday() {
+        LocalDate july3rd = LocalDate.of(2021, Month.JULY, 3);
+        LocalDate july5th = LocalDate.of(2021, Month.JULY, 5);
+        assertEquals(1, index.countWeekdayHolidaysBetween(july3rd, july5th));
+        assertEquals(0, index.countWeekendHolidaysBetween(july3rd, july5th));
+    }
+
+    @Test
+    void countHolidays_startDayNotCounted() {
+        LocalDate july5th = LocalDate.of(2021, Month.JULY, 5);
+        assertEquals(0, index.countWeekdayHolidaysBetween(july5th, july5th.plusDays(10)));
+    }
+
+    @Test
+    void countHolidays_return0IfStartAfterEnd() {
+        LocalDate july5th = LocalDate.of(2021, Month.JULY, 5);
+        assertEquals(0, index.countWeekdayHolidaysBetween(july5th, july5th.minusDays(10)));
+    }
+
+    @Test
+    void countWeekendHolidays_duplicateHolidaysCountedOnce() {
+        // Christmas 2021 is a Saturday
+        LocalDate dec1st = LocalDate.of(2021, Month.DECEMBER, 1);
+        LocalDate dec31st = LocalDate.of(2021, Month.DECEMBER, 31);
+        assertEquals(1, index.countWeekendHolidaysBetween(dec1st, dec31st));
+    }
+
+    @Test
+    void countHolidays_matchesDayCounterAcrossIndex() {
+        LocalDate start = LocalDate.of(2000, Month.JANUARY, 1);
+        for (int offset = 0; offset < 365 * 30; offset += 17) {
+            LocalDate from = start.plusDays(offset);
+            LocalDate to = from.plusDays(offset % 400);
+            assertEquals(DayCounter.countWeekdayHolidaysBetween(from, to, holidays),
+                    index.countWeekdayHolidaysBetween(from, to), from + " to " + to);
+            assertEquals(DayCounter.countWeekendHolidaysBetween(from, to, holidays),
+                    index.countWeekendHolidaysBetween(from, to), from + " to " + to);
+        }
+    }
+
+    @Test
+    void countHolidays_fallsBackOutsideIndexedYears() {
+        LocalDate july1st = LocalDate.of(1990, Month.JULY, 1);
+        LocalDate dec31st = LocalDate.of(1990, Month.DECEMBER, 31);
+        assertFalse(index.covers(july1st, dec31st));
+        assertEquals(DayCounter.countWeekdayHolidaysBetween(july1st, dec31st, holidays),
+                index.countWeekdayHolidaysBetween(july1st, dec31st));
+        assertEquals(3, index.countWeekdayHolidaysBetween(july1st, dec31st));
+    }
+
+    @Test
+    void countHolidays_observedInNeighbouringYearMatchesAcrossIndexEdge() {
+        // Jan 1st 2000 is a Saturday, so it is observed on Friday Dec 31st 1999
+        List<Holiday> newYear = List.of(new ClosestWeekdayHoliday(Month.JANUARY.getValue(), 1));
+        LocalDate dec1st = LocalDate.of(1999, Month.DECEMBER, 1);
+        LocalDate dec31st = LocalDate.of(1999, Month.DECEMBER, 31);
+        HolidayIndex from2000 = new HolidayIndex(newYear, 2000, 2030);
+        HolidayIndex from1999 = new HolidayIndex(newYear, 1999, 2030);
+        assertFalse(from2000.covers(dec1st, dec31st));
+        assertTrue(from1999.covers(dec1st, dec31st));
+        assertEquals(1, from1999.countWeekdayHolidaysBetween(dec1st, dec31st));
+        assertEquals(1, from2000.countWeekdayHolidaysBetween(dec1st, dec31st));
+        assertEquals(1, DayCounter.countWeekdayHolidaysBetween(dec1st, dec31st, newYear));
+    }
+
+    @Test
+    void constructor_rejectsEmptyRange() {
+        assertThrows(IllegalArgumentException.class, () -> new HolidayIndex(holidays, 2021, 2020));
+    }
+
+    @Test
+    void isHoliday_matchesCountsInsideAndOutsideIndex() {
+        for (int year : new int[]{1990, 2021}) {
+            int start = DayCounter.toEpochDay(LocalDate.of(year, Month.JANUARY, 1));
+            for (int epochDay = start; epochDay < start + 366; epochDay++) {
+                boolean expected = index.countWeekdayHolidaysBetween(epochDay - 1, epochDay)
+                        + index.countWeekendHolidaysBetween(epochDay - 1, epochDay) > 0;
+                assertEquals(expected, index.isHoliday(epochDay), LocalDate.ofEpochDay(epochDay).toString());
+            }
+        }
+        assertTrue(index.isHoliday(DayCounter.toEpochDay(LocalDate.of(2021, Month.JULY, 5))));
+        assertFalse(index.isHoliday(DayCounter.toEpochDay(LocalDate.of(2021, Month.JULY, 4))));
+    }
+}
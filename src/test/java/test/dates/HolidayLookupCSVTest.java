@@ -2,7 +2,11 @@ package test.dates;
 
 import demo.rental.dates.*;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
@@ -28,4 +32,12 @@ class HolidayLookupCSVTest {
         assertEquals(LocalDate.of(2021, Month.DECEMBER, 25), third.getDateForYear(2021));
     }
 
+    @Test
+    void malformedLine_keepsHolidaysBeforeIt(@TempDir Path tempDir) throws IOException {
+        Path csv = Files.writeString(tempDir.resolve("holidays.csv"), "Fixed,12,25\nFixed,1,1\nEaster,4\nFixed,7,4\n");
+        List<Holiday> holidays = new HolidayLookupCSV(csv.toString()).getAllHolidays();
+        assertEquals(2, holidays.size());
+        assertEquals(LocalDate.of(2021, Month.JANUARY, 1), holidays.get(1).getDateForYear(2021));
+        assertThrows(IllegalArgumentException.class, () -> HolidayLookupCSV.load(csv.toString()));
+    }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import demo.rental.dates.RelativeHoliday;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,4 +48,22 @@ class RelativeHolidayTest {
         assertEquals(LocalDate.of(2022, Month.NOVEMBER, 24), dateFor2022);
     }
 
-}
\ No newline at end of file
+    @Test
+    void getDateForYear_resolvedOnceForEqualHolidays() {
+        Holiday laborDay = new RelativeHoliday(1, DayOfWeek.MONDAY.getValue(), Month.SEPTEMBER.getValue());
+        Holiday reloadedLaborDay = new RelativeHoliday(1, DayOfWeek.MONDAY.getValue(), Month.SEPTEMBER.getValue());
+        assertSame(laborDay.getDateForYear(2023), reloadedLaborDay.getDateForYear(2023));
+        // years outside the cache are still resolved correctly
+        assertEquals(LocalDate.of(1800, Month.SEPTEMBER, 1), laborDay.getDateForYear(1800));
+        assertEquals(LocalDate.of(2400, Month.SEPTEMBER, 4), laborDay.getDateForYear(2400));
+    }
+
+    @Test
+    void getDatesForYears_Thanksgiving() {
+        Holiday thanksgiving = new RelativeHoliday(4, DayOfWeek.THURSDAY.getValue(), Month.NOVEMBER.getValue());
+        List<LocalDate> dates = thanksgiving.getDatesForYears(2021, 2023);
+        assertEquals(List.of(LocalDate.of(2021, Month.NOVEMBER, 25), LocalDate.of(2022, Month.NOVEMBER, 24),
+                LocalDate.of(2023, Month.NOVEMBER, 23)), dates);
+        assertThrows(IllegalArgumentException.class, () -> thanksgiving.getDatesForYears(2023, 2021));
+    }
+}
@@ -0,0 +1,124 @@
+package test.inventory;
+
+import demo.rental.Rental;
+import demo.rental.RentalCatalog;
+import demo.rental.inventory.Inventory;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryTest {
+    private static final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+
+    @Test
+    void reserveAndRelease() {
+        Inventory inventory = new Inventory();
+        inventory.stock("LADW", 2);
+        assertEquals(2, inventory.available("LADW"));
+        assertTrue(inventory.tryReserve("LADW"));
+        assertTrue(inventory.tryReserve("LADW"));
+        assertFalse(inventory.tryReserve("LADW"));
+        assertEquals(0, inventory.available("LADW"));
+        inventory.release("LADW");
+        assertEquals(1, inventory.available("LADW"));
+        assertTrue(inventory.tryReserve("LADW"));
+    }
+
+    @Test
+    void unstockedCodes() {
+        Inventory inventory = new Inventory();
+        assertFalse(inventory.tryReserve("CHNS"));
+        assertEquals(0, inventory.available("CHNS"));
+        assertThrows(IllegalArgumentException.class, () -> inventory.release("CHNS"));
+        assertThrows(IllegalArgumentException.class, () -> inventory.stock("CHNS", -1));
+    }
+
+    @Test
+    void concurrentReservations_neverOversell() throws InterruptedException {
+        Inventory inventory = new Inventory();
+        inventory.stock("LADW", 1000);
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (inventory.tryReserve("LADW")) reserved.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        assertEquals(1000, reserved.get());
+        assertEquals(0, inventory.available("LADW"));
+    }
+
+    @Test
+    void release_cappedAtStockedQuantity() {
+        Inventory inventory = new Inventory();
+        inventory.stock("LADW", 1);
+        assertThrows(IllegalStateException.class, () -> inventory.release("LADW"));
+        assertTrue(inventory.tryReserve("LADW"));
+        inventory.release("LADW");
+        assertThrows(IllegalStateException.class, () -> inventory.release("LADW"));
+        assertEquals(1, inventory.available("LADW"));
+    }
+
+    @Test
+    void concurrentReserveAndRelease_neverFailsWithUnitsFree() throws InterruptedException {
+        Inventory inventory = new Inventory();
+        // more units than threads, so some unit is always free and every reservation must succeed
+        inventory.stock("LADW", 32);
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    if (inventory.tryReserve("LADW")) {
+                        inventory.release("LADW");
+                    } else {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(0, failures.get());
+        assertEquals(32, inventory.available("LADW"));
+    }
+
+    @Test
+    void checkout_reservesUnit() throws Exception {
+        Inventory inventory = new Inventory();
+        inventory.stock("LADW", 1);
+        Rental.checkout(RentalCatalog.getDefault(), inventory, "LADW", 3, 0, checkoutDate);
+        assertEquals(0, inventory.available("LADW"));
+        Exception exception = assertThrows(Exception.class,
+                () -> Rental.checkout(RentalCatalog.getDefault(), inventory, "LADW", 3, 0, checkoutDate));
+        assertEquals("No units available for tool code: LADW", exception.getMessage());
+    }
+
+    @Test
+    void checkout_releasesUnitWhenPricingFails() {
+        Inventory inventory = new Inventory();
+        inventory.stock("LADW", 1);
+        assertThrows(Exception.class,
+                () -> Rental.checkout(RentalCatalog.getDefault(), inventory, "LADW", 3, 101, checkoutDate));
+        assertEquals(1, inventory.available("LADW"));
+    }
+}
@@ -0,0 +1,227 @@
+package test.ledger;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.ledger.AgreementLedger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgreementLedgerTest {
+    private static final String[] codes = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    @TempDir
+    Path tempDir;
+
+    private static RentalAgreement agreement(int i) throws Exception {
+        return Rental.checkout(codes[i % codes.length], 1 + i % 30, i % 101, LocalDate.of(2020, 1, 1).plusDays(i));
+    }
+
+    private static void assertAgreementEquals(RentalAgreement expected, RentalAgreement actual) {
+        assertEquals(expected.getTool(), actual.getTool());
+        assertEquals(expected.getChargePolicy(), actual.getChargePolicy());
+        assertEquals(expected.getNumRentalDays(), actual.getNumRentalDays());
+        assertEquals(expected.getNumChargeDays(), actual.getNumChargeDays());
+        assertEquals(expected.getPreDiscountCharge(), actual.getPreDiscountCharge());
+        assertEquals(expected.getDiscountPercent(), actual.getDiscountPercent());
+        assertEquals(expected.getDiscountAmount(), actual.getDiscountAmount());
+        assertEquals(expected.getFinalCharge(), actual.getFinalCharge());
+        assertEquals(expected.getCheckoutDate(), actual.getCheckoutDate());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getCatalogVersion(), actual.getCatalogVersion());
+    }
+
+    private List<RentalAgreement> replay(int segmentSize) throws Exception {
+        List<RentalAgreement> replayed = new ArrayList<>();
+        AgreementLedger ledger = new AgreementLedger(tempDir, segmentSize, (sequence, agreement) -> {
+            assertEquals(replayed.size(), sequence);
+            replayed.add(agreement);
+        });
+        assertEquals(replayed.size(), ledger.getNextSequence());
+        ledger.close();
+        return replayed;
+    }
+
+    @Test
+    void append_thenReplayAcrossSegments() throws Exception {
+        List<RentalAgreement> appended = new ArrayList<>();
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, 4096, (sequence, agreement) -> fail())) {
+            List<CompletableFuture<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                appended.add(agreement(i));
+                futures.add(ledger.append(appended.get(i)));
+            }
+            for (int i = 0; i < futures.size(); i++) assertEquals(i, futures.get(i).get());
+        }
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.count() > 1);
+        }
+
+        List<RentalAgreement> replayed = replay(4096);
+        assertEquals(appended.size(), replayed.size());
+        for (int i = 0; i < appended.size(); i++) assertAgreementEquals(appended.get(i), replayed.get(i));
+    }
+
+    @Test
+    void append_continuesAfterReopen() throws Exception {
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, (sequence, agreement) -> {})) {
+            ledger.append(agreement(0)).get();
+        }
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, (sequence, agreement) -> {})) {
+            assertEquals(1, ledger.append(agreement(1)).get());
+        }
+        assertEquals(2, replay(AgreementLedger.DEFAULT_SEGMENT_SIZE).size());
+    }
+
+    @Test
+    void concurrentAppends_allReplayed() throws Exception {
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, 64 * 1024, (sequence, agreement) -> {})) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 250; i++) ledger.append(agreement(thread * 250 + i)).get();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }));
+            }
+            for (Thread thread : threads) thread.start();
+            for (Thread thread : threads) thread.join();
+            assertEquals(2000, ledger.getNextSequence());
+        }
+        assertEquals(2000, replay(64 * 1024).size());
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    // the commit watermark at the start of a segment, the end of its committed records
+    private static int watermark(FileChannel channel) throws IOException {
+        ByteBuffer watermark = ByteBuffer.allocate(4);
+        channel.read(watermark, 0);
+        return watermark.getInt(0);
+    }
+
+    @Test
+    void replay_clearsRecordsPastWatermark() throws Exception {
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, (sequence, agreement) -> {})) {
+            for (int i = 0; i < 3; i++) ledger.append(agreement(i)).get();
+        }
+        Path segment = onlySegment();
+        int committedEnd;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            committedEnd = watermark(channel);
+            ByteBuffer firstRecord = ByteBuffer.allocate(committedEnd);
+            channel.read(firstRecord, 8);
+            firstRecord.limit(8 + firstRecord.getInt(0)).flip();
+            // a crash can write pages in any order: a torn record, then an intact one that was never acknowledged,
+            // then a zero length header in front of another intact one
+            ByteBuffer torn = ByteBuffer.allocate(firstRecord.remaining()).put(firstRecord.duplicate()).put(20,
+                    (byte) 0xFF).flip();
+            int offset = committedEnd;
+            offset += channel.write(torn, offset);
+            offset += channel.write(firstRecord.duplicate(), offset);
+            offset += channel.write(ByteBuffer.allocate(8), offset);
+            channel.write(firstRecord.duplicate(), offset);
+        }
+
+        assertEquals(3, replay(AgreementLedger.DEFAULT_SEGMENT_SIZE).size());
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            assertEquals(committedEnd, watermark(channel));
+            ByteBuffer uncommitted = ByteBuffer.allocate(4096);
+            channel.read(uncommitted, committedEnd);
+            assertEquals(ByteBuffer.allocate(4096), uncommitted.flip());
+        }
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, (sequence, agreement) -> {})) {
+            assertEquals(3, ledger.append(agreement(5)).get());
+        }
+        List<RentalAgreement> replayed = replay(AgreementLedger.DEFAULT_SEGMENT_SIZE);
+        assertEquals(4, replayed.size());
+        assertAgreementEquals(agreement(5), replayed.get(3));
+    }
+
+    @Test
+    void replay_rejectsCorruptCommittedRecord() throws Exception {
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, (sequence, agreement) -> {})) {
+            for (int i = 0; i < 3; i++) ledger.append(agreement(i)).get();
+        }
+        Path segment = onlySegment();
+        int committedEnd;
+        // flip one byte of the last record, which is below the watermark and so was acknowledged
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            committedEnd = watermark(channel);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), committedEnd - 10);
+        }
+
+        assertThrows(IOException.class, () -> replay(AgreementLedger.DEFAULT_SEGMENT_SIZE));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            assertEquals(committedEnd, watermark(channel));
+        }
+    }
+
+    @Test
+    void open_recreatesEmptyLastSegment() throws Exception {
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, 1024, (sequence, agreement) -> {})) {
+            for (int i = 0; i < 20; i++) ledger.append(agreement(i)).get();
+        }
+        long nextSequence;
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, 1024, (sequence, agreement) -> {})) {
+            nextSequence = ledger.getNextSequence();
+        }
+        // a crash while creating the next segment can leave its file empty
+        Files.createFile(tempDir.resolve(String.format("ledger-%020d.seg", nextSequence)));
+
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, 1024, (sequence, agreement) -> {})) {
+            for (int i = 20; i < 40; i++) assertEquals(i, ledger.append(agreement(i)).get());
+        }
+        assertEquals(40, replay(1024).size());
+    }
+
+    @Test
+    void close_restoresInterruptStatus() throws Exception {
+        AgreementLedger ledger = new AgreementLedger(tempDir, (sequence, agreement) -> {});
+        CompletableFuture<Long> appended = ledger.append(agreement(0));
+        Thread.currentThread().interrupt();
+        ledger.close();
+        assertTrue(Thread.interrupted());
+        assertEquals(0, appended.get());
+    }
+
+    @Test
+    void append_afterCloseThrows() throws Exception {
+        AgreementLedger ledger = new AgreementLedger(tempDir, (sequence, agreement) -> {});
+        ledger.close();
+        assertThrows(IllegalStateException.class, () -> ledger.append(agreement(0)));
+    }
+
+    @Test
+    void open_rejectsMissingSegment() throws Exception {
+        try (AgreementLedger ledger = new AgreementLedger(tempDir, 1024, (sequence, agreement) -> {})) {
+            for (int i = 0; i < 40; i++) ledger.append(agreement(i)).get();
+        }
+        Path first;
+        try (Stream<Path> files = Files.list(tempDir).sorted()) {
+            first = files.findFirst().orElseThrow();
+        }
+        Files.delete(first);
+        assertThrows(IOException.class, () -> new AgreementLedger(tempDir, 1024, (sequence, agreement) -> {}));
+    }
+}
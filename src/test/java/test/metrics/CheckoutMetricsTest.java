@@ -0,0 +1,76 @@
+package test.metrics;
+
+import demo.rental.Rental;
+import demo.rental.metrics.CheckoutMetrics;
+import demo.rental.metrics.CheckoutStage;
+import demo.rental.metrics.MetricsSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutMetricsTest {
+    private static final CheckoutMetrics metrics = CheckoutMetrics.getInstance();
+    private static final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+
+    @BeforeEach
+    void enable() {
+        metrics.reset();
+        metrics.setEnabled(true);
+    }
+
+    @AfterEach
+    void disable() {
+        metrics.setEnabled(false);
+        metrics.reset();
+    }
+
+    @Test
+    void checkout_recordsStagesAndToolTypes() throws Exception {
+        Rental.checkout("LADW", 3, 10, checkoutDate);
+        Rental.checkout("JAKR", 3, 10, checkoutDate);
+        Rental.checkout("JAKD", 3, 10, checkoutDate);
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(Map.of("Ladder", 1L, "Jackhammer", 2L), snapshot.checkoutsByToolType());
+        assertEquals(3, snapshot.checkoutCount());
+        for (CheckoutStage stage : CheckoutStage.values()) {
+            assertEquals(3, snapshot.stageLatencies().get(stage).count(), stage.name());
+        }
+    }
+
+    @Test
+    void checkout_recordsFailures() {
+        assertThrows(Exception.class, () -> Rental.checkout("NOPE", 3, 10, checkoutDate));
+        assertThrows(Exception.class, () -> Rental.checkout("LADW", 3, 101, checkoutDate));
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(Map.of(CheckoutMetrics.UNKNOWN_TOOL_TYPE, 2L), snapshot.failuresByToolType());
+        assertEquals(0, snapshot.checkoutCount());
+    }
+
+    @Test
+    void checkout_nothingRecordedWhileDisabled() throws Exception {
+        metrics.setEnabled(false);
+        Rental.checkout("LADW", 3, 10, checkoutDate);
+        assertNull(CheckoutMetrics.ifEnabled());
+        assertEquals(0, metrics.snapshot().checkoutCount());
+        assertEquals(0, metrics.snapshot().stageLatencies().get(CheckoutStage.TOTAL).count());
+    }
+
+    @Test
+    void registerMBean_exposesAttributes() throws Exception {
+        CheckoutMetrics.registerMBean();
+        CheckoutMetrics.registerMBean();
+        Rental.checkout("CHNS", 3, 10, checkoutDate);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CheckoutMetrics.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "CheckoutCount"));
+        assertEquals(true, server.getAttribute(name, "Enabled"));
+    }
+}
@@ -0,0 +1,58 @@
+package test.metrics;
+
+import demo.rental.metrics.HistogramSnapshot;
+import demo.rental.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void snapshot_emptyHistogram() {
+        HistogramSnapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.p99Nanos());
+    }
+
+    @Test
+    void record_smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int nanos = 1; nanos <= 10; nanos++) {
+            histogram.record(nanos);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10, snapshot.count());
+        assertEquals(5, snapshot.meanNanos());
+        assertEquals(10, snapshot.maxNanos());
+        assertEquals(5, snapshot.p50Nanos());
+        assertEquals(9, snapshot.p90Nanos());
+    }
+
+    @Test
+    void valueAtPercentile_withinSixPercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+        assertEquals(50_000_000, histogram.valueAtPercentile(50), 50_000_000 * 0.0625);
+        assertEquals(99_000_000, histogram.valueAtPercentile(99), 99_000_000 * 0.0625);
+        assertTrue(histogram.valueAtPercentile(50) >= 50_000_000);
+    }
+
+    @Test
+    void record_extremeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void reset_clearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.reset();
+        assertEquals(new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0), histogram.snapshot());
+    }
+}
@@ -0,0 +1,112 @@
+package test.overdue;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.overdue.OverdueTracker;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverdueTrackerTest {
+    private static final LocalDate today = LocalDate.of(2020, 7, 2);
+
+    private final List<Long> reportedIds = new ArrayList<>();
+    private final Map<Long, Integer> daysOverdue = new HashMap<>();
+    private final OverdueTracker tracker = new OverdueTracker(today, (rentalId, agreement, days) -> {
+        reportedIds.add(rentalId);
+        daysOverdue.put(rentalId, days);
+    });
+
+    private static RentalAgreement rental(LocalDate checkoutDate, int numRentalDays) throws Exception {
+        return Rental.checkout("LADW", numRentalDays, 0, checkoutDate);
+    }
+
+    @Test
+    void advanceTo_reportsTheDayAfterTheDueDate() throws Exception {
+        long rentalId = tracker.register(rental(today, 3));
+        assertEquals(0, tracker.advanceTo(today.plusDays(3)));
+        assertFalse(tracker.isOverdue(rentalId));
+        assertEquals(1, tracker.advanceTo(today.plusDays(4)));
+        assertEquals(List.of(rentalId), reportedIds);
+        assertEquals(1, daysOverdue.get(rentalId));
+        assertTrue(tracker.isOverdue(rentalId));
+        // each rental is reported once, and stays open until it is returned
+        assertEquals(0, tracker.advanceTo(today.plusDays(10)));
+        assertEquals(1, tracker.size());
+        assertTrue(tracker.returned(rentalId));
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void advanceTo_skipsReturnedRentals() throws Exception {
+        long returnedId = tracker.register(rental(today, 1));
+        long openId = tracker.register(rental(today, 1));
+        assertTrue(tracker.returned(returnedId));
+        assertFalse(tracker.returned(returnedId));
+        // the freed slot is reused, but the old id does not match the new rental
+        long laterId = tracker.register(rental(today, 5));
+        assertNotEquals(returnedId, laterId);
+        assertFalse(tracker.returned(returnedId));
+
+        assertEquals(1, tracker.advanceTo(today.plusDays(2)));
+        assertEquals(List.of(openId), reportedIds);
+        assertEquals(2, tracker.size());
+    }
+
+    @Test
+    void advanceTo_reportsMissedDaysAndRentalsAlreadyOverdue() throws Exception {
+        long alreadyOverdue = tracker.register(rental(today.minusDays(10), 4));
+        long dueSoon = tracker.register(rental(today, 2));
+        assertEquals(2, tracker.advanceTo(today.plusDays(30)));
+        assertEquals(List.of(alreadyOverdue, dueSoon), reportedIds);
+        assertEquals(6, daysOverdue.get(alreadyOverdue));
+        assertEquals(1, daysOverdue.get(dueSoon));
+
+        long lateRegistration = tracker.register(rental(today, 1));
+        assertEquals(1, tracker.advanceTo(today.plusDays(30)));
+        assertEquals(29, daysOverdue.get(lateRegistration));
+        assertEquals(0, tracker.advanceTo(today));
+    }
+
+    @Test
+    void advanceTo_rentalsBeyondTheWheel() throws Exception {
+        int longRental = OverdueTracker.WHEEL_DAYS * 3 + 17;
+        long rentalId = tracker.register(rental(today, longRental));
+        assertEquals(0, tracker.advanceTo(today.plusDays(longRental)));
+        assertEquals(1, tracker.advanceTo(today.plusDays(longRental + 1)));
+        assertEquals(List.of(rentalId), reportedIds);
+    }
+
+    @Test
+    void advanceTo_onlyVisitsRentalsDueThatDay() throws Exception {
+        List<Long> rentalIds = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rentalIds.add(tracker.register(rental(today, 1 + i % 100)));
+        }
+        for (int day = 1; day <= 100; day++) {
+            assertEquals(100, tracker.advanceTo(today.plusDays(day + 1)));
+        }
+        assertEquals(10_000, reportedIds.size());
+        for (long rentalId : rentalIds) assertEquals(1, daysOverdue.get(rentalId));
+    }
+
+    @Test
+    void advanceTo_throwingListenerLosesNothing() throws Exception {
+        List<Long> reported = new ArrayList<>();
+        OverdueTracker throwing = new OverdueTracker(today, (rentalId, agreement, days) -> {
+            reported.add(rentalId);
+            if (reported.size() == 1) throw new IllegalStateException("listener failed");
+        });
+        long first = throwing.register(rental(today, 1));
+        long second = throwing.register(rental(today, 1));
+        assertThrows(IllegalStateException.class, () -> throwing.advanceTo(today.plusDays(2)));
+        assertEquals(1, throwing.advanceTo(today.plusDays(2)));
+        assertEquals(List.of(second, first), reported);
+    }
+}
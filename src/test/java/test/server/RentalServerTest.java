@@ -0,0 +1,154 @@
+package test.server;
+
+import demo.rental.RentalCatalog;
+import demo.rental.inventory.Inventory;
+import demo.rental.server.RentalServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentalServerTest {
+    private static final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private static final Inventory inventory = new Inventory();
+    private static ExecutorService executor;
+    private static RentalServer server;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        inventory.stock("LADW", 1);
+        inventory.stock("JAKD", 1);
+        executor = Executors.newFixedThreadPool(4);
+        RentalCatalog catalog = RentalCatalog.getDefault();
+        server = new RentalServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), () -> catalog,
+                inventory, executor);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+        executor.shutdown();
+    }
+
+    private static HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void quote() throws Exception {
+        HttpResponse<String> response = post("/quote",
+                "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"discountPercent\":10,\"checkoutDate\":\"2020-07-02\"}");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"toolCode\":\"LADW\",\"toolType\":\"Ladder\",\"toolBrand\":\"Werner\",\"rentalDays\":3,"
+                + "\"checkoutDate\":\"2020-07-02\",\"dueDate\":\"2020-07-05\",\"dailyChargeCents\":199,"
+                + "\"chargeDays\":2,\"preDiscountChargeCents\":398,\"discountPercent\":10,\"discountAmountCents\":40,"
+                + "\"finalChargeCents\":358,\"catalogVersion\":0}", response.body());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+    }
+
+    @Test
+    void quote_checkoutErrors() throws Exception {
+        HttpResponse<String> response = post("/quote",
+                "{\"toolCode\":\"JAKR\",\"rentalDays\":5,\"discountPercent\":101,\"checkoutDate\":\"2015-09-03\"}");
+        assertEquals(400, response.statusCode());
+        assertEquals("{\"error\":\"Discount percentage must be within range [0, 100]\"}", response.body());
+        assertEquals(400, post("/quote", "{\"toolCode\":\"JAKR\"").statusCode());
+        assertEquals(400, post("/quote", "{\"toolCode\":\"JAKR\",\"rentalDays\":5,\"checkoutDate\":\"09/03/15\"}")
+                .statusCode());
+        assertEquals(400, post("/quote", "{\"toolCode\":\"JAKR\",\"rentalDays\":5.5,\"checkoutDate\":\"2015-09-03\"}")
+                .statusCode());
+    }
+
+    @Test
+    void quote_unexpectedFailureIsInternalError() throws Exception {
+        // the due date overflows LocalDate, which is a failure of the pricing code rather than a rejected request
+        HttpResponse<String> response = post("/quote",
+                "{\"toolCode\":\"JAKR\",\"rentalDays\":5,\"checkoutDate\":\"+999999999-12-31\"}");
+        assertEquals(500, response.statusCode());
+        assertTrue(response.body().startsWith("{\"error\":\"Internal error: java.time.DateTimeException"));
+    }
+
+    @Test
+    void checkout_reservesFromInventory() throws Exception {
+        String body = "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"checkoutDate\":\"2020-07-02\"}";
+        assertEquals(200, post("/checkout", body).statusCode());
+        HttpResponse<String> soldOut = post("/checkout", body);
+        assertEquals(400, soldOut.statusCode());
+        assertEquals("{\"error\":\"No units available for tool code: LADW\"}", soldOut.body());
+        // quotes never reserve
+        assertEquals(200, post("/quote", body).statusCode());
+    }
+
+    @Test
+    void return_releasesToInventory() throws Exception {
+        String body = "{\"toolCode\":\"JAKD\",\"rentalDays\":3,\"checkoutDate\":\"2020-07-02\"}";
+        assertEquals(200, post("/checkout", body).statusCode());
+        assertEquals(400, post("/checkout", body).statusCode());
+        HttpResponse<String> returned = post("/return", "{\"toolCode\":\"JAKD\"}");
+        assertEquals(200, returned.statusCode());
+        assertEquals("{\"toolCode\":\"JAKD\",\"available\":1}", returned.body());
+        assertEquals(400, post("/return", "{\"toolCode\":\"JAKD\"}").statusCode());
+        assertEquals(400, post("/return", "{\"toolCode\":\"NONE\"}").statusCode());
+        assertEquals(200, post("/checkout", body).statusCode());
+    }
+
+    @Test
+    void hostileBodies() throws Exception {
+        HttpResponse<String> deep = post("/quote", "[".repeat(200_000));
+        assertEquals(400, deep.statusCode());
+        assertTrue(deep.body().contains("nested deeper"));
+        // the server answers an oversized Content-Length without reading the body, so only the headers are sent
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.getOutputStream().write(("POST /quote HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                    + (RentalServer.MAX_BODY_BYTES + 1) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.US_ASCII));
+            assertTrue(in.readLine().startsWith("HTTP/1.1 413 "));
+        }
+
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i <= RentalServer.MAX_BATCH_SIZE; i++) batch.append(i == 0 ? "{}" : ",{}");
+        assertEquals(413, post("/batch", batch.append(']').toString()).statusCode());
+        // the server still answers afterwards
+        assertEquals(200, post("/quote", "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"checkoutDate\":\"2020-07-02\"}")
+                .statusCode());
+    }
+
+    @Test
+    void batch() throws Exception {
+        HttpResponse<String> response = post("/batch", "[{\"toolCode\":\"CHNS\",\"rentalDays\":5,"
+                + "\"discountPercent\":25,\"checkoutDate\":\"2015-07-02\"},{\"toolCode\":\"NONE\",\"rentalDays\":1,"
+                + "\"checkoutDate\":\"2015-07-02\"}]");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("[{\"toolCode\":\"CHNS\""));
+        assertTrue(response.body().contains("\"finalChargeCents\":335"));
+        assertTrue(response.body().endsWith(",{\"error\":\"Tool code not found: NONE\"}]"));
+        assertEquals(400, post("/batch", "{}").statusCode());
+    }
+
+    @Test
+    void wrongMethod() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/quote"))
+                .GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, response.statusCode());
+        assertEquals("POST", response.headers().firstValue("Allow").orElse(null));
+    }
+}
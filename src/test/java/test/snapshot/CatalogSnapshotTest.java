@@ -0,0 +1,120 @@
+package test.snapshot;
+
+import demo.rental.Rental;
+import demo.rental.RentalAgreement;
+import demo.rental.RentalCatalog;
+import demo.rental.charge.ChargePolicy;
+import demo.rental.snapshot.CatalogSnapshot;
+import demo.rental.snapshot.CatalogSnapshotCompiler;
+import demo.rental.tool.Tool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private CatalogSnapshot compileDefault() throws IOException {
+        Path output = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshotCompiler.compile(RentalCatalog.DEFAULT_TOOLS_PATH, RentalCatalog.DEFAULT_POLICIES_PATH,
+                RentalCatalog.DEFAULT_HOLIDAYS_PATH, output, 42);
+        return CatalogSnapshot.open(output);
+    }
+
+    @Test
+    void toolLookup_matchesCSV() throws IOException {
+        CatalogSnapshot snapshot = compileDefault();
+        assertEquals(42, snapshot.getCatalogVersion());
+        assertEquals(4, snapshot.getToolLookup().size());
+        Tool tool = snapshot.getToolLookup().getToolFromCode("JAKD");
+        assertEquals("Jackhammer", tool.type());
+        assertEquals("DeWalt", tool.brand());
+        assertEquals("JAKD", tool.code());
+        assertNull(snapshot.getToolLookup().getToolFromCode("NONE"));
+        assertNull(snapshot.getToolLookup().getToolFromCode(null));
+    }
+
+    @Test
+    void policyLookup_matchesCSV() throws IOException {
+        CatalogSnapshot snapshot = compileDefault();
+        RentalCatalog csv = RentalCatalog.getDefault();
+        for (String type : new String[]{"Ladder", "Chainsaw", "Jackhammer"}) {
+            ChargePolicy expected = csv.getPolicyLookup().getChargePolicyFromToolType(type);
+            assertEquals(expected, snapshot.getPolicyLookup().getChargePolicyFromToolType(type));
+        }
+        assertNull(snapshot.getPolicyLookup().getChargePolicyFromToolType("Drill"));
+    }
+
+    @Test
+    void holidayLookup_matchesCSV() throws IOException {
+        CatalogSnapshot snapshot = compileDefault();
+        assertEquals(RentalCatalog.getDefault().getHolidays().size(),
+                snapshot.getHolidayLookup().getAllHolidays().size());
+        for (int year = 2015; year <= 2025; year++) {
+            for (int i = 0; i < snapshot.getHolidayLookup().getAllHolidays().size(); i++) {
+                assertEquals(RentalCatalog.getDefault().getHolidays().get(i).getDateForYear(year),
+                        snapshot.getHolidayLookup().getAllHolidays().get(i).getDateForYear(year));
+            }
+        }
+    }
+
+    @Test
+    void toRentalCatalog_pricesLikeCSV() throws Exception {
+        RentalCatalog catalog = compileDefault().toRentalCatalog();
+        assertEquals(42, catalog.getVersion());
+        LocalDate date = LocalDate.of(2015, 6, 20);
+        for (String code : new String[]{"LADW", "CHNS", "JAKR", "JAKD"}) {
+            for (int days = 1; days <= 30; days++) {
+                RentalAgreement expected = Rental.checkout(code, days, 10, date);
+                RentalAgreement actual = Rental.checkout(catalog, code, days, 10, date);
+                assertEquals(expected.getFinalCharge(), actual.getFinalCharge());
+                assertEquals(expected.getNumChargeDays(), actual.getNumChargeDays());
+                assertEquals(42, actual.getCatalogVersion());
+            }
+        }
+    }
+
+    @Test
+    void compile_laterRowsWinAndNonAsciiCodesWork() throws IOException {
+        Files.writeString(tempDir.resolve("Tools.csv"), "Ladder,Werner,LADW\nLadder,Louisville,LADW\nSäge,Stihl,SÄGE\n");
+        Files.writeString(tempDir.resolve("ChargePolicies.csv"), "Ladder,199,Yes,Yes,No\nSäge,149,Yes,No,Yes\n");
+        Files.writeString(tempDir.resolve("Holidays.csv"), "Fixed,1,1,\n");
+        Path output = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshotCompiler.compile(tempDir.resolve("Tools.csv").toString(),
+                tempDir.resolve("ChargePolicies.csv").toString(), tempDir.resolve("Holidays.csv").toString(), output, 1);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(output);
+        assertEquals(2, snapshot.getToolLookup().size());
+        assertEquals("Louisville", snapshot.getToolLookup().getToolFromCode("LADW").brand());
+        assertEquals("Säge", snapshot.getToolLookup().getToolFromCode("SÄGE").type());
+        assertEquals(new ChargePolicy(149, true, false, true),
+                snapshot.getPolicyLookup().getChargePolicyFromToolType("Säge"));
+    }
+
+    @Test
+    void compile_failsOnMissingOrMalformedHolidays() throws IOException {
+        Path output = tempDir.resolve("catalog.snapshot");
+        Path holidays = tempDir.resolve("Holidays.csv");
+        assertThrows(IOException.class, () -> CatalogSnapshotCompiler.compile(RentalCatalog.DEFAULT_TOOLS_PATH,
+                RentalCatalog.DEFAULT_POLICIES_PATH, holidays.toString(), output, 1));
+        Files.writeString(holidays, "ClosestWeekday,July,4,\n");
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshotCompiler.compile(
+                RentalCatalog.DEFAULT_TOOLS_PATH, RentalCatalog.DEFAULT_POLICIES_PATH, holidays.toString(), output, 1));
+        assertFalse(Files.exists(output));
+    }
+
+    @Test
+    void open_rejectsOtherFiles() throws IOException {
+        Path empty = Files.writeString(tempDir.resolve("empty.snapshot"), "");
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(empty));
+        Path csv = Files.writeString(tempDir.resolve("not.snapshot"), "Ladder,Werner,LADW\n".repeat(10));
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(csv));
+    }
+}
@@ -0,0 +1,85 @@
+package test.tool;
+
+import demo.rental.tool.Tool;
+import demo.rental.tool.ToolCodes;
+import demo.rental.tool.ToolLookupCSV;
+import demo.rental.tool.ToolLookupColumnar;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolLookupColumnarTest {
+    private static final String csvPath = "src/test/java/test/tool/ToolLookupCSVTest.csv";
+    private static final ToolLookupColumnar toolLookup = new ToolLookupColumnar(csvPath);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void loadTest_allTools() {
+        assertEquals(new Tool("Ladder", "Werner", "LADW"), toolLookup.getToolFromCode("LADW"));
+        assertEquals(new Tool("Chainsaw", "Stihl", "CHNS"), toolLookup.getToolFromCode("CHNS"));
+        assertEquals(new Tool("Jackhammer", "Ridgid", "JAKR"), toolLookup.getToolFromCode("JAKR"));
+        assertEquals(new Tool("Jackhammer", "DeWalt", "JAKD"), toolLookup.getToolFromCode("JAKD"));
+    }
+
+    @Test
+    public void loadTest_dictionaryEncodesTypes() {
+        assertEquals(4, toolLookup.size());
+        assertEquals(3, toolLookup.numTypes());
+        assertEquals(4, toolLookup.numBrands());
+        assertSame(toolLookup.getToolFromCode("JAKR").type(), toolLookup.getToolFromCode("JAKD").type());
+    }
+
+    @Test
+    public void getToolFromCode_unknownCodes() {
+        assertNull(toolLookup.getToolFromCode("NOPE"));
+        assertNull(toolLookup.getToolFromCode(""));
+        assertNull(toolLookup.getToolFromCode(null));
+        assertNull(toolLookup.getToolFromCode("LADWLADWLADW"));
+    }
+
+    @Test
+    public void loadTest_matchesToolLookupCSVForLargeCatalog() throws IOException {
+        Path path = tempDir.resolve("tools.csv");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            // every tenth code is too long to pack, and the last rows replace earlier codes
+            String code = i % 10 == 0 ? "LONGCODE-" + i : "T" + Integer.toString(i % 19000, 36);
+            csv.append("Type").append(i % 37).append(",Brand").append(i % 11).append(',').append(code).append('\n');
+        }
+        Files.writeString(path, csv);
+        ToolLookupColumnar columnar = new ToolLookupColumnar(path.toString());
+        ToolLookupCSV expected = new ToolLookupCSV(path.toString());
+        for (int i = 0; i < 20000; i++) {
+            String code = i % 10 == 0 ? "LONGCODE-" + i : "T" + Integer.toString(i % 19000, 36);
+            assertEquals(expected.getToolFromCode(code), columnar.getToolFromCode(code));
+        }
+        assertEquals(37, columnar.numTypes());
+        assertEquals(11, columnar.numBrands());
+    }
+
+    @Test
+    public void pack_roundTrips() {
+        for (String code : new String[]{"L", "LADW", "ABCDEFGH", "a-1 ~"}) {
+            long packed = ToolCodes.pack(code);
+            assertTrue(packed > 0);
+            assertEquals(code, ToolCodes.unpack(packed));
+        }
+        assertNotEquals(ToolCodes.pack("LADW"), ToolCodes.pack("LADW2"));
+    }
+
+    @Test
+    public void pack_rejectsUnpackableCodes() {
+        assertEquals(ToolCodes.NOT_PACKABLE, ToolCodes.pack(null));
+        assertEquals(ToolCodes.NOT_PACKABLE, ToolCodes.pack(""));
+        assertEquals(ToolCodes.NOT_PACKABLE, ToolCodes.pack("ABCDEFGHI"));
+        assertEquals(ToolCodes.NOT_PACKABLE, ToolCodes.pack("SÄGE"));
+        assertEquals(ToolCodes.NOT_PACKABLE, ToolCodes.pack("A\0B"));
+    }
+}